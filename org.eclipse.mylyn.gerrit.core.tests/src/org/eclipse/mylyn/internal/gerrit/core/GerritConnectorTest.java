@@ -14,15 +14,22 @@ package org.eclipse.mylyn.internal.gerrit.core;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
+import java.io.File;
 import java.util.Collections;
 import java.util.List;
 
 import org.eclipse.mylyn.internal.gerrit.core.client.GerritClient;
 import org.eclipse.mylyn.internal.gerrit.core.client.GerritConfiguration;
+import org.eclipse.mylyn.internal.gerrit.core.client.GerritConfigurationStore;
+import org.eclipse.mylyn.internal.gerrit.core.client.GerritConnectionManager;
 import org.eclipse.mylyn.internal.gerrit.core.client.compat.GerritConfigX;
 import org.eclipse.mylyn.tasks.core.TaskRepository;
+import org.junit.After;
 import org.junit.Test;
 
 import com.google.gerrit.reviewdb.Project;
@@ -35,6 +42,11 @@ public class GerritConnectorTest {
 
 	private final GerritConnector connector = new GerritConnector();
 
+	@After
+	public void tearDown() {
+		connector.dispose();
+	}
+
 	@Test
 	public void testCanCreateNewTask() {
 		assertFalse(connector.canCreateNewTask(null));
@@ -135,4 +147,31 @@ public class GerritConnectorTest {
 		assertNull(client.getGerritConfig());
 	}
 
+	@Test
+	public void testRepositoryRemovedShutsDownConnectionManager() {
+		TaskRepository repository = new TaskRepository(GerritConnector.CONNECTOR_KIND, "http://repository"); //$NON-NLS-1$
+		GerritConnectionManager connectionManager = connector.getConnectionManager(repository);
+		assertSame(connectionManager, connector.getConnectionManager(repository));
+
+		connector.repositoryRemoved(repository);
+		assertNotSame(connectionManager, connector.getConnectionManager(repository));
+	}
+
+	@Test
+	public void testRepositoryRemovedDeletesConfiguration() {
+		TaskRepository repository = new TaskRepository(GerritConnector.CONNECTOR_KIND, "http://repository"); //$NON-NLS-1$
+		GerritConfigurationStore store = connector.getConfigurationStore(repository);
+		if (store == null) {
+			// the configuration is only stored in a file while the plug-in is running
+			return;
+		}
+		connector.saveConfiguration(repository, new GerritConfiguration(new GerritConfigX(),
+				Collections.<Project> emptyList(), null));
+		File file = store.getFile();
+		assertTrue(file.exists());
+
+		connector.repositoryRemoved(repository);
+		assertFalse(file.exists());
+	}
+
 }
@@ -15,9 +15,27 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.mylyn.internal.gerrit.core.client.GerritClient;
+import org.eclipse.mylyn.internal.gerrit.core.client.GerritConfiguration;
+import org.eclipse.mylyn.internal.gerrit.core.client.GerritException;
+import org.eclipse.mylyn.internal.gerrit.core.client.GerritRequestExecutor.Task;
 import org.eclipse.mylyn.tasks.core.TaskRepository;
 import org.eclipse.mylyn.tasks.core.data.TaskData;
+import org.eclipse.mylyn.tasks.core.data.TaskDataCollector;
 import org.junit.Test;
+import org.osgi.framework.Version;
 
 /**
  * @author Steffen Pingel
@@ -43,4 +61,80 @@ public class GerritTaskDataHandlerTest {
 				.getAttribute(GerritTaskSchema.getDefault().UPLOADED.getKey()));
 	}
 
+	@Test
+	public void testGetMultiTaskDataRetrievesPatchSetsConcurrently() throws Exception {
+		final TaskRepository repository = new TaskRepository(GerritConnector.CONNECTOR_KIND, "http://repository"); //$NON-NLS-1$
+		final GerritClient client = new GerritClient(repository, Version.emptyVersion) {
+			@Override
+			public GerritConfiguration refreshConfigOnce(IProgressMonitor monitor) throws GerritException {
+				return null;
+			}
+
+			@Override
+			public boolean isAnonymous() {
+				return true;
+			}
+		};
+		final GerritConnector connector = new GerritConnector() {
+			@Override
+			public GerritClient getClient(TaskRepository repository) {
+				return client;
+			}
+		};
+		final List<String> overlapping = Collections.synchronizedList(new ArrayList<String>());
+		GerritTaskDataHandler handler = new GerritTaskDataHandler(connector) {
+			@Override
+			public TaskData getTaskData(TaskRepository repository, final String taskId, IProgressMonitor monitor)
+					throws CoreException {
+				// retrieve two patch sets like getChange() does, each waits for the other to start
+				final CountDownLatch started = new CountDownLatch(2);
+				List<Task<Boolean>> tasks = new ArrayList<Task<Boolean>>();
+				for (int i = 0; i < 2; i++) {
+					tasks.add(new Task<Boolean>() {
+						@Override
+						public Boolean execute(IProgressMonitor monitor) throws GerritException {
+							started.countDown();
+							try {
+								return started.await(5, TimeUnit.SECONDS);
+							} catch (InterruptedException e) {
+								throw new GerritException(e);
+							}
+						}
+					});
+				}
+				try {
+					if (client.getRequestExecutor().execute(tasks, monitor).equals(Arrays.asList(true, true))) {
+						overlapping.add(taskId);
+					}
+				} catch (GerritException e) {
+					throw connector.toCoreException(repository, null, e);
+				}
+				return createTaskData(repository, taskId, monitor);
+			}
+		};
+		final List<String> retrieved = new ArrayList<String>();
+		TaskDataCollector collector = new TaskDataCollector() {
+			@Override
+			public void accept(TaskData taskData) {
+				retrieved.add(taskData.getTaskId());
+			}
+
+			@Override
+			public void failed(String taskId, IStatus status) {
+				throw new AssertionError("Unexpected failure: " + status); //$NON-NLS-1$
+			}
+		};
+
+		try {
+			handler.getMultiTaskData(repository, new HashSet<String>(Arrays.asList("1", "2")), collector, //$NON-NLS-1$ //$NON-NLS-2$
+					new NullProgressMonitor());
+		} finally {
+			client.getReviewExecutor().dispose();
+			client.getRequestExecutor().dispose();
+		}
+
+		assertEquals(2, retrieved.size());
+		assertEquals(new HashSet<String>(Arrays.asList("1", "2")), new HashSet<String>(overlapping)); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
 }
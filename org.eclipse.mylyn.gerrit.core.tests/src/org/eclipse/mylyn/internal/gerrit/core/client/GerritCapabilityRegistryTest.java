@@ -0,0 +1,64 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.internal.gerrit.core.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.osgi.framework.Version;
+
+public class GerritCapabilityRegistryTest {
+
+	private static final Version VERSION = new Version(2, 4, 2);
+
+	@Test
+	public void testSetVariant() {
+		GerritCapabilityRegistry registry = new GerritCapabilityRegistry(VERSION);
+		assertNull(registry.getVariant(GerritCapabilityRegistry.PATCH_SET_DETAIL));
+		assertTrue(registry.setVariant(GerritCapabilityRegistry.PATCH_SET_DETAIL,
+				GerritCapabilityRegistry.PATCH_SET_DETAIL_2));
+		assertFalse(registry.setVariant(GerritCapabilityRegistry.PATCH_SET_DETAIL,
+				GerritCapabilityRegistry.PATCH_SET_DETAIL_2));
+		assertEquals(GerritCapabilityRegistry.PATCH_SET_DETAIL_2,
+				registry.getVariant(GerritCapabilityRegistry.PATCH_SET_DETAIL));
+		assertTrue(registry.removeVariant(GerritCapabilityRegistry.PATCH_SET_DETAIL));
+		assertNull(registry.getVariant(GerritCapabilityRegistry.PATCH_SET_DETAIL));
+	}
+
+	@Test
+	public void testToJsonFromJson() {
+		GerritCapabilityRegistry registry = new GerritCapabilityRegistry(VERSION);
+		registry.setVariant(GerritCapabilityRegistry.QUERY, GerritCapabilityRegistry.QUERY_REST);
+
+		GerritCapabilityRegistry restored = GerritCapabilityRegistry.fromJson(registry.toJson(), VERSION);
+		assertEquals(GerritCapabilityRegistry.QUERY_REST, restored.getVariant(GerritCapabilityRegistry.QUERY));
+	}
+
+	@Test
+	public void testFromJsonDifferentVersion() {
+		GerritCapabilityRegistry registry = new GerritCapabilityRegistry(VERSION);
+		registry.setVariant(GerritCapabilityRegistry.QUERY, GerritCapabilityRegistry.QUERY_REST);
+
+		GerritCapabilityRegistry restored = GerritCapabilityRegistry.fromJson(registry.toJson(), new Version(2, 5, 0));
+		assertNull(restored.getVariant(GerritCapabilityRegistry.QUERY));
+	}
+
+	@Test
+	public void testFromJsonInvalid() {
+		assertNull(GerritCapabilityRegistry.fromJson(null, VERSION).getVariant(GerritCapabilityRegistry.QUERY));
+		assertNull(GerritCapabilityRegistry.fromJson("invalid", VERSION).getVariant(GerritCapabilityRegistry.QUERY)); //$NON-NLS-1$
+	}
+
+}
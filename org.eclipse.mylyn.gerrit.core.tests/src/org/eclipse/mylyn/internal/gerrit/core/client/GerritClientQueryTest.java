@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.internal.gerrit.core.client;
+
+import static org.junit.Assert.assertEquals;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.mylyn.internal.gerrit.core.GerritConnector;
+import org.eclipse.mylyn.internal.gerrit.core.client.data.GerritQueryResult;
+import org.eclipse.mylyn.tasks.core.TaskRepository;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgi.framework.Version;
+
+public class GerritClientQueryTest {
+
+	private static final String QUERY_URI = "/changes/?q=status%3Aopen"; //$NON-NLS-1$
+
+	/**
+	 * Serves canned responses for REST requests.
+	 */
+	private class StubClient extends GerritClient {
+
+		final Map<String, String> responseByUri = new HashMap<String, String>();
+
+		final List<String> requestedUris = Collections.synchronizedList(new ArrayList<String>());
+
+		StubClient() {
+			super(new TaskRepository(GerritConnector.CONNECTOR_KIND, "http://repository"), Version.emptyVersion); //$NON-NLS-1$
+		}
+
+		@Override
+		protected <T> T executeGetRestRequest(String url, Type resultType, IProgressMonitor monitor)
+				throws GerritException {
+			requestedUris.add(url);
+			String response = responseByUri.get(url);
+			if (response == null) {
+				throw new GerritHttpException(404);
+			}
+			return JSonSupport.getDefault().parseResponse(response, resultType);
+		}
+
+	}
+
+	private StubClient client;
+
+	@Before
+	public void setUp() {
+		client = new StubClient();
+	}
+
+	@After
+	public void tearDown() {
+		client.getRequestExecutor().dispose();
+	}
+
+	@Test
+	public void testExecuteQueryRest() throws Exception {
+		client.responseByUri.put(QUERY_URI, "[{\"_number\":1},{\"_number\":2}]"); //$NON-NLS-1$
+
+		List<GerritQueryResult> results = client.executeQueryRest(new NullProgressMonitor(), "status:open"); //$NON-NLS-1$
+
+		assertEquals(Collections.singletonList(QUERY_URI), client.requestedUris);
+		assertEquals(2, results.size());
+	}
+
+	@Test
+	public void testExecuteQueryRestMoreChanges() throws Exception {
+		client.responseByUri.put(QUERY_URI, "[{\"_number\":1},{\"_number\":2,\"_more_changes\":true}]"); //$NON-NLS-1$
+		client.responseByUri.put(QUERY_URI + "&S=2", "[{\"_number\":3,\"_more_changes\":true}]"); //$NON-NLS-1$ //$NON-NLS-2$
+		client.responseByUri.put(QUERY_URI + "&S=3", "[{\"_number\":4}]"); //$NON-NLS-1$ //$NON-NLS-2$
+
+		List<GerritQueryResult> results = client.executeQueryRest(new NullProgressMonitor(), "status:open"); //$NON-NLS-1$
+
+		assertEquals(3, client.requestedUris.size());
+		assertEquals(QUERY_URI, client.requestedUris.get(0));
+		assertEquals(QUERY_URI + "&S=2", client.requestedUris.get(1)); //$NON-NLS-1$
+		assertEquals(QUERY_URI + "&S=3", client.requestedUris.get(2)); //$NON-NLS-1$
+		assertEquals(4, results.size());
+		for (int i = 0; i < results.size(); i++) {
+			assertEquals(i + 1, results.get(i).getNumber());
+		}
+	}
+
+}
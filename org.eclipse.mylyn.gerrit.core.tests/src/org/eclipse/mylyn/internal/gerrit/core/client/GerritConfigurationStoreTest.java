@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.internal.gerrit.core.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+
+import org.eclipse.mylyn.internal.gerrit.core.client.compat.GerritConfigX;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.gerrit.reviewdb.Account;
+import com.google.gerrit.reviewdb.Project;
+import com.google.gerrit.reviewdb.Project.NameKey;
+
+public class GerritConfigurationStoreTest {
+
+	private File file;
+
+	private GerritConfigurationStore store;
+
+	@Before
+	public void setUp() throws Exception {
+		file = File.createTempFile("gerrit", GerritConfigurationStore.FILE_EXTENSION); //$NON-NLS-1$
+		file.delete();
+		store = new GerritConfigurationStore(file);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		file.delete();
+	}
+
+	@Test
+	public void testReadMissingFile() throws Exception {
+		assertNull(store.read(null));
+	}
+
+	@Test
+	public void testWriteRead() throws Exception {
+		GerritConfiguration configuration = new GerritConfiguration(new GerritConfigX(), Arrays.asList(new Project(
+				new NameKey("one")), new Project(new NameKey("two"))), new Account(new Account.Id(1000001))); //$NON-NLS-1$ //$NON-NLS-2$
+		String checksum = store.write(configuration);
+
+		GerritConfiguration result = store.read(checksum);
+		assertNotNull(result.getGerritConfig());
+		assertEquals(2, result.getProjects().size());
+		assertEquals("one", result.getProjects().get(0).getName()); //$NON-NLS-1$
+		assertEquals("two", result.getProjects().get(1).getName()); //$NON-NLS-1$
+		assertEquals(1000001, result.getAccount().getId().get());
+	}
+
+	@Test
+	public void testWriteReadWithoutAccount() throws Exception {
+		store.write(new GerritConfiguration(new GerritConfigX(), Arrays.<Project> asList(), null));
+
+		GerritConfiguration result = store.read(null);
+		assertEquals(0, result.getProjects().size());
+		assertNull(result.getAccount());
+	}
+
+	@Test(expected = IOException.class)
+	public void testReadChecksumMismatch() throws Exception {
+		String checksum = store.write(new GerritConfiguration(new GerritConfigX(), Arrays.asList(new Project(
+				new NameKey("one"))), null)); //$NON-NLS-1$
+		RandomAccessFile out = new RandomAccessFile(file, "rw"); //$NON-NLS-1$
+		try {
+			out.seek(out.length() - 1);
+			out.write('x');
+		} finally {
+			out.close();
+		}
+		store.read(checksum);
+	}
+
+	@Test(expected = IOException.class)
+	public void testReadTruncated() throws Exception {
+		store.write(new GerritConfiguration(new GerritConfigX(), Arrays.asList(new Project(new NameKey("one"))), null)); //$NON-NLS-1$
+		RandomAccessFile out = new RandomAccessFile(file, "rw"); //$NON-NLS-1$
+		try {
+			out.setLength(out.length() - 2);
+		} finally {
+			out.close();
+		}
+		store.read(null);
+	}
+
+	@Test
+	public void testDelete() throws Exception {
+		store.write(new GerritConfiguration(new GerritConfigX(), Arrays.<Project> asList(), null));
+
+		store.delete();
+		assertFalse(file.exists());
+		assertNull(store.read(null));
+	}
+
+}
@@ -0,0 +1,71 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.internal.gerrit.core.client;
+
+import static org.junit.Assert.assertEquals;
+
+import org.apache.commons.httpclient.ConnectionPoolTimeoutException;
+import org.apache.commons.httpclient.HostConfiguration;
+import org.apache.commons.httpclient.HttpConnection;
+import org.eclipse.core.runtime.AssertionFailedException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class GerritConnectionManagerTest {
+
+	private GerritConnectionManager connectionManager;
+
+	private HostConfiguration hostConfiguration;
+
+	@Before
+	public void setUp() {
+		connectionManager = new GerritConnectionManager();
+		hostConfiguration = new HostConfiguration();
+		hostConfiguration.setHost("localhost", 8080); //$NON-NLS-1$
+	}
+
+	@After
+	public void tearDown() {
+		connectionManager.shutdown();
+	}
+
+	@Test
+	public void testUtilization() throws Exception {
+		HttpConnection connection1 = connectionManager.getConnectionWithTimeout(hostConfiguration, 0);
+		HttpConnection connection2 = connectionManager.getConnectionWithTimeout(hostConfiguration, 0);
+		assertEquals(2, connectionManager.getLeasedConnections());
+		assertEquals(0, connectionManager.getAvailableConnections());
+
+		connection1.releaseConnection();
+		assertEquals(1, connectionManager.getLeasedConnections());
+		assertEquals(1, connectionManager.getAvailableConnections());
+
+		connection2.releaseConnection();
+		assertEquals(0, connectionManager.getLeasedConnections());
+		assertEquals(2, connectionManager.getAvailableConnections());
+		assertEquals(0, connectionManager.getPendingRequests());
+	}
+
+	@Test(expected = ConnectionPoolTimeoutException.class)
+	public void testMaxConnectionsPerHost() throws Exception {
+		connectionManager.setLimits(1, 2);
+		connectionManager.getConnectionWithTimeout(hostConfiguration, 0);
+		connectionManager.getConnectionWithTimeout(hostConfiguration, 10);
+	}
+
+	@Test(expected = AssertionFailedException.class)
+	public void testSetLimitsInvalid() {
+		connectionManager.setLimits(2, 1);
+	}
+
+}
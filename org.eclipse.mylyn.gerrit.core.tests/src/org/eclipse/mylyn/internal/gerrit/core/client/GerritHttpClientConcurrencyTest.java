@@ -0,0 +1,319 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.internal.gerrit.core.client;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.httpclient.HostConfiguration;
+import org.apache.commons.httpclient.HttpConnection;
+import org.apache.commons.httpclient.HttpParser;
+import org.apache.commons.httpclient.SimpleHttpConnectionManager;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.mylyn.commons.net.IProxyProvider;
+import org.eclipse.mylyn.commons.net.WebLocation;
+import org.eclipse.mylyn.internal.gerrit.core.GerritConnector;
+import org.eclipse.mylyn.internal.gerrit.core.client.GerritHttpClient.JsonEntity;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Drives a single {@link GerritHttpClient} from many threads against a mock Gerrit server that is plugged in as the
+ * connection manager of the client.
+ */
+public class GerritHttpClientConcurrencyTest {
+
+	private static final int THREADS = 16;
+
+	private static final int REQUESTS = 400;
+
+	private static final String URL = "http://localhost"; //$NON-NLS-1$
+
+	private static final String LOGIN_COOKIE_NAME = "GerritAccount"; //$NON-NLS-1$
+
+	private static final String XSRF_KEY = "xsrf"; //$NON-NLS-1$
+
+	private static final String CRLF = "\r\n"; //$NON-NLS-1$
+
+	private static class Change {
+
+		String id;
+
+	}
+
+	/**
+	 * Hands out connections that answer requests in memory.
+	 */
+	private class MockConnectionManager extends SimpleHttpConnectionManager {
+
+		@Override
+		public HttpConnection getConnection(HostConfiguration hostConfiguration) {
+			return getConnectionWithTimeout(hostConfiguration, 0);
+		}
+
+		@Override
+		public HttpConnection getConnectionWithTimeout(HostConfiguration hostConfiguration, long timeout) {
+			return new MockConnection(hostConfiguration);
+		}
+
+		@Override
+		public void releaseConnection(HttpConnection connection) {
+			// connections are not reused
+		}
+
+	}
+
+	/**
+	 * Buffers the request and answers it from {@link GerritHttpClientConcurrencyTest#handle(String, Map)} when the
+	 * client starts reading the response.
+	 */
+	private class MockConnection extends HttpConnection {
+
+		private final ByteArrayOutputStream request = new ByteArrayOutputStream();
+
+		private InputStream response = new ByteArrayInputStream(new byte[0]);
+
+		public MockConnection(HostConfiguration hostConfiguration) {
+			super(hostConfiguration);
+		}
+
+		@Override
+		public boolean isOpen() {
+			return true;
+		}
+
+		@Override
+		public void open() throws IOException {
+			// nothing to connect to
+		}
+
+		@Override
+		protected void assertOpen() {
+			// always open
+		}
+
+		@Override
+		public boolean closeIfStale() {
+			return false;
+		}
+
+		@Override
+		public void close() {
+			// nothing to close
+		}
+
+		@Override
+		public void write(byte[] data, int offset, int length) {
+			request.write(data, offset, length);
+		}
+
+		@Override
+		public OutputStream getRequestOutputStream() {
+			return request;
+		}
+
+		@Override
+		public void flushRequestOutputStream() {
+			// the request is processed when the response is read
+		}
+
+		@Override
+		public boolean isResponseAvailable() {
+			return true;
+		}
+
+		@Override
+		public boolean isResponseAvailable(int timeout) {
+			return true;
+		}
+
+		@Override
+		public InputStream getResponseInputStream() throws IOException {
+			if (request.size() > 0) {
+				response = new ByteArrayInputStream(process(request.toString("ISO-8859-1"))); //$NON-NLS-1$
+				request.reset();
+			}
+			return response;
+		}
+
+		@Override
+		public String readLine(String charset) throws IOException {
+			return HttpParser.readLine(getResponseInputStream(), charset);
+		}
+
+		private byte[] process(String request) throws IOException {
+			String[] lines = request.substring(0, request.indexOf(CRLF + CRLF)).split(CRLF);
+			String path = lines[0].split(" ")[1]; //$NON-NLS-1$
+			if (path.startsWith(URL)) {
+				path = path.substring(URL.length());
+			}
+			int query = path.indexOf('?');
+			if (query != -1) {
+				path = path.substring(0, query);
+			}
+			Map<String, String> headers = new HashMap<String, String>();
+			for (int i = 1; i < lines.length; i++) {
+				int colon = lines[i].indexOf(':');
+				String name = lines[i].substring(0, colon).trim().toLowerCase(Locale.ENGLISH);
+				String value = lines[i].substring(colon + 1).trim();
+				headers.put(name, (headers.containsKey(name)) ? headers.get(name) + "; " + value : value); //$NON-NLS-1$
+			}
+			return handle(path, headers);
+		}
+
+	}
+
+	private final AtomicInteger loginCount = new AtomicInteger();
+
+	private final AtomicInteger hostPageCount = new AtomicInteger();
+
+	private volatile String validSession;
+
+	private ExecutorService clientExecutor;
+
+	private GerritHttpClient client;
+
+	@Before
+	public void setUp() throws Exception {
+		WebLocation location = new WebLocation(URL, "user", "password", new IProxyProvider() { //$NON-NLS-1$ //$NON-NLS-2$
+					public Proxy getProxyForHost(String host, String proxyType) {
+						return Proxy.NO_PROXY;
+					}
+				});
+		client = new GerritHttpClient(location);
+		client.setConnectionManager(new MockConnectionManager());
+		clientExecutor = Executors.newFixedThreadPool(THREADS);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		clientExecutor.shutdownNow();
+	}
+
+	@Test
+	public void testConcurrentRequests() throws Exception {
+		executeConcurrently();
+
+		assertEquals(1, loginCount.get());
+		assertEquals(1, hostPageCount.get());
+	}
+
+	@Test
+	public void testConcurrentReauthentication() throws Exception {
+		executeConcurrently();
+		// expire the session on the server
+		validSession = "expired"; //$NON-NLS-1$
+
+		executeConcurrently();
+
+		assertEquals(2, loginCount.get());
+		// the XSRF key is bound to the session
+		assertEquals(2, hostPageCount.get());
+	}
+
+	private byte[] handle(String path, Map<String, String> headers) throws IOException {
+		if ("/".equals(path)) { //$NON-NLS-1$
+			hostPageCount.incrementAndGet();
+			return respond(200, null, "<html><script>var x=1;gerrit_hostpagedata.xGerritAuth=\"" + XSRF_KEY //$NON-NLS-1$
+					+ "\"</script></html>"); //$NON-NLS-1$
+		} else if ("/login/mine".equals(path)) { //$NON-NLS-1$
+			String session = "session" + loginCount.incrementAndGet(); //$NON-NLS-1$
+			validSession = session;
+			return respond(302, "Set-Cookie: " + LOGIN_COOKIE_NAME + "=" + session + "; Path=/" + CRLF //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+					+ "Location: " + URL + "/" + CRLF, ""); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		} else if (!isAuthorized(headers)) {
+			return respond(401, null, ""); //$NON-NLS-1$
+		} else if (path.startsWith("/changes/")) { //$NON-NLS-1$
+			return respond(200, null, ")]}'\n{\"id\":\"" + path.substring("/changes/".length()) + "\"}"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		} else if (path.startsWith(GerritConnector.GERRIT_RPC_URI)) {
+			return respond(200, null, "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":\"ok\"}"); //$NON-NLS-1$
+		} else {
+			return respond(404, null, ""); //$NON-NLS-1$
+		}
+	}
+
+	private boolean isAuthorized(Map<String, String> headers) {
+		if (!XSRF_KEY.equals(headers.get("x-gerrit-auth"))) { //$NON-NLS-1$
+			return false;
+		}
+		String cookies = headers.get("cookie"); //$NON-NLS-1$
+		return cookies != null && cookies.contains(LOGIN_COOKIE_NAME + "=" + validSession); //$NON-NLS-1$
+	}
+
+	private byte[] respond(int code, String headers, String body) throws IOException {
+		byte[] content = body.getBytes("UTF-8"); //$NON-NLS-1$
+		StringBuilder sb = new StringBuilder();
+		sb.append("HTTP/1.1 ").append(code).append(" Mock").append(CRLF); //$NON-NLS-1$ //$NON-NLS-2$
+		sb.append("Content-Type: application/json; charset=UTF-8").append(CRLF); //$NON-NLS-1$
+		sb.append("Content-Length: ").append(content.length).append(CRLF); //$NON-NLS-1$
+		if (headers != null) {
+			sb.append(headers);
+		}
+		sb.append(CRLF);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		out.write(sb.toString().getBytes("ISO-8859-1")); //$NON-NLS-1$
+		out.write(content);
+		return out.toByteArray();
+	}
+
+	private void executeConcurrently() throws Exception {
+		List<Future<String>> futures = new ArrayList<Future<String>>(REQUESTS);
+		List<String> expected = new ArrayList<String>(REQUESTS);
+		for (int i = 0; i < REQUESTS; i++) {
+			if (i % 2 == 0) {
+				final String id = Integer.toString(i);
+				futures.add(clientExecutor.submit(new Callable<String>() {
+					public String call() throws Exception {
+						Change change = client.getRestRequest("/changes/" + id, Change.class, //$NON-NLS-1$
+								new NullProgressMonitor());
+						return change.id;
+					}
+				}));
+				expected.add(id);
+			} else {
+				futures.add(clientExecutor.submit(new Callable<String>() {
+					public String call() throws Exception {
+						return client.postJsonRequest(GerritConnector.GERRIT_RPC_URI + "ChangeDetailService", //$NON-NLS-1$
+								new JsonEntity() {
+									@Override
+									public String getContent() {
+										return "{\"jsonrpc\":\"2.0\",\"method\":\"changeDetail\",\"params\":[],\"id\":1}"; //$NON-NLS-1$
+									}
+								}, String.class, new NullProgressMonitor());
+					}
+				}));
+				expected.add("ok"); //$NON-NLS-1$
+			}
+		}
+		for (int i = 0; i < REQUESTS; i++) {
+			assertEquals(expected.get(i), futures.get(i).get());
+		}
+	}
+
+}
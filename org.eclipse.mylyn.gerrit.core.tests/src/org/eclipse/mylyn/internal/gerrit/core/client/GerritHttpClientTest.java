@@ -13,11 +13,22 @@
 package org.eclipse.mylyn.internal.gerrit.core.client;
 
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
+import org.apache.commons.httpclient.Cookie;
+import org.apache.commons.httpclient.Header;
 import org.apache.commons.httpclient.HttpMethodBase;
 import org.eclipse.core.runtime.AssertionFailedException;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -97,4 +108,74 @@ public class GerritHttpClientTest {
 		assertArrayEquals(binary, result);
 	}
 
+	@Test
+	public void restRequestDecodesGzipContent() throws IOException {
+		GerritHttpClient client = new GerritHttpClient(abstractWebLocation);
+		Request<String> request = client.new RestRequest<String>(HttpMethod.GET, "serviceUri", null /*input*/, //$NON-NLS-1$
+				String.class, null /*error handler*/);
+		byte[] content = ")]}'\n\"content\"".getBytes("UTF-8"); //$NON-NLS-1$ //$NON-NLS-2$
+		ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+		GZIPOutputStream out = new GZIPOutputStream(gzipped);
+		out.write(content);
+		out.close();
+		HttpMethodBase httpMethodBase = mock(HttpMethodBase.class);
+		when(httpMethodBase.getResponseHeader("Content-Encoding")).thenReturn(new Header("Content-Encoding", "gzip")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		when(httpMethodBase.getResponseBodyAsStream()).thenReturn(new ByteArrayInputStream(gzipped.toByteArray()));
+		when(httpMethodBase.getResponseCharSet()).thenReturn("UTF-8"); //$NON-NLS-1$
+
+		String result = request.process(httpMethodBase);
+
+		assertEquals("content", result); //$NON-NLS-1$
+		assertEquals(gzipped.size(), client.getReceivedBytes());
+		assertEquals(content.length, client.getDecodedBytes());
+	}
+
+	@Test
+	public void readBinaryContentPlain() throws IOException {
+		byte[] binary = "PK binary".getBytes(); //$NON-NLS-1$
+
+		byte[] result = GerritHttpClient.readBinaryContent(new ByteArrayInputStream(binary), binary.length);
+
+		assertArrayEquals(binary, result);
+	}
+
+	@Test
+	public void readBinaryContentZipped() throws IOException {
+		byte[] binary = "binary".getBytes(); //$NON-NLS-1$
+		ByteArrayOutputStream zipped = new ByteArrayOutputStream();
+		ZipOutputStream out = new ZipOutputStream(zipped);
+		out.putNextEntry(new ZipEntry("file")); //$NON-NLS-1$
+		out.write(binary);
+		out.closeEntry();
+		out.close();
+
+		byte[] result = GerritHttpClient.readBinaryContent(new ByteArrayInputStream(zipped.toByteArray()), -1);
+
+		assertArrayEquals(binary, result);
+	}
+
+	@Test
+	public void restoreSessionDoesNotNotify() {
+		final AtomicBoolean notified = new AtomicBoolean();
+		GerritHttpClient client = new GerritHttpClient(abstractWebLocation) {
+			@Override
+			protected void sessionChanged(Cookie cookie) {
+				notified.set(true);
+			}
+
+			@Override
+			protected void xsrfKeyChanged(String xsrfKey) {
+				notified.set(true);
+			}
+		};
+		Cookie cookie = new Cookie("host", "GerritAccount", "session"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+
+		client.restoreSession(cookie, "key"); //$NON-NLS-1$
+
+		assertFalse(notified.get());
+		assertSame(cookie, client.getXsrfCookie());
+		assertEquals("key", client.getXsrfKey()); //$NON-NLS-1$
+		assertEquals("key", client.getObtainedXsrfKey()); //$NON-NLS-1$
+	}
+
 }
@@ -0,0 +1,274 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.internal.gerrit.core.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.mylyn.internal.gerrit.core.client.GerritRequestCoalescer.Call;
+import org.junit.Before;
+import org.junit.Test;
+
+public class GerritRequestCoalescerTest {
+
+	private class BlockingCall extends Call<Object> {
+
+		final CountDownLatch started = new CountDownLatch(1);
+
+		final CountDownLatch release = new CountDownLatch(1);
+
+		final AtomicInteger count = new AtomicInteger();
+
+		volatile boolean canceled;
+
+		final Object result = new Object();
+
+		@Override
+		public Object call(IProgressMonitor monitor) throws GerritException {
+			count.incrementAndGet();
+			started.countDown();
+			try {
+				while (!release.await(5, TimeUnit.MILLISECONDS)) {
+					if (monitor.isCanceled()) {
+						canceled = true;
+						throw new OperationCanceledException();
+					}
+				}
+			} catch (InterruptedException e) {
+				throw new GerritException(e);
+			}
+			return result;
+		}
+
+	}
+
+	private class Caller extends Thread {
+
+		final IProgressMonitor monitor = new NullProgressMonitor();
+
+		final AtomicReference<Object> result = new AtomicReference<Object>();
+
+		final AtomicReference<Throwable> exception = new AtomicReference<Throwable>();
+
+		private final Call<Object> call;
+
+		Caller(Call<Object> call) {
+			this.call = call;
+		}
+
+		@Override
+		public void run() {
+			try {
+				result.set(coalescer.execute("key", call, monitor)); //$NON-NLS-1$
+			} catch (Throwable e) {
+				exception.set(e);
+			}
+		}
+
+	}
+
+	private GerritRequestCoalescer coalescer;
+
+	@Before
+	public void setUp() {
+		coalescer = new GerritRequestCoalescer();
+	}
+
+	@Test
+	public void testExecuteShared() throws Exception {
+		BlockingCall call = new BlockingCall();
+		Caller owner = new Caller(call);
+		owner.start();
+		assertTrue(call.started.await(5, TimeUnit.SECONDS));
+		Caller follower = new Caller(new BlockingCall());
+		follower.start();
+		waitForWaiters();
+
+		call.release.countDown();
+		owner.join(5000);
+		follower.join(5000);
+
+		assertEquals(1, call.count.get());
+		assertSame(call.result, owner.result.get());
+		assertSame(call.result, follower.result.get());
+		assertEquals(0, coalescer.getInFlightCount());
+	}
+
+	@Test
+	public void testExecuteSharedCopiesResult() throws Exception {
+		final List<Thread> copyThreads = Collections.synchronizedList(new ArrayList<Thread>());
+		BlockingCall call = new BlockingCall() {
+			@Override
+			public Object copy(Object result) {
+				copyThreads.add(Thread.currentThread());
+				return new Object();
+			}
+		};
+		Caller owner = new Caller(call);
+		owner.start();
+		assertTrue(call.started.await(5, TimeUnit.SECONDS));
+		Caller follower = new Caller(new BlockingCall());
+		follower.start();
+		waitForWaiters();
+
+		call.release.countDown();
+		owner.join(5000);
+		follower.join(5000);
+
+		assertNotNull(owner.result.get());
+		assertNotNull(follower.result.get());
+		assertNotSame(call.result, owner.result.get());
+		assertNotSame(call.result, follower.result.get());
+		assertNotSame(owner.result.get(), follower.result.get());
+		// each caller copies the result on its own thread
+		assertEquals(2, copyThreads.size());
+		assertTrue(copyThreads.contains(owner));
+		assertTrue(copyThreads.contains(follower));
+	}
+
+	@Test
+	public void testExecuteNotSharedDoesNotCopyResult() throws Exception {
+		final Object result = new Object();
+		Call<Object> call = new Call<Object>() {
+			@Override
+			public Object call(IProgressMonitor monitor) throws GerritException {
+				return result;
+			}
+
+			@Override
+			public Object copy(Object result) {
+				throw new AssertionError("Unexpected copy"); //$NON-NLS-1$
+			}
+		};
+
+		assertSame(result, coalescer.execute("key", call, null)); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testExecuteReportsProgressToOwner() throws Exception {
+		final AtomicReference<String> taskName = new AtomicReference<String>();
+		IProgressMonitor monitor = new NullProgressMonitor() {
+			@Override
+			public void beginTask(String name, int totalWork) {
+				taskName.set(name);
+			}
+		};
+		Call<String> call = new Call<String>() {
+			@Override
+			public String call(IProgressMonitor monitor) throws GerritException {
+				monitor.beginTask("task", 1); //$NON-NLS-1$
+				return "result"; //$NON-NLS-1$
+			}
+		};
+
+		assertEquals("result", coalescer.execute("key", call, monitor)); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals("task", taskName.get()); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testExecuteNullKeyNotShared() throws Exception {
+		final AtomicInteger count = new AtomicInteger();
+		Call<Integer> call = new Call<Integer>() {
+			@Override
+			public Integer call(IProgressMonitor monitor) throws GerritException {
+				return count.incrementAndGet();
+			}
+		};
+
+		assertEquals(Integer.valueOf(1), coalescer.execute(null, call, null));
+		assertEquals(Integer.valueOf(2), coalescer.execute(null, call, null));
+	}
+
+	@Test
+	public void testCancelFollower() throws Exception {
+		BlockingCall call = new BlockingCall();
+		Caller owner = new Caller(call);
+		owner.start();
+		assertTrue(call.started.await(5, TimeUnit.SECONDS));
+		Caller follower = new Caller(new BlockingCall());
+		follower.start();
+		waitForWaiters();
+
+		follower.monitor.setCanceled(true);
+		follower.join(5000);
+		assertTrue(follower.exception.get() instanceof OperationCanceledException);
+
+		call.release.countDown();
+		owner.join(5000);
+		assertFalse(call.canceled);
+		assertSame(call.result, owner.result.get());
+	}
+
+	@Test
+	public void testCancelOwner() throws Exception {
+		BlockingCall call = new BlockingCall();
+		Caller owner = new Caller(call);
+		owner.start();
+		assertTrue(call.started.await(5, TimeUnit.SECONDS));
+		Caller follower = new Caller(new BlockingCall());
+		follower.start();
+		waitForWaiters();
+
+		owner.monitor.setCanceled(true);
+		Thread.sleep(50);
+		assertFalse(call.canceled);
+
+		call.release.countDown();
+		owner.join(5000);
+		follower.join(5000);
+		assertTrue(owner.exception.get() instanceof OperationCanceledException);
+		assertSame(call.result, follower.result.get());
+		assertNull(follower.exception.get());
+	}
+
+	@Test
+	public void testCancelAll() throws Exception {
+		BlockingCall call = new BlockingCall();
+		Caller owner = new Caller(call);
+		owner.start();
+		assertTrue(call.started.await(5, TimeUnit.SECONDS));
+		Caller follower = new Caller(new BlockingCall());
+		follower.start();
+		waitForWaiters();
+
+		follower.monitor.setCanceled(true);
+		owner.monitor.setCanceled(true);
+		owner.join(5000);
+		follower.join(5000);
+
+		assertTrue(call.canceled);
+		assertTrue(owner.exception.get() instanceof OperationCanceledException);
+		assertTrue(follower.exception.get() instanceof OperationCanceledException);
+	}
+
+	private void waitForWaiters() throws InterruptedException {
+		// give the follower time to join the flight of the owner
+		Thread.sleep(50);
+	}
+
+}
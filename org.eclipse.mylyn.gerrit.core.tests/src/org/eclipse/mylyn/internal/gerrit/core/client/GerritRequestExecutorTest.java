@@ -0,0 +1,211 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.internal.gerrit.core.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.mylyn.internal.gerrit.core.client.GerritRequestExecutor.Task;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class GerritRequestExecutorTest {
+
+	private GerritRequestExecutor executor;
+
+	@Before
+	public void setUp() {
+		executor = new GerritRequestExecutor(3);
+	}
+
+	@After
+	public void tearDown() {
+		executor.dispose();
+	}
+
+	@Test
+	public void testExecuteKeepsOrder() throws Exception {
+		List<Task<Integer>> tasks = new ArrayList<Task<Integer>>();
+		for (int i = 0; i < 10; i++) {
+			final int value = i;
+			tasks.add(new Task<Integer>() {
+				@Override
+				public Integer execute(IProgressMonitor monitor) throws GerritException {
+					sleep((10 - value) * 5);
+					return value;
+				}
+			});
+		}
+
+		List<Integer> results = executor.execute(tasks, new NullProgressMonitor());
+
+		assertEquals(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), results);
+	}
+
+	@Test
+	public void testExecuteIsBounded() throws Exception {
+		final AtomicInteger running = new AtomicInteger();
+		final AtomicInteger maxRunning = new AtomicInteger();
+		List<Task<Integer>> tasks = new ArrayList<Task<Integer>>();
+		for (int i = 0; i < 12; i++) {
+			tasks.add(new Task<Integer>() {
+				@Override
+				public Integer execute(IProgressMonitor monitor) throws GerritException {
+					int current = running.incrementAndGet();
+					synchronized (maxRunning) {
+						maxRunning.set(Math.max(maxRunning.get(), current));
+					}
+					sleep(20);
+					running.decrementAndGet();
+					return current;
+				}
+			});
+		}
+
+		executor.execute(tasks, new NullProgressMonitor());
+
+		assertTrue("Expected at most 3 concurrent tasks, got " + maxRunning.get(), maxRunning.get() <= 3); //$NON-NLS-1$
+	}
+
+	@Test(expected = GerritException.class)
+	public void testExecuteFailure() throws Exception {
+		List<Task<Integer>> tasks = new ArrayList<Task<Integer>>();
+		tasks.add(new Task<Integer>() {
+			@Override
+			public Integer execute(IProgressMonitor monitor) throws GerritException {
+				return 1;
+			}
+		});
+		tasks.add(new Task<Integer>() {
+			@Override
+			public Integer execute(IProgressMonitor monitor) throws GerritException {
+				throw new GerritException("failed"); //$NON-NLS-1$
+			}
+		});
+
+		executor.execute(tasks, new NullProgressMonitor());
+	}
+
+	@Test(expected = OperationCanceledException.class)
+	public void testExecuteCanceled() throws Exception {
+		final NullProgressMonitor monitor = new NullProgressMonitor();
+		final CountDownLatch started = new CountDownLatch(1);
+		List<Task<Integer>> tasks = new ArrayList<Task<Integer>>();
+		for (int i = 0; i < 6; i++) {
+			tasks.add(new Task<Integer>() {
+				@Override
+				public Integer execute(IProgressMonitor workerMonitor) throws GerritException {
+					started.countDown();
+					while (!workerMonitor.isCanceled()) {
+						sleep(5);
+					}
+					throw new OperationCanceledException();
+				}
+			});
+		}
+		new Thread() {
+			@Override
+			public void run() {
+				try {
+					started.await(5, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					// ignore
+				}
+				monitor.setCanceled(true);
+			}
+		}.start();
+
+		executor.execute(tasks, monitor);
+	}
+
+	@Test
+	public void testExecuteNested() throws Exception {
+		List<Task<Integer>> tasks = new ArrayList<Task<Integer>>();
+		for (int i = 0; i < 6; i++) {
+			tasks.add(new Task<Integer>() {
+				@Override
+				public Integer execute(IProgressMonitor monitor) throws GerritException {
+					List<Task<Integer>> nested = new ArrayList<Task<Integer>>();
+					for (int j = 0; j < 4; j++) {
+						nested.add(new Task<Integer>() {
+							@Override
+							public Integer execute(IProgressMonitor monitor) throws GerritException {
+								return 1;
+							}
+						});
+					}
+					int sum = 0;
+					for (Integer value : executor.execute(nested, monitor)) {
+						sum += value;
+					}
+					return sum;
+				}
+			});
+		}
+
+		assertEquals(Arrays.asList(4, 4, 4, 4, 4, 4), executor.execute(tasks, new NullProgressMonitor()));
+	}
+
+	@Test
+	public void testSubmit() throws Exception {
+		final CountDownLatch release = new CountDownLatch(1);
+		Future<Integer> future = executor.submit(new Task<Integer>() {
+			@Override
+			public Integer execute(IProgressMonitor monitor) throws GerritException {
+				try {
+					release.await(5, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					throw new GerritException(e);
+				}
+				return 42;
+			}
+		}, new NullProgressMonitor());
+
+		assertFalse(future.isDone());
+		release.countDown();
+		assertEquals(Integer.valueOf(42), executor.getResult(future, new NullProgressMonitor()));
+	}
+
+	@Test(expected = GerritException.class)
+	public void testSubmitFailure() throws Exception {
+		Future<Integer> future = executor.submit(new Task<Integer>() {
+			@Override
+			public Integer execute(IProgressMonitor monitor) throws GerritException {
+				throw new GerritException("failed"); //$NON-NLS-1$
+			}
+		}, new NullProgressMonitor());
+
+		executor.getResult(future, new NullProgressMonitor());
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
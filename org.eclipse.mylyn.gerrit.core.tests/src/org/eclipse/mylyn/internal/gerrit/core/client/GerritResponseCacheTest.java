@@ -0,0 +1,186 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.internal.gerrit.core.client;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.commons.httpclient.Header;
+import org.apache.commons.httpclient.HttpMethodBase;
+import org.apache.commons.io.IOUtils;
+import org.eclipse.mylyn.internal.gerrit.core.client.GerritResponseCache.CachingInputStream;
+import org.eclipse.mylyn.internal.gerrit.core.client.GerritResponseCache.Entry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class GerritResponseCacheTest {
+
+	private File directory;
+
+	@Before
+	public void setUp() throws Exception {
+		directory = File.createTempFile("gerrit", "cache"); //$NON-NLS-1$ //$NON-NLS-2$
+		directory.delete();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		File[] files = directory.listFiles();
+		if (files != null) {
+			for (File file : files) {
+				file.delete();
+			}
+		}
+		directory.delete();
+	}
+
+	@Test
+	public void testPutGet() throws Exception {
+		GerritResponseCache cache = new GerritResponseCache(directory, 1024);
+		put(cache, "key", createMethod("\"etag\"", null), "content".getBytes()); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+
+		Entry entry = cache.get("key"); //$NON-NLS-1$
+		assertNotNull(entry);
+		assertEquals("\"etag\"", entry.getEtag()); //$NON-NLS-1$
+		assertNull(entry.getLastModified());
+		assertEquals("UTF-8", entry.getCharset()); //$NON-NLS-1$
+		assertArrayEquals("content".getBytes(), read(cache, entry)); //$NON-NLS-1$
+		assertNull(cache.get("other")); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testAddValidators() throws Exception {
+		GerritResponseCache cache = new GerritResponseCache(directory, 1024);
+		put(cache, "key", createMethod("\"etag\"", "Wed, 01 Jan 2014 00:00:00 GMT"), new byte[1]); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+
+		HttpMethodBase method = mock(HttpMethodBase.class);
+		cache.get("key").addValidators(method); //$NON-NLS-1$
+
+		verify(method).setRequestHeader("If-None-Match", "\"etag\""); //$NON-NLS-1$ //$NON-NLS-2$
+		verify(method).setRequestHeader("If-Modified-Since", "Wed, 01 Jan 2014 00:00:00 GMT"); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	@Test
+	public void testPersistent() throws Exception {
+		GerritResponseCache cache = new GerritResponseCache(directory, 1024);
+		put(cache, "key", createMethod("\"etag\"", null), "content".getBytes()); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+
+		cache = new GerritResponseCache(directory, 1024);
+		Entry entry = cache.get("key"); //$NON-NLS-1$
+		assertNotNull(entry);
+		assertEquals("\"etag\"", entry.getEtag()); //$NON-NLS-1$
+		assertArrayEquals("content".getBytes(), read(cache, entry)); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testEvictLeastRecentlyUsed() throws Exception {
+		GerritResponseCache cache = new GerritResponseCache(directory, 1024);
+		HttpMethodBase method = createMethod("\"etag\"", null); //$NON-NLS-1$
+		put(cache, "key1", method, new byte[400]); //$NON-NLS-1$
+		put(cache, "key2", method, new byte[400]); //$NON-NLS-1$
+		cache.get("key1"); //$NON-NLS-1$
+		put(cache, "key3", method, new byte[400]); //$NON-NLS-1$
+
+		assertNotNull(cache.get("key1")); //$NON-NLS-1$
+		assertNull(cache.get("key2")); //$NON-NLS-1$
+		assertNotNull(cache.get("key3")); //$NON-NLS-1$
+		assertEquals(2, cache.getEntryCount());
+		assertEquals(1, cache.getEvictionCount());
+	}
+
+	@Test
+	public void testPutExceedsMaxSize() throws Exception {
+		GerritResponseCache cache = new GerritResponseCache(directory, 1024);
+		put(cache, "key", createMethod("\"etag\"", null), new byte[2048]); //$NON-NLS-1$ //$NON-NLS-2$
+
+		assertNull(cache.get("key")); //$NON-NLS-1$
+		assertEquals(0, cache.getSize());
+	}
+
+	@Test
+	public void testPutWhileReading() throws Exception {
+		GerritResponseCache cache = new GerritResponseCache(directory, 1024);
+		InputStream in = cache.put("key", createMethod("\"etag\"", null), stream("content")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		try {
+			assertEquals('c', in.read());
+			assertNull(cache.get("key")); //$NON-NLS-1$
+			((CachingInputStream) in).commit();
+		} finally {
+			in.close();
+		}
+
+		Entry entry = cache.get("key"); //$NON-NLS-1$
+		assertNotNull(entry);
+		assertArrayEquals("content".getBytes(), read(cache, entry)); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testPutNotCommitted() throws Exception {
+		GerritResponseCache cache = new GerritResponseCache(directory, 1024);
+		InputStream in = cache.put("key", createMethod("\"etag\"", null), stream("content")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		try {
+			assertArrayEquals("content".getBytes(), IOUtils.toByteArray(in)); //$NON-NLS-1$
+		} finally {
+			in.close();
+		}
+
+		assertNull(cache.get("key")); //$NON-NLS-1$
+		assertEquals(0, directory.listFiles().length);
+	}
+
+	private void put(GerritResponseCache cache, String key, HttpMethodBase method, byte[] content) throws IOException {
+		CachingInputStream in = cache.put(key, method, new ByteArrayInputStream(content));
+		try {
+			assertArrayEquals(content, IOUtils.toByteArray(in));
+			in.commit();
+		} finally {
+			in.close();
+		}
+	}
+
+	private InputStream stream(String content) {
+		return new ByteArrayInputStream(content.getBytes());
+	}
+
+	private HttpMethodBase createMethod(String etag, String lastModified) {
+		HttpMethodBase method = mock(HttpMethodBase.class);
+		if (etag != null) {
+			when(method.getResponseHeader("ETag")).thenReturn(new Header("ETag", etag)); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		if (lastModified != null) {
+			when(method.getResponseHeader("Last-Modified")).thenReturn(new Header("Last-Modified", lastModified)); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		when(method.getResponseCharSet()).thenReturn("UTF-8"); //$NON-NLS-1$
+		return method;
+	}
+
+	private byte[] read(GerritResponseCache cache, Entry entry) throws IOException {
+		InputStream in = cache.getContent(entry);
+		try {
+			return IOUtils.toByteArray(in);
+		} finally {
+			in.close();
+		}
+	}
+
+}
@@ -12,19 +12,41 @@
 package org.eclipse.mylyn.internal.gerrit.core.client;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
 import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.GregorianCalendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.TimeZone;
 
+import org.eclipse.jgit.diff.Edit;
+import org.eclipse.mylyn.internal.gerrit.core.client.JSonSupport.JSonRpcResult;
 import org.junit.Test;
 
+import com.google.gerrit.reviewdb.Account;
+import com.google.gerrit.reviewdb.ApprovalCategory;
+import com.google.gerrit.reviewdb.Change;
+import com.google.gerrit.reviewdb.PatchSet;
+import com.google.gerrit.reviewdb.PatchSetApproval;
+import com.google.gson.reflect.TypeToken;
+
 /**
  * @author Steffen Pingel
  */
 public class JSonSupportTest {
 
+	private static final Type APPROVAL_MAP_TYPE = new TypeToken<Map<ApprovalCategory.Id, PatchSetApproval>>() {
+	}.getType();
+
 	@Test
 	public void testParseDate() {
 		JSonSupport json = new JSonSupport();
@@ -50,4 +72,112 @@ public class JSonSupportTest {
 	public void testParseResponseEmpty() {
 		new JSonSupport().parseResponse("", Timestamp.class); //$NON-NLS-1$
 	}
+
+	@Test
+	public void testParseResponseStream() throws Exception {
+		Type type = new TypeToken<List<String>>() {
+		}.getType();
+		List<String> result = new JSonSupport().parseResponse(stream("[\"a\",\"b\"]"), "UTF-8", type); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(2, result.size());
+		assertEquals("b", result.get(1)); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testParseResponseStreamXssiPrefix() throws Exception {
+		Type type = new TypeToken<List<String>>() {
+		}.getType();
+		List<String> result = new JSonSupport().parseResponse(stream(")]}'\n[\"a\"]"), "UTF-8", type); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(1, result.size());
+		assertEquals("a", result.get(0)); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testParseResponseStreamShort() throws Exception {
+		assertEquals(Integer.valueOf(1), new JSonSupport().parseResponse(stream("1"), null, Integer.class)); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testParseJsonResponseStream() throws Exception {
+		JSonRpcResult result = new JSonSupport().parseJsonResponse(
+				stream("{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":\"value\"}"), "UTF-8", String.class); //$NON-NLS-1$ //$NON-NLS-2$
+		assertNull(result.error);
+		assertEquals("value", result.getResult()); //$NON-NLS-1$
+	}
+
+	@Test(expected = GerritException.class)
+	public void testParseJsonResponseStreamError() throws Exception {
+		JSonRpcResult result = new JSonSupport().parseJsonResponse(
+				stream(")]}'\n{\"jsonrpc\":\"2.0\",\"id\":1,\"error\":{\"code\":-32603,\"message\":\"Not Signed In\"}}"), //$NON-NLS-1$
+				"UTF-8", String.class); //$NON-NLS-1$
+		result.getResult();
+	}
+
+	@Test
+	public void testParseEdit() throws Exception {
+		assertEquals(new Edit(1, 2, 3, 4), new JSonSupport().parseResponse("[1,2,3,4]", Edit.class)); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testParseEditInvalid() throws Exception {
+		assertEquals(new Edit(0, 0), new JSonSupport().parseResponse("[1,2]", Edit.class)); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testSerializeEdit() throws Exception {
+		// same format as sent by Gerrit
+		assertEquals("[1,2,3,4]", new JSonSupport().toJson(new Edit(1, 2, 3, 4))); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testParseApprovalMap() throws Exception {
+		// Gerrit < 2.2 sends a map as a list of alternating keys and values
+		String json = "[{\"id\":\"CRVW\"},{\"key\":{\"categoryId\":{\"id\":\"CRVW\"}},\"value\":2}]"; //$NON-NLS-1$
+		Map<ApprovalCategory.Id, PatchSetApproval> map = new JSonSupport().parseResponse(json, APPROVAL_MAP_TYPE);
+		assertEquals(1, map.size());
+		assertEquals(2, map.get(new ApprovalCategory.Id("CRVW")).getValue()); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testParseApprovalList() throws Exception {
+		// Gerrit 2.2 sends a list of values
+		String json = "[{\"key\":{\"categoryId\":{\"id\":\"CRVW\"}},\"value\":2}]"; //$NON-NLS-1$
+		Map<ApprovalCategory.Id, PatchSetApproval> map = new JSonSupport().parseResponse(json, APPROVAL_MAP_TYPE);
+		assertEquals(1, map.size());
+		assertEquals(2, map.get(new ApprovalCategory.Id("CRVW")).getValue()); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testCopyApprovalMap() throws Exception {
+		ApprovalCategory.Id categoryId = new ApprovalCategory.Id("CRVW"); //$NON-NLS-1$
+		PatchSet.Id patchSetId = new PatchSet.Id(new Change.Id(1), 2);
+		Map<ApprovalCategory.Id, PatchSetApproval> map = new HashMap<ApprovalCategory.Id, PatchSetApproval>();
+		map.put(categoryId, new PatchSetApproval(new PatchSetApproval.Key(patchSetId, new Account.Id(3), categoryId),
+				(short) -1));
+		Map<ApprovalCategory.Id, PatchSetApproval> copy = new JSonSupport().copy(map, APPROVAL_MAP_TYPE);
+		assertNotSame(map, copy);
+		assertEquals(1, copy.size());
+		assertEquals(-1, copy.get(categoryId).getValue());
+		assertEquals(patchSetId, copy.get(categoryId).getPatchSetId());
+	}
+
+	@Test
+	public void testCopy() throws Exception {
+		Type type = new TypeToken<List<Edit>>() {
+		}.getType();
+		List<Edit> edits = new ArrayList<Edit>();
+		edits.add(new Edit(1, 2, 3, 4));
+		List<Edit> copy = new JSonSupport().copy(edits, type);
+		assertNotSame(edits, copy);
+		assertNotSame(edits.get(0), copy.get(0));
+		assertEquals(edits, copy);
+	}
+
+	@Test
+	public void testCopyNull() throws Exception {
+		assertNull(new JSonSupport().copy(null, String.class));
+	}
+
+	private InputStream stream(String content) throws IOException {
+		return new ByteArrayInputStream(content.getBytes("UTF-8")); //$NON-NLS-1$
+	}
 }
@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.internal.gerrit.core.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.gerrit.reviewdb.Project;
+import com.google.gerrit.reviewdb.Project.NameKey;
+
+public class ProjectNameIndexTest {
+
+	private ProjectNameIndex index;
+
+	@Before
+	public void setUp() {
+		index = createIndex("platform/base", "Mylyn", "mylyn-reviews", "tools/mylyn", "egit", "reviews"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
+	}
+
+	@Test
+	public void testFindEmpty() {
+		assertEquals(6, index.find("").size()); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testFindPrefixFirst() {
+		assertEquals(Arrays.asList("Mylyn", "mylyn-reviews", "tools/mylyn"), index.find("myl")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+	}
+
+	@Test
+	public void testFindSegmentBeforeSubstring() {
+		assertEquals(Arrays.asList("reviews", "mylyn-reviews"), index.find("REV")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		assertEquals(Arrays.asList("platform/base"), index.find("as")); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	@Test
+	public void testFindNoMatch() {
+		assertEquals(Collections.emptyList(), index.find("xyz")); //$NON-NLS-1$
+		assertEquals(Collections.emptyList(), index.find("mylynx")); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testFindMatchesContains() {
+		List<String> names = new ArrayList<String>();
+		for (int i = 0; i < 1000; i++) {
+			names.add("project" + i); //$NON-NLS-1$
+		}
+		ProjectNameIndex index = createIndex(names.toArray(new String[names.size()]));
+		for (String query : new String[] { "1", "12", "t12", "ject99" }) { //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+			int expected = 0;
+			for (String name : names) {
+				if (name.contains(query)) {
+					expected++;
+				}
+			}
+			assertEquals(query, expected, index.find(query).size());
+		}
+	}
+
+	@Test
+	public void testContains() {
+		assertTrue(index.contains("Mylyn")); //$NON-NLS-1$
+		assertTrue(index.contains("tools/mylyn")); //$NON-NLS-1$
+		assertFalse(index.contains("mylyn")); //$NON-NLS-1$
+		assertFalse(index.contains("tools")); //$NON-NLS-1$
+	}
+
+	private static ProjectNameIndex createIndex(String... names) {
+		List<Project> projects = new ArrayList<Project>();
+		for (String name : names) {
+			projects.add(new Project(new NameKey(name)));
+		}
+		return new ProjectNameIndex(projects);
+	}
+
+}
@@ -16,10 +16,16 @@
  *********************************************************************/
 package org.eclipse.mylyn.internal.gerrit.core;
 
+import java.io.File;
+import java.io.IOException;
 import java.net.UnknownHostException;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Level;
@@ -28,20 +34,27 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.apache.commons.httpclient.HttpStatus;
+import org.apache.commons.httpclient.util.IdleConnectionTimeoutThread;
 import org.apache.commons.lang.StringUtils;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.mylyn.commons.core.StatusHandler;
 import org.eclipse.mylyn.commons.net.Policy;
 import org.eclipse.mylyn.internal.gerrit.core.client.GerritAuthenticationState;
+import org.eclipse.mylyn.internal.gerrit.core.client.GerritCapabilityRegistry;
 import org.eclipse.mylyn.internal.gerrit.core.client.GerritClient;
+import org.eclipse.mylyn.internal.gerrit.core.client.GerritClient.QueryResultListener;
 import org.eclipse.mylyn.internal.gerrit.core.client.GerritClientStateListener;
 import org.eclipse.mylyn.internal.gerrit.core.client.GerritConfiguration;
+import org.eclipse.mylyn.internal.gerrit.core.client.GerritConfigurationStore;
+import org.eclipse.mylyn.internal.gerrit.core.client.GerritConnectionManager;
 import org.eclipse.mylyn.internal.gerrit.core.client.GerritException;
 import org.eclipse.mylyn.internal.gerrit.core.client.GerritHttpException;
 import org.eclipse.mylyn.internal.gerrit.core.client.GerritLoginException;
+import org.eclipse.mylyn.internal.gerrit.core.client.GerritResponseCache;
 import org.eclipse.mylyn.internal.gerrit.core.client.GerritSystemInfo;
 import org.eclipse.mylyn.internal.gerrit.core.client.JSonSupport;
 import org.eclipse.mylyn.internal.gerrit.core.client.data.GerritQueryResult;
@@ -105,18 +118,69 @@ public class GerritConnector extends ReviewsConnector {
 	 */
 	public static final String CONNECTOR_LABEL = "Gerrit Code Review"; //$NON-NLS-1$
 
+	/**
+	 * Configuration serialized as JSON. Only read to migrate configurations that were stored before
+	 * {@link #KEY_REPOSITORY_CONFIG_FILE} was introduced.
+	 */
 	public static final String KEY_REPOSITORY_CONFIG = CONNECTOR_KIND + ".config"; //$NON-NLS-1$
 
+	/**
+	 * Name of the file in the state location of the plug-in that stores the configuration.
+	 */
+	public static final String KEY_REPOSITORY_CONFIG_FILE = CONNECTOR_KIND + ".configFile"; //$NON-NLS-1$
+
+	/**
+	 * Checksum of the file that stores the configuration.
+	 */
+	public static final String KEY_REPOSITORY_CONFIG_CHECKSUM = CONNECTOR_KIND + ".configChecksum"; //$NON-NLS-1$
+
 	public static final String KEY_REPOSITORY_AUTH = CONNECTOR_KIND + ".auth"; //$NON-NLS-1$
 
+	/**
+	 * Service variants that were probed for the repository.
+	 */
+	public static final String KEY_REPOSITORY_CAPABILITIES = CONNECTOR_KIND + ".capabilities"; //$NON-NLS-1$
+
 	public static final String KEY_REPOSITORY_ACCOUNT_ID = CONNECTOR_KIND + ".accountId"; //$NON-NLS-1$
 
 	public static final String KEY_REPOSITORY_OPEN_ID_ENABLED = CONNECTOR_KIND + ".openId.enabled"; //$NON-NLS-1$
 
 	public static final String KEY_REPOSITORY_OPEN_ID_PROVIDER = CONNECTOR_KIND + ".openId.provider"; //$NON-NLS-1$
 
+	/**
+	 * Maximum number of requests that are sent to the repository concurrently when loading a review.
+	 */
+	public static final String KEY_REPOSITORY_MAX_CONCURRENT_REQUESTS = CONNECTOR_KIND + ".maxConcurrentRequests"; //$NON-NLS-1$
+
+	/**
+	 * Maximum number of connections that are opened to the repository host.
+	 */
+	public static final String KEY_REPOSITORY_MAX_CONNECTIONS_PER_HOST = CONNECTOR_KIND + ".maxConnectionsPerHost"; //$NON-NLS-1$
+
+	/**
+	 * Maximum number of connections that are opened for the repository including connections to other hosts, e.g. an
+	 * OpenID provider.
+	 */
+	public static final String KEY_REPOSITORY_MAX_TOTAL_CONNECTIONS = CONNECTOR_KIND + ".maxTotalConnections"; //$NON-NLS-1$
+
 	public static final String GERRIT_RPC_URI = "/gerrit/rpc/"; //$NON-NLS-1$
 
+	private static final String RESPONSE_CACHE_FOLDER = "responses"; //$NON-NLS-1$
+
+	private static final String CONFIGURATION_FOLDER = "configurations"; //$NON-NLS-1$
+
+	/**
+	 * Connections that have been idle for longer than this are closed.
+	 */
+	private static final long IDLE_CONNECTION_TIMEOUT = 60 * 1000;
+
+	private static final long IDLE_CONNECTION_CHECK_INTERVAL = 30 * 1000;
+
+	/**
+	 * The maximum number of changes that are looked up in a single query during synchronization.
+	 */
+	static final int BULK_QUERY_SIZE = 100;
+
 	public static final String GERRIT_260_RPC_URI = "/gerrit_ui/rpc/"; //$NON-NLS-1$
 
 	private final GerritTaskDataHandler taskDataHandler = new GerritTaskDataHandler(this);
@@ -125,6 +189,12 @@ public class GerritConnector extends ReviewsConnector {
 
 	private final ConcurrentMap<TaskRepository, GerritConfiguration> configurationCache = new ConcurrentHashMap<TaskRepository, GerritConfiguration>();
 
+	private final ConcurrentMap<String, GerritResponseCache> responseCaches = new ConcurrentHashMap<String, GerritResponseCache>();
+
+	private final ConcurrentMap<String, GerritConnectionManager> connectionManagers = new ConcurrentHashMap<String, GerritConnectionManager>();
+
+	private IdleConnectionTimeoutThread idleConnectionTimeoutThread;
+
 	public GerritConnector() {
 		if (GerritCorePlugin.getDefault() != null) {
 			GerritCorePlugin.getDefault().setConnector(this);
@@ -228,49 +298,60 @@ public class GerritConnector extends ReviewsConnector {
 	}
 
 	@Override
-	public IStatus performQuery(TaskRepository repository, IRepositoryQuery query, TaskDataCollector resultCollector,
-			ISynchronizationSession session, IProgressMonitor monitor) {
+	public IStatus performQuery(final TaskRepository repository, IRepositoryQuery query,
+			final TaskDataCollector resultCollector, ISynchronizationSession session, final IProgressMonitor monitor) {
 		try {
 			monitor.beginTask(Messages.GerritConnector_Executing_query, IProgressMonitor.UNKNOWN);
 			GerritClient client = getClient(repository);
 			client.refreshConfigOnce(monitor);
 
-			List<GerritQueryResult> result = null;
+			// pass results to the collector as soon as each page has been received
+			QueryResultListener listener = new QueryResultListener() {
+				@Override
+				public void resultsReceived(List<GerritQueryResult> results) {
+					for (GerritQueryResult changeInfo : results) {
+						TaskData taskData = taskDataHandler.createPartialTaskData(repository,
+								Integer.toString(changeInfo.getNumber()), monitor);
+						taskDataHandler.updateTaskData(repository, taskData, changeInfo);
+						if (monitor.isCanceled()) {
+							throw new OperationCanceledException();
+						}
+
+						resultCollector.accept(taskData);
+					}
+				}
+			};
+
+			boolean executed = true;
 			if (GerritQuery.ALL_OPEN_CHANGES.equals(query.getAttribute(GerritQuery.TYPE))) {
-				result = client.queryAllReviews(monitor);
+				client.queryAllReviews(monitor, listener);
 			} else if (GerritQuery.MY_CHANGES.equals(query.getAttribute(GerritQuery.TYPE))) {
-				result = client.queryMyReviews(monitor);
+				client.queryMyReviews(monitor, listener);
 			} else if (GerritQuery.MY_WATCHED_CHANGES.equals(query.getAttribute(GerritQuery.TYPE))) {
-				result = client.queryWatchedReviews(monitor);
+				client.queryWatchedReviews(monitor, listener);
 			} else if (GerritQuery.CUSTOM.equals(query.getAttribute(GerritQuery.TYPE))) {
 				String queryString = query.getAttribute(GerritQuery.QUERY_STRING);
-				result = client.executeQuery(monitor, queryString);
+				client.executeQuery(monitor, queryString, listener);
 			} else if (GerritQuery.OPEN_CHANGES_BY_PROJECT.equals(query.getAttribute(GerritQuery.TYPE))) {
 				String project = query.getAttribute(GerritQuery.PROJECT);
-				result = client.queryByProject(monitor, project);
+				client.queryByProject(monitor, project, listener);
 			} else {
 				String queryString = query.getAttribute(GerritQuery.QUERY_STRING);
 				if (StringUtils.isNotBlank(queryString)) {
-					result = client.executeQuery(monitor, queryString);
+					client.executeQuery(monitor, queryString, listener);
+				} else {
+					executed = false;
 				}
 			}
 
-			if (result != null) {
-				for (GerritQueryResult changeInfo : result) {
-					TaskData taskData = taskDataHandler.createPartialTaskData(repository,
-							Integer.toString(changeInfo.getNumber()), monitor);
-					taskDataHandler.updateTaskData(repository, taskData, changeInfo);
-					if (monitor.isCanceled()) {
-						break;
-					}
-
-					resultCollector.accept(taskData);
-				}
+			if (executed) {
 				return Status.OK_STATUS;
 			}
 
 			return new Status(IStatus.ERROR, GerritCorePlugin.PLUGIN_ID, NLS.bind("Unknown query type: {0}", //$NON-NLS-1$
 					query.getAttribute(GerritQuery.PROJECT)));
+		} catch (OperationCanceledException e) {
+			return Status.CANCEL_STATUS;
 		} catch (UnsupportedClassVersionError e) {
 			return toStatus(repository, e);
 		} catch (GerritException e) {
@@ -280,6 +361,78 @@ public class GerritConnector extends ReviewsConnector {
 		}
 	}
 
+	/**
+	 * Determines which tasks of <code>session</code> have changed on the server by querying the changes in batches of
+	 * {@link #BULK_QUERY_SIZE}. Only tasks that have changed or could not be matched to a change are marked stale and
+	 * retrieved in full subsequently.
+	 */
+	@Override
+	public void preSynchronization(ISynchronizationSession session, IProgressMonitor monitor) throws CoreException {
+		Set<ITask> tasks = session.getTasks();
+		if (tasks == null || tasks.isEmpty()) {
+			return;
+		}
+
+		final TaskRepository repository = session.getTaskRepository();
+		final Map<String, ITask> taskById = new HashMap<String, ITask>();
+		for (ITask task : tasks) {
+			try {
+				Integer.parseInt(task.getTaskId());
+				taskById.put(task.getTaskId(), task);
+			} catch (NumberFormatException e) {
+				// the task id is a change id which can not be looked up in bulk
+				session.markStale(task);
+			}
+		}
+
+		final ISynchronizationSession synchronizationSession = session;
+		final IProgressMonitor progress = monitor;
+		QueryResultListener listener = new QueryResultListener() {
+			@Override
+			public void resultsReceived(List<GerritQueryResult> results) {
+				for (GerritQueryResult changeInfo : results) {
+					ITask task = taskById.remove(Integer.toString(changeInfo.getNumber()));
+					if (task != null) {
+						TaskData taskData = taskDataHandler.createPartialTaskData(repository, task.getTaskId(),
+								progress);
+						taskDataHandler.updateTaskData(repository, taskData, changeInfo);
+						if (hasTaskChanged(repository, task, taskData)) {
+							synchronizationSession.markStale(task);
+						}
+					}
+				}
+			}
+		};
+
+		try {
+			monitor.beginTask(Messages.GerritConnector_Executing_query, IProgressMonitor.UNKNOWN);
+			GerritClient client = getClient(repository);
+			client.refreshConfigOnce(monitor);
+
+			List<String> taskIds = new ArrayList<String>(taskById.keySet());
+			for (int i = 0; i < taskIds.size(); i += BULK_QUERY_SIZE) {
+				StringBuilder query = new StringBuilder();
+				for (String taskId : taskIds.subList(i, Math.min(i + BULK_QUERY_SIZE, taskIds.size()))) {
+					if (query.length() > 0) {
+						query.append(" OR "); //$NON-NLS-1$
+					}
+					query.append("change:").append(taskId); //$NON-NLS-1$
+				}
+				client.executeQuery(monitor, query.toString(), listener);
+			}
+		} catch (GerritException e) {
+			// fall back to retrieving all remaining tasks individually
+			StatusHandler.log(toStatus(repository, "Problem determining changed tasks", e)); //$NON-NLS-1$
+		} finally {
+			monitor.done();
+		}
+
+		// changes that were not returned have been deleted or are no longer visible
+		for (ITask task : taskById.values()) {
+			session.markStale(task);
+		}
+	}
+
 	public synchronized void setTaskRepositoryLocationFactory(
 			TaskRepositoryLocationFactory taskRepositoryLocationFactory) {
 		this.taskRepositoryLocationFactory = taskRepositoryLocationFactory;
@@ -330,8 +483,11 @@ public class GerritConnector extends ReviewsConnector {
 	protected GerritClient createReviewClient(final TaskRepository repository, boolean b) {
 		GerritConfiguration config = loadConfiguration(repository);
 		GerritAuthenticationState authState = loadAuthState(repository);
-		return GerritClient.create(repository, taskRepositoryLocationFactory.createWebLocation(repository), config,
-				authState, null, new GerritClientStateListener() {
+		// reuse the XSRF key of the persisted session instead of retrieving it from the host page on every start
+		String xsrfKey = (authState != null) ? authState.getXsrfKey() : null;
+		GerritClient client = GerritClient.create(repository,
+				taskRepositoryLocationFactory.createWebLocation(repository), config, authState, xsrfKey,
+				new GerritClientStateListener() {
 					@Override
 					protected void configurationChanged(GerritConfiguration config) {
 						saveConfiguration(repository, config);
@@ -341,7 +497,140 @@ public class GerritConnector extends ReviewsConnector {
 					protected void authStateChanged(GerritAuthenticationState authState) {
 						repository.setProperty(KEY_REPOSITORY_AUTH, GerritClient.authStateToString(authState));
 					}
+
+					@Override
+					protected void capabilitiesChanged(GerritCapabilityRegistry registry) {
+						repository.setProperty(KEY_REPOSITORY_CAPABILITIES, registry.toJson());
+					}
 				});
+		client.setCapabilityRegistry(GerritCapabilityRegistry.fromJson(
+				repository.getProperty(KEY_REPOSITORY_CAPABILITIES), client.getVersion()));
+		client.setResponseCache(getResponseCache(repository));
+		client.setConnectionManager(getConnectionManager(repository));
+		return client;
+	}
+
+	/**
+	 * Returns the connection pool that is dedicated to <code>repository</code>. The limits of the pool are updated
+	 * from the repository properties.
+	 */
+	public GerritConnectionManager getConnectionManager(TaskRepository repository) {
+		String url = repository.getRepositoryUrl();
+		GerritConnectionManager connectionManager = connectionManagers.get(url);
+		if (connectionManager == null) {
+			connectionManager = new GerritConnectionManager();
+			GerritConnectionManager existing = connectionManagers.putIfAbsent(url, connectionManager);
+			if (existing != null) {
+				connectionManager = existing;
+			} else {
+				getIdleConnectionTimeoutThread().addConnectionManager(connectionManager);
+			}
+		}
+		int maxConnectionsPerHost = getIntProperty(repository, KEY_REPOSITORY_MAX_CONNECTIONS_PER_HOST,
+				GerritConnectionManager.DEFAULT_MAX_CONNECTIONS_PER_HOST);
+		int maxTotalConnections = getIntProperty(repository, KEY_REPOSITORY_MAX_TOTAL_CONNECTIONS,
+				GerritConnectionManager.DEFAULT_MAX_TOTAL_CONNECTIONS);
+		connectionManager.setLimits(maxConnectionsPerHost, Math.max(maxConnectionsPerHost, maxTotalConnections));
+		return connectionManager;
+	}
+
+	/**
+	 * Shuts down the connection pool of <code>repository</code> and deletes its configuration file. Invoked when the
+	 * repository has been removed.
+	 */
+	public void repositoryRemoved(TaskRepository repository) {
+		removeConnectionManager(repository.getRepositoryUrl());
+		configurationCache.remove(repository);
+		GerritConfigurationStore store = getConfigurationStore(repository);
+		if (store != null) {
+			store.delete();
+		}
+	}
+
+	/**
+	 * Shuts down the connection pool for the previous URL of <code>repository</code> and switches the client of the
+	 * repository to the pool for the new URL.
+	 */
+	public void repositoryUrlChanged(TaskRepository repository, String oldUrl) {
+		removeConnectionManager(oldUrl);
+		getClient(repository).setConnectionManager(getConnectionManager(repository));
+	}
+
+	/**
+	 * Shuts down all connection pools and stops the thread that closes idle connections.
+	 */
+	public void dispose() {
+		for (String url : connectionManagers.keySet()) {
+			removeConnectionManager(url);
+		}
+		synchronized (this) {
+			if (idleConnectionTimeoutThread != null) {
+				idleConnectionTimeoutThread.shutdown();
+				idleConnectionTimeoutThread = null;
+			}
+		}
+	}
+
+	private void removeConnectionManager(String url) {
+		GerritConnectionManager connectionManager = connectionManagers.remove(url);
+		if (connectionManager != null) {
+			synchronized (this) {
+				if (idleConnectionTimeoutThread != null) {
+					idleConnectionTimeoutThread.removeConnectionManager(connectionManager);
+				}
+			}
+			connectionManager.shutdown();
+		}
+	}
+
+	private synchronized IdleConnectionTimeoutThread getIdleConnectionTimeoutThread() {
+		if (idleConnectionTimeoutThread == null) {
+			idleConnectionTimeoutThread = new IdleConnectionTimeoutThread();
+			idleConnectionTimeoutThread.setName("Gerrit Idle Connection Timeout"); //$NON-NLS-1$
+			idleConnectionTimeoutThread.setConnectionTimeout(IDLE_CONNECTION_TIMEOUT);
+			idleConnectionTimeoutThread.setTimeoutInterval(IDLE_CONNECTION_CHECK_INTERVAL);
+			idleConnectionTimeoutThread.start();
+		}
+		return idleConnectionTimeoutThread;
+	}
+
+	private static int getIntProperty(TaskRepository repository, String key, int defaultValue) {
+		String value = repository.getProperty(key);
+		if (value != null) {
+			try {
+				int intValue = Integer.parseInt(value);
+				if (intValue > 0) {
+					return intValue;
+				}
+			} catch (NumberFormatException e) {
+				// fall back to default
+			}
+		}
+		return defaultValue;
+	}
+
+	/**
+	 * Returns the on-disk cache for REST responses of <code>repository</code> or null, if the plug-in is not running.
+	 */
+	public GerritResponseCache getResponseCache(TaskRepository repository) {
+		GerritCorePlugin plugin = GerritCorePlugin.getDefault();
+		if (plugin == null) {
+			return null;
+		}
+		String url = repository.getRepositoryUrl();
+		GerritResponseCache cache = responseCaches.get(url);
+		if (cache == null) {
+			File directory = plugin.getStateLocation()
+					.append(RESPONSE_CACHE_FOLDER)
+					.append(url.replaceAll("[^\\w.-]", "_")) //$NON-NLS-1$ //$NON-NLS-2$
+					.toFile();
+			cache = new GerritResponseCache(directory, GerritResponseCache.DEFAULT_MAX_SIZE);
+			GerritResponseCache existing = responseCaches.putIfAbsent(url, cache);
+			if (existing != null) {
+				cache = existing;
+			}
+		}
+		return cache;
 	}
 
 	protected GerritClient createTransientReviewClient(final TaskRepository repository) {
@@ -359,7 +648,22 @@ public class GerritConnector extends ReviewsConnector {
 	protected GerritConfiguration loadConfiguration(TaskRepository repository) {
 		GerritConfiguration configuration = configurationCache.get(repository);
 		if (configuration == null) {
-			configuration = configurationFromString(repository.getProperty(KEY_REPOSITORY_CONFIG));
+			GerritConfigurationStore store = getConfigurationStore(repository);
+			if (store != null && repository.getProperty(KEY_REPOSITORY_CONFIG_FILE) != null) {
+				try {
+					configuration = store.read(repository.getProperty(KEY_REPOSITORY_CONFIG_CHECKSUM));
+				} catch (IOException e) {
+					// the configuration is retrieved again on the next refresh
+					StatusHandler.log(new Status(IStatus.WARNING, GerritCorePlugin.PLUGIN_ID,
+							"Failed to read configuration from " + store.getFile(), e)); //$NON-NLS-1$
+				}
+			} else {
+				configuration = configurationFromString(repository.getProperty(KEY_REPOSITORY_CONFIG));
+				if (configuration != null && store != null) {
+					// migrate configuration from the repository properties
+					saveConfiguration(repository, configuration);
+				}
+			}
 			if (configuration != null) {
 				configurationCache.put(repository, configuration);
 			}
@@ -369,9 +673,46 @@ public class GerritConnector extends ReviewsConnector {
 
 	protected void saveConfiguration(TaskRepository repository, GerritConfiguration configuration) {
 		configurationCache.put(repository, configuration);
+		GerritConfigurationStore store = getConfigurationStore(repository);
+		if (store != null) {
+			try {
+				String checksum = store.write(configuration);
+				repository.setProperty(KEY_REPOSITORY_CONFIG_FILE, store.getFile().getName());
+				repository.setProperty(KEY_REPOSITORY_CONFIG_CHECKSUM, checksum);
+				if (repository.getProperty(KEY_REPOSITORY_CONFIG) != null) {
+					repository.removeProperty(KEY_REPOSITORY_CONFIG);
+				}
+				return;
+			} catch (IOException e) {
+				StatusHandler.log(new Status(IStatus.ERROR, GerritCorePlugin.PLUGIN_ID,
+						"Failed to write configuration to " + store.getFile(), e)); //$NON-NLS-1$
+				// fall back to the repository properties, the file may still hold a previous configuration
+				store.delete();
+				repository.removeProperty(KEY_REPOSITORY_CONFIG_FILE);
+				repository.removeProperty(KEY_REPOSITORY_CONFIG_CHECKSUM);
+			}
+		}
 		repository.setProperty(KEY_REPOSITORY_CONFIG, configurationToString(configuration));
 	}
 
+	/**
+	 * Returns the file based store for the configuration of <code>repository</code> or null, if the plug-in is not
+	 * running.
+	 */
+	GerritConfigurationStore getConfigurationStore(TaskRepository repository) {
+		GerritCorePlugin plugin = GerritCorePlugin.getDefault();
+		if (plugin == null) {
+			return null;
+		}
+		String fileName = repository.getProperty(KEY_REPOSITORY_CONFIG_FILE);
+		if (fileName == null) {
+			fileName = repository.getRepositoryUrl().replaceAll("[^\\w.-]", "_") //$NON-NLS-1$ //$NON-NLS-2$
+					+ GerritConfigurationStore.FILE_EXTENSION;
+		}
+		File file = plugin.getStateLocation().append(CONFIGURATION_FOLDER).append(fileName).toFile();
+		return new GerritConfigurationStore(file);
+	}
+
 	public GerritConfiguration getConfiguration(TaskRepository repository) {
 		GerritConfiguration configuration = configurationCache.get(repository);
 		if (configuration == null) {
@@ -385,7 +726,7 @@ public class GerritConnector extends ReviewsConnector {
 			return null;
 		}
 		try {
-			JSonSupport support = new JSonSupport();
+			JSonSupport support = JSonSupport.getDefault();
 			return support.parseResponse(token, GerritConfiguration.class);
 		} catch (Exception e) {
 			StatusHandler.log(new Status(IStatus.ERROR, GerritCorePlugin.PLUGIN_ID,
@@ -396,7 +737,7 @@ public class GerritConnector extends ReviewsConnector {
 
 	private static String configurationToString(GerritConfiguration config) {
 		try {
-			JSonSupport support = new JSonSupport();
+			JSonSupport support = JSonSupport.getDefault();
 			return support.toJson(config);
 		} catch (Exception e) {
 			StatusHandler.log(new Status(IStatus.ERROR, GerritCorePlugin.PLUGIN_ID,
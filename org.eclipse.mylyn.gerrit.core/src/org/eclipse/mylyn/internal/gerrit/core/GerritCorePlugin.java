@@ -44,6 +44,9 @@ public class GerritCorePlugin extends Plugin {
 
 	@Override
 	public void stop(BundleContext context) throws Exception {
+		if (connector != null) {
+			connector.dispose();
+		}
 		plugin = null;
 		super.stop(context);
 	}
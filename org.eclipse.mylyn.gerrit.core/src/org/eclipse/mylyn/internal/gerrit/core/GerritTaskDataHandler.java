@@ -14,15 +14,21 @@
  *********************************************************************/
 package org.eclipse.mylyn.internal.gerrit.core;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
 import org.eclipse.mylyn.internal.gerrit.core.client.GerritChange;
 import org.eclipse.mylyn.internal.gerrit.core.client.GerritClient;
 import org.eclipse.mylyn.internal.gerrit.core.client.GerritException;
+import org.eclipse.mylyn.internal.gerrit.core.client.GerritRequestExecutor.Task;
+import org.eclipse.mylyn.internal.gerrit.core.client.GerritRequestExecutor.TaskListener;
 import org.eclipse.mylyn.internal.gerrit.core.client.compat.ChangeDetailX;
 import org.eclipse.mylyn.internal.gerrit.core.client.data.GerritPerson;
 import org.eclipse.mylyn.internal.gerrit.core.client.data.GerritQueryResult;
@@ -30,6 +36,7 @@ import org.eclipse.mylyn.internal.gerrit.core.client.rest.GerritReviewLabel;
 import org.eclipse.mylyn.internal.gerrit.core.remote.GerritRemoteFactoryProvider;
 import org.eclipse.mylyn.reviews.core.model.IRepository;
 import org.eclipse.mylyn.reviews.core.model.IReview;
+import org.eclipse.mylyn.reviews.core.spi.remote.RemoteCompletion;
 import org.eclipse.mylyn.reviews.core.spi.remote.emf.RemoteEmfConsumer;
 import org.eclipse.mylyn.reviews.core.spi.remote.emf.RemoteEmfObserver;
 import org.eclipse.mylyn.tasks.core.IRepositoryPerson;
@@ -42,6 +49,7 @@ import org.eclipse.mylyn.tasks.core.data.TaskAttribute;
 import org.eclipse.mylyn.tasks.core.data.TaskAttributeMapper;
 import org.eclipse.mylyn.tasks.core.data.TaskCommentMapper;
 import org.eclipse.mylyn.tasks.core.data.TaskData;
+import org.eclipse.mylyn.tasks.core.data.TaskDataCollector;
 import org.eclipse.osgi.util.NLS;
 
 import com.google.gerrit.common.data.AccountInfo;
@@ -125,6 +133,59 @@ public class GerritTaskDataHandler extends AbstractTaskDataHandler {
 		}
 	}
 
+	@Override
+	public boolean canGetMultiTaskData(TaskRepository repository) {
+		return true;
+	}
+
+	/**
+	 * Retrieves task data for several reviews concurrently. The number of reviews that are retrieved at the same time
+	 * is limited by the review executor of the client. Task data is passed to <code>collector</code> on the calling
+	 * thread as soon as each review has been retrieved.
+	 */
+	@Override
+	public void getMultiTaskData(final TaskRepository repository, Set<String> taskIds,
+			final TaskDataCollector collector, IProgressMonitor monitor) throws CoreException {
+		final List<String> ids = new ArrayList<String>(taskIds);
+		final Map<String, IStatus> failures = new ConcurrentHashMap<String, IStatus>();
+		try {
+			GerritClient client = connector.getClient(repository);
+			// retrieve shared state once instead of once per task
+			client.refreshConfigOnce(monitor);
+			if (!client.isAnonymous()) {
+				getAccountId(client, repository, monitor);
+			}
+
+			List<Task<TaskData>> tasks = new ArrayList<Task<TaskData>>(ids.size());
+			for (final String taskId : ids) {
+				tasks.add(new Task<TaskData>() {
+					@Override
+					public TaskData execute(IProgressMonitor monitor) throws GerritException {
+						try {
+							return getTaskData(repository, taskId, monitor);
+						} catch (CoreException e) {
+							failures.put(taskId, e.getStatus());
+							return null;
+						}
+					}
+				});
+			}
+			client.getReviewExecutor().execute(tasks, new TaskListener<TaskData>() {
+				@Override
+				public void done(int index, TaskData taskData) {
+					if (taskData != null) {
+						collector.accept(taskData);
+					} else {
+						String taskId = ids.get(index);
+						collector.failed(taskId, failures.get(taskId));
+					}
+				}
+			}, monitor);
+		} catch (GerritException e) {
+			throw connector.toCoreException(repository, "Problem retrieving task data", e); //$NON-NLS-1$
+		}
+	}
+
 	private RemoteEmfConsumer<IRepository, IReview, String, GerritChange, String, Date> updateModelData(
 			TaskRepository repository, TaskData taskData, ReviewObserver reviewObserver, IProgressMonitor monitor)
 			throws CoreException {
@@ -134,7 +195,10 @@ public class GerritTaskDataHandler extends AbstractTaskDataHandler {
 				.getConsumerForLocalKey(factoryProvider.getRoot(), taskData.getTaskId());
 
 		consumer.addObserver(reviewObserver);
-		if (!consumer.isRetrieving()) {
+		RemoteCompletion completion;
+		if (consumer.isRetrieving()) {
+			completion = consumer.getCompletion();
+		} else {
 			if (monitor.isCanceled()) {
 				return consumer;
 			}
@@ -143,13 +207,13 @@ public class GerritTaskDataHandler extends AbstractTaskDataHandler {
 				return consumer;
 			}
 			consumer.setAsynchronous(false);
-			consumer.retrieve(true);
+			completion = consumer.retrieve(true);
 			consumer.setAsynchronous(true);
 		}
 
-		while (!reviewObserver.complete && !monitor.isCanceled()) {
+		if (completion != null) {
 			try {
-				Thread.sleep(50);
+				completion.await(monitor);
 			} catch (InterruptedException e) {
 				reviewObserver.dispose();
 				Thread.currentThread().interrupt();
@@ -166,13 +230,10 @@ public class GerritTaskDataHandler extends AbstractTaskDataHandler {
 		return consumer;
 	}
 
+	/**
+	 * Keeps the consumer alive while task data is retrieved.
+	 */
 	private class ReviewObserver extends RemoteEmfObserver<IRepository, IReview, String, Date> {
-		boolean complete;
-
-		@Override
-		public void updated(boolean modified) {
-			complete = true;
-		}
 	}
 
 	/**
@@ -11,8 +11,8 @@
 
 package org.eclipse.mylyn.internal.gerrit.core;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.mylyn.reviews.core.model.IReviewItem;
 
@@ -24,7 +24,7 @@ public class ReviewItemCache {
 	private final Map<String, IReviewItem> reviewItemById;
 
 	public ReviewItemCache() {
-		reviewItemById = new HashMap<String, IReviewItem>();
+		reviewItemById = new ConcurrentHashMap<String, IReviewItem>();
 	}
 
 	public IReviewItem getItem(String id) {
@@ -22,6 +22,8 @@ public class GerritAuthenticationState {
 
 	private Cookie cookie;
 
+	private String xsrfKey;
+
 	public GerritAuthenticationState() {
 	}
 
@@ -33,4 +35,15 @@ public class GerritAuthenticationState {
 		this.cookie = cookie;
 	}
 
+	/**
+	 * Returns the XSRF key that was obtained for the session identified by the cookie or null, if no key was obtained.
+	 */
+	public String getXsrfKey() {
+		return xsrfKey;
+	}
+
+	public void setXsrfKey(String xsrfKey) {
+		this.xsrfKey = xsrfKey;
+	}
+
 }
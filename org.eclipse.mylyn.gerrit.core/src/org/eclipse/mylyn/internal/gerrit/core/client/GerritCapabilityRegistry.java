@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.internal.gerrit.core.client;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.core.runtime.Assert;
+import org.osgi.framework.Version;
+
+/**
+ * Records which variant of a service a specific Gerrit server supports. Unlike {@link GerritCapabilities}, which are
+ * derived from the version, variants are discovered by probing the server so that subsequent requests can use the
+ * supported variant right away. Recorded variants are only valid for the version of the server they were probed for.
+ */
+public class GerritCapabilityRegistry {
+
+	/**
+	 * The RPC that is used to retrieve the details of a patch set.
+	 */
+	public static final String PATCH_SET_DETAIL = "patchSetDetail"; //$NON-NLS-1$
+
+	/**
+	 * <code>ChangeDetailService.patchSetDetail2()</code>, Gerrit 2.4 and later.
+	 */
+	public static final String PATCH_SET_DETAIL_2 = "patchSetDetail2"; //$NON-NLS-1$
+
+	/**
+	 * <code>ChangeDetailService.patchSetDetail()</code> for a single patch set, Gerrit 2.1.6 and earlier.
+	 */
+	public static final String PATCH_SET_DETAIL_1 = "patchSetDetail1"; //$NON-NLS-1$
+
+	/**
+	 * <code>ChangeDetailService.patchSetDetail()</code> with base and diff preferences, Gerrit 2.1.7.
+	 */
+	public static final String PATCH_SET_DETAIL_1_WITH_BASE = "patchSetDetail1WithBase"; //$NON-NLS-1$
+
+	/**
+	 * The service that is used to retrieve the list of visible projects.
+	 */
+	public static final String VISIBLE_PROJECTS = "visibleProjects"; //$NON-NLS-1$
+
+	/**
+	 * The fallback for servers that do not support <code>visibleProjectDetails()</code>.
+	 */
+	public static final String VISIBLE_PROJECTS_FALLBACK = "fallback"; //$NON-NLS-1$
+
+	/**
+	 * The API that is used for change queries.
+	 */
+	public static final String QUERY = "query"; //$NON-NLS-1$
+
+	/**
+	 * The <code>/changes/</code> REST API.
+	 */
+	public static final String QUERY_REST = "rest"; //$NON-NLS-1$
+
+	private String version;
+
+	private Map<String, String> variants;
+
+	GerritCapabilityRegistry() {
+		// no-args constructor needed by gson
+	}
+
+	public GerritCapabilityRegistry(Version version) {
+		Assert.isNotNull(version);
+		this.version = version.toString();
+		this.variants = new HashMap<String, String>();
+	}
+
+	/**
+	 * Returns the variant of <code>service</code> that was recorded for the server or null, if the server has not been
+	 * probed, yet.
+	 */
+	public synchronized String getVariant(String service) {
+		return variants.get(service);
+	}
+
+	/**
+	 * Records that the server supports <code>variant</code> of <code>service</code>.
+	 *
+	 * @return true, if the recorded variant has changed
+	 */
+	public synchronized boolean setVariant(String service, String variant) {
+		Assert.isNotNull(service);
+		Assert.isNotNull(variant);
+		return !variant.equals(variants.put(service, variant));
+	}
+
+	/**
+	 * Discards the variant recorded for <code>service</code>, e.g. if the server no longer supports it.
+	 *
+	 * @return true, if a variant was recorded
+	 */
+	public synchronized boolean removeVariant(String service) {
+		return variants.remove(service) != null;
+	}
+
+	public synchronized String toJson() {
+		return JSonSupport.getDefault().toJson(this);
+	}
+
+	/**
+	 * Restores a registry that was serialized by {@link #toJson()}. Variants that were recorded for a different version
+	 * are discarded.
+	 *
+	 * @return the restored registry, never null
+	 */
+	public static GerritCapabilityRegistry fromJson(String json, Version version) {
+		if (json != null) {
+			try {
+				GerritCapabilityRegistry registry = JSonSupport.getDefault().parseResponse(json,
+						GerritCapabilityRegistry.class);
+				if (registry != null && version.toString().equals(registry.version) && registry.variants != null) {
+					return registry;
+				}
+			} catch (Exception e) {
+				// ignore
+			}
+		}
+		return new GerritCapabilityRegistry(version);
+	}
+
+}
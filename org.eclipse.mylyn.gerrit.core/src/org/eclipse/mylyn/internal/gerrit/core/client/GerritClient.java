@@ -28,6 +28,7 @@ import java.net.HttpURLConnection;
 import java.net.URLEncoder;
 import java.net.UnknownHostException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -35,11 +36,15 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.zip.ZipInputStream;
 
 import org.apache.commons.httpclient.Cookie;
+import org.apache.commons.httpclient.HttpConnectionManager;
 import org.apache.commons.httpclient.HttpMethodBase;
 import org.apache.commons.httpclient.HttpStatus;
 import org.apache.commons.httpclient.methods.GetMethod;
@@ -47,14 +52,21 @@ import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang.StringUtils;
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.mylyn.commons.core.StatusHandler;
 import org.eclipse.mylyn.commons.net.AbstractWebLocation;
-import org.eclipse.mylyn.commons.net.WebUtil;
+import org.eclipse.mylyn.internal.gerrit.core.GerritConnector;
 import org.eclipse.mylyn.internal.gerrit.core.GerritCorePlugin;
 import org.eclipse.mylyn.internal.gerrit.core.GerritUtil;
 import org.eclipse.mylyn.internal.gerrit.core.client.GerritHttpClient.ErrorHandler;
 import org.eclipse.mylyn.internal.gerrit.core.client.GerritHttpClient.Request;
+import org.eclipse.mylyn.internal.gerrit.core.client.GerritHttpClient.Request.HttpMethod;
+import org.eclipse.mylyn.internal.gerrit.core.client.GerritRequestExecutor.Task;
+import org.eclipse.mylyn.internal.gerrit.core.client.GerritRequestExecutor.TaskListener;
 import org.eclipse.mylyn.internal.gerrit.core.client.GerritService.GerritRequest;
 import org.eclipse.mylyn.internal.gerrit.core.client.compat.ChangeDetailService;
 import org.eclipse.mylyn.internal.gerrit.core.client.compat.ChangeDetailX;
@@ -136,6 +148,11 @@ public class GerritClient extends ReviewsClient {
 
 	private static final String GET_LABELS_OPTION = "LABELS"; //$NON-NLS-1$
 
+	/**
+	 * The time in milliseconds after which the configuration is refreshed in the background.
+	 */
+	public static final long CONFIG_MAX_AGE = 60 * 60 * 1000;
+
 	abstract class Operation<T> implements AsyncCallback<T> {
 
 		private Throwable exception;
@@ -173,6 +190,60 @@ public class GerritClient extends ReviewsClient {
 			this.exception = null;
 		}
 
+		/**
+		 * Returns a key that identifies the request sent by this operation. Concurrent operations with equal keys share
+		 * a single request. Returns null by default which disables sharing; only operations that do not modify state on
+		 * the server should return a key.
+		 */
+		public Object getRequestKey() {
+			return null;
+		}
+
+		/**
+		 * Returns a copy of <code>result</code> for an operation that shared the request of this operation. Callers
+		 * modify results, e.g. to set dates or binary content, so each caller receives its own copy.
+		 */
+		@SuppressWarnings("unchecked")
+		public T copy(T result) {
+			if (result instanceof byte[]) {
+				return (T) ((byte[]) result).clone();
+			}
+			return JSonSupport.getDefault().copy(result, (result != null) ? result.getClass() : null);
+		}
+
+	}
+
+	/**
+	 * Notified when the patch script for a single file of a patch set has been retrieved.
+	 */
+	public static abstract class PatchScriptListener {
+
+		public abstract void patchScriptLoaded(Patch patch, PatchScriptX patchScript);
+
+	}
+
+	/**
+	 * Notified for each page of query results as soon as it has been received.
+	 */
+	public static abstract class QueryResultListener {
+
+		public abstract void resultsReceived(List<GerritQueryResult> results);
+
+	}
+
+	private static class QueryResultCollector extends QueryResultListener {
+
+		private final List<GerritQueryResult> results = new ArrayList<GerritQueryResult>();
+
+		@Override
+		public void resultsReceived(List<GerritQueryResult> results) {
+			this.results.addAll(results);
+		}
+
+		public List<GerritQueryResult> getResults() {
+			return results;
+		}
+
 	}
 
 	private boolean isAuthenticationException(Throwable exception) {
@@ -194,7 +265,7 @@ public class GerritClient extends ReviewsClient {
 	// XXX belongs in GerritConnector
 	public static GerritAuthenticationState authStateFromString(String token) {
 		try {
-			JSonSupport support = new JSonSupport();
+			JSonSupport support = JSonSupport.getDefault();
 			return support.parseResponse(token, GerritAuthenticationState.class);
 		} catch (Exception e) {
 			// ignore
@@ -208,7 +279,7 @@ public class GerritClient extends ReviewsClient {
 			return null;
 		}
 		try {
-			JSonSupport support = new JSonSupport();
+			JSonSupport support = JSonSupport.getDefault();
 			return support.toJson(authState);
 		} catch (Exception e) {
 			// ignore
@@ -216,6 +287,41 @@ public class GerritClient extends ReviewsClient {
 		}
 	}
 
+	/**
+	 * A short-lived memo of the change-level REST responses of a single change. It is created by
+	 * {@link GerritClient#getChange(String, IProgressMonitor)} and passed to the per patch set requests which share
+	 * these responses instead of requesting identical data for each patch set.
+	 */
+	protected static final class ChangeScope {
+
+		private final ConcurrentMap<String, Object> responseByUrl = new ConcurrentHashMap<String, Object>();
+
+	}
+
+	private class ConfigRefreshJob extends Job {
+
+		public ConfigRefreshJob() {
+			super("Refreshing Gerrit configuration"); //$NON-NLS-1$
+			setSystem(true);
+		}
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			try {
+				refreshConfig(monitor);
+			} catch (OperationCanceledException e) {
+				return Status.CANCEL_STATUS;
+			} catch (GerritException e) {
+				// keep serving the last known configuration and try again once it becomes stale
+				configTimestamp = System.currentTimeMillis();
+				StatusHandler.log(new Status(IStatus.WARNING, GerritCorePlugin.PLUGIN_ID, NLS.bind(
+						"Failed to refresh configuration of {0}", getRepository().getRepositoryUrl()), e)); //$NON-NLS-1$
+			}
+			return Status.OK_STATUS;
+		}
+
+	}
+
 	private GerritHttpClient client;
 
 	private volatile GerritConfiguration config;
@@ -230,6 +336,18 @@ public class GerritClient extends ReviewsClient {
 
 	private volatile boolean configRefreshed;
 
+	private volatile long configTimestamp;
+
+	private volatile GerritCapabilityRegistry capabilityRegistry;
+
+	private final Job configRefreshJob = new ConfigRefreshJob();
+
+	private GerritRequestExecutor requestExecutor;
+
+	private GerritRequestExecutor reviewExecutor;
+
+	private final GerritRequestCoalescer requestCoalescer = new GerritRequestCoalescer();
+
 	public static GerritClient create(TaskRepository repository, AbstractWebLocation location) {
 		return create(repository, location, null, null, null, null);
 	}
@@ -267,6 +385,7 @@ public class GerritClient extends ReviewsClient {
 		super(repository);
 		Assert.isNotNull(version);
 		this.version = version;
+		this.capabilityRegistry = new GerritCapabilityRegistry(version);
 	}
 
 	protected void initialize(AbstractWebLocation location, GerritConfiguration config,
@@ -275,19 +394,25 @@ public class GerritClient extends ReviewsClient {
 		this.client = new GerritHttpClient(location) {
 			@Override
 			protected void sessionChanged(Cookie cookie) {
+				authStateChanged(this);
+			}
+
+			@Override
+			protected void xsrfKeyChanged(String xsrfKey) {
+				authStateChanged(this);
+			}
+
+			private void authStateChanged(GerritHttpClient client) {
+				// persist the XSRF key with the session so that it does not need to be obtained again after a restart
 				GerritAuthenticationState authState = new GerritAuthenticationState();
-				authState.setCookie(cookie);
+				authState.setCookie(client.getXsrfCookie());
+				authState.setXsrfKey(client.getObtainedXsrfKey());
 				if (stateListener != null) {
 					stateListener.authStateChanged(authState);
 				}
 			}
 		};
-		if (authState != null) {
-			client.setXsrfCookie(authState.getCookie());
-		}
-		if (xsrfKey != null) {
-			client.setXsrfKey(xsrfKey);
-		}
+		client.restoreSession((authState != null) ? authState.getCookie() : null, xsrfKey);
 		this.serviceByClass = new HashMap<Class<? extends RemoteJsonService>, RemoteJsonService>();
 		this.config = config;
 	}
@@ -342,6 +467,11 @@ public class GerritClient extends ReviewsClient {
 			public void execute(IProgressMonitor monitor) throws GerritException {
 				getChangeDetailService(monitor).changeDetailX(changeId, this);
 			}
+
+			@Override
+			public Object getRequestKey() {
+				return requestKey("changeDetailX", changeId); //$NON-NLS-1$
+			}
 		});
 		changeDetail.setDateCreated(changeDetail.getChange().getCreatedOn());
 		changeDetail.setLastModified(changeDetail.getChange().getLastUpdatedOn());
@@ -380,23 +510,53 @@ public class GerritClient extends ReviewsClient {
 	}
 
 	public ChangeInfo getChangeInfo(final int reviewId, IProgressMonitor monitor) throws GerritException {
+		return getChangeInfo(reviewId, null, monitor);
+	}
+
+	protected ChangeInfo getChangeInfo(final int reviewId, ChangeScope scope, IProgressMonitor monitor)
+			throws GerritException {
 		final String uri = "/changes/" + reviewId + "/revisions/current/review"; //$NON-NLS-1$ //$NON-NLS-2$
-		return executeGetRestRequest(uri, ChangeInfo.class, monitor);
+		return executeGetChangeRestRequest(scope, uri, ChangeInfo.class, monitor);
 	}
 
 	public void loadPatchSetContent(PatchSetContent patchSetContent, IProgressMonitor monitor) throws GerritException {
-		Id baseId = (patchSetContent.getBase() != null) ? patchSetContent.getBase().getId() : null;
-		Id targetId = patchSetContent.getTarget().getId();
+		loadPatchSetContent(patchSetContent, null, monitor);
+	}
+
+	/**
+	 * Retrieves the patch scripts for all files of a patch set concurrently. <code>listener</code> is notified on the
+	 * calling thread as soon as the patch script for a file is available.
+	 */
+	public void loadPatchSetContent(final PatchSetContent patchSetContent, final PatchScriptListener listener,
+			IProgressMonitor monitor) throws GerritException {
+		final Id baseId = (patchSetContent.getBase() != null) ? patchSetContent.getBase().getId() : null;
+		final Id targetId = patchSetContent.getTarget().getId();
 		if (patchSetContent.getTargetDetail() == null) {
 			PatchSetDetail targetDetail = getPatchSetDetail(baseId, targetId, monitor);
 			patchSetContent.setTargetDetail(targetDetail);
 		}
-		for (Patch patch : patchSetContent.getTargetDetail().getPatches()) {
-			PatchScriptX patchScript = getPatchScript(patch.getKey(), baseId, targetId, monitor);
-			if (patchScript != null) {
-				patchSetContent.putPatchScriptByPatchKey(patch.getKey(), patchScript);
-			}
+		final List<Patch> patches = patchSetContent.getTargetDetail().getPatches();
+		List<Task<PatchScriptX>> tasks = new ArrayList<Task<PatchScriptX>>(patches.size());
+		for (final Patch patch : patches) {
+			tasks.add(new Task<PatchScriptX>() {
+				@Override
+				public PatchScriptX execute(IProgressMonitor monitor) throws GerritException {
+					return getPatchScript(patch.getKey(), baseId, targetId, monitor);
+				}
+			});
 		}
+		getRequestExecutor().execute(tasks, new TaskListener<PatchScriptX>() {
+			@Override
+			public void done(int index, PatchScriptX patchScript) {
+				if (patchScript != null) {
+					Patch patch = patches.get(index);
+					patchSetContent.putPatchScriptByPatchKey(patch.getKey(), patchScript);
+					if (listener != null) {
+						listener.patchScriptLoaded(patch, patchScript);
+					}
+				}
+			}
+		}, monitor);
 	}
 
 	public GerritConfigX getGerritConfig() {
@@ -428,6 +588,11 @@ public class GerritClient extends ReviewsClient {
 			public void execute(IProgressMonitor monitor) throws GerritException {
 				getPatchDetailService(monitor).patchScriptX(key, leftId, rightId, diffPrefs, this);
 			}
+
+			@Override
+			public Object getRequestKey() {
+				return requestKey("patchScriptX", key, leftId, rightId); //$NON-NLS-1$
+			}
 		});
 		if (patchScript.isBinary()) {
 			fetchLeftBinaryContent(patchScript, key, leftId, monitor);
@@ -468,15 +633,22 @@ public class GerritClient extends ReviewsClient {
 		return encode(id + "," + key.getFileName() + "^0"); //$NON-NLS-1$//$NON-NLS-2$
 	}
 
-	protected byte[] fetchBinaryContent(String url, IProgressMonitor monitor) throws GerritException {
-		final TypeToken<Byte[]> byteArrayType = new TypeToken<Byte[]>() {
-		};
-		byte[] bin = executeGetRestRequest("/cat/" + url, byteArrayType.getType(), monitor); //$NON-NLS-1$
-		if (isZippedContent(bin)) {
-			return unzip(bin);
-		} else {
-			return bin;
-		}
+	protected byte[] fetchBinaryContent(final String url, IProgressMonitor monitor) throws GerritException {
+		return execute(monitor, new Operation<byte[]>() {
+			@Override
+			public void execute(IProgressMonitor monitor) throws GerritException {
+				try {
+					setResult(client.getBinaryRequest("/cat/" + url, monitor)); //$NON-NLS-1$
+				} catch (IOException e) {
+					throw new GerritException(e);
+				}
+			}
+
+			@Override
+			public Object getRequestKey() {
+				return requestKey("GET", "/cat/" + url); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+		});
 	}
 
 	/**
@@ -492,12 +664,21 @@ public class GerritClient extends ReviewsClient {
 	 * @noreference This method is not intended to be referenced by clients.
 	 */
 	public static byte[] unzip(byte[] zip) throws GerritException {
-		ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(zip));
 		try {
-			zis.getNextEntry(); // expecting a single entry
-			return IOUtils.toByteArray(zis);
+			return unzip(new ByteArrayInputStream(zip));
 		} catch (IOException e) {
 			throw new GerritException(e);
+		}
+	}
+
+	/**
+	 * Extracts the first entry of the ZIP archive read from <code>in</code>.
+	 */
+	static byte[] unzip(InputStream in) throws IOException {
+		ZipInputStream zis = new ZipInputStream(in);
+		try {
+			zis.getNextEntry(); // expecting a single entry
+			return IOUtils.toByteArray(zis);
 		} finally {
 			IOUtils.closeQuietly(zis);
 		}
@@ -515,26 +696,30 @@ public class GerritClient extends ReviewsClient {
 
 	private PatchSetDetail getPatchSetDetail(final PatchSet.Id idBase, final PatchSet.Id idTarget,
 			IProgressMonitor monitor) throws GerritException {
+		String variant = getCapability(GerritCapabilityRegistry.PATCH_SET_DETAIL);
+		if (variant != null) {
+			try {
+				return getPatchSetDetail(variant, idBase, idTarget, monitor);
+			} catch (GerritException e) {
+				if (!isNoSuchServiceError(e)) {
+					throw e;
+				}
+				// the repository no longer supports the recorded variant, probe again
+				removeCapability(GerritCapabilityRegistry.PATCH_SET_DETAIL);
+			}
+		}
+
 		PatchSetDetail patchSetDetail = null;
 		try {
 			// Gerrit 2.4+
-			patchSetDetail = execute(monitor, new Operation<PatchSetDetail>() {
-				@Override
-				public void execute(IProgressMonitor monitor) throws GerritException {
-					getChangeDetailService(monitor).patchSetDetail2(idBase, idTarget, createAccountDiffPreference(),
-							this);
-				}
-			});
+			variant = GerritCapabilityRegistry.PATCH_SET_DETAIL_2;
+			patchSetDetail = getPatchSetDetail(variant, idBase, idTarget, monitor);
 		} catch (GerritException e) {
 			try {
 				// fallback for Gerrit < 2.1.7
 				if (isNoSuchServiceError(e)) {
-					patchSetDetail = execute(monitor, new Operation<PatchSetDetail>() {
-						@Override
-						public void execute(IProgressMonitor monitor) throws GerritException {
-							getChangeDetailService(monitor).patchSetDetail(idTarget, this);
-						}
-					});
+					variant = GerritCapabilityRegistry.PATCH_SET_DETAIL_1;
+					patchSetDetail = getPatchSetDetail(variant, idBase, idTarget, monitor);
 				} else {
 					throw e;
 				}
@@ -542,21 +727,50 @@ public class GerritClient extends ReviewsClient {
 				// fallback for Gerrit 2.1.7
 				String message = e2.getMessage();
 				if (message != null && message.contains("Error parsing request")) { //$NON-NLS-1$
-					patchSetDetail = execute(monitor, new Operation<PatchSetDetail>() {
-						@Override
-						public void execute(IProgressMonitor monitor) throws GerritException {
-							getChangeDetailService(monitor).patchSetDetail(idBase, idTarget,
-									createAccountDiffPreference(), this);
-						}
-					});
+					variant = GerritCapabilityRegistry.PATCH_SET_DETAIL_1_WITH_BASE;
+					patchSetDetail = getPatchSetDetail(variant, idBase, idTarget, monitor);
 				} else {
 					throw e2;
 				}
 			}
 		}
+		setCapability(GerritCapabilityRegistry.PATCH_SET_DETAIL, variant);
 		return patchSetDetail;
 	}
 
+	private PatchSetDetail getPatchSetDetail(String variant, final PatchSet.Id idBase, final PatchSet.Id idTarget,
+			IProgressMonitor monitor) throws GerritException {
+		if (GerritCapabilityRegistry.PATCH_SET_DETAIL_1.equals(variant)) {
+			return execute(monitor, new Operation<PatchSetDetail>() {
+				@Override
+				public void execute(IProgressMonitor monitor) throws GerritException {
+					getChangeDetailService(monitor).patchSetDetail(idTarget, this);
+				}
+			});
+		} else if (GerritCapabilityRegistry.PATCH_SET_DETAIL_1_WITH_BASE.equals(variant)) {
+			return execute(monitor, new Operation<PatchSetDetail>() {
+				@Override
+				public void execute(IProgressMonitor monitor) throws GerritException {
+					getChangeDetailService(monitor).patchSetDetail(idBase, idTarget, createAccountDiffPreference(),
+							this);
+				}
+			});
+		} else {
+			return execute(monitor, new Operation<PatchSetDetail>() {
+				@Override
+				public void execute(IProgressMonitor monitor) throws GerritException {
+					getChangeDetailService(monitor).patchSetDetail2(idBase, idTarget, createAccountDiffPreference(),
+							this);
+				}
+
+				@Override
+				public Object getRequestKey() {
+					return requestKey("patchSetDetail2", idBase, idTarget); //$NON-NLS-1$
+				}
+			});
+		}
+	}
+
 	boolean isNoSuchServiceError(GerritException e) {
 		String message = e.getMessage();
 		return message != null && message.contains("No such service method"); //$NON-NLS-1$
@@ -564,17 +778,30 @@ public class GerritClient extends ReviewsClient {
 
 	public PatchSetPublishDetailX getPatchSetPublishDetail(final PatchSet.Id id, IProgressMonitor monitor)
 			throws GerritException {
+		return getPatchSetPublishDetail(id, null, monitor);
+	}
+
+	/**
+	 * Retrieves the publish details of a patch set. Change-level responses are shared through <code>scope</code> if
+	 * not null.
+	 */
+	protected PatchSetPublishDetailX getPatchSetPublishDetail(final PatchSet.Id id, ChangeScope scope,
+			IProgressMonitor monitor) throws GerritException {
 		PatchSetPublishDetailX publishDetail = execute(monitor, new Operation<PatchSetPublishDetailX>() {
 			@Override
 			public void execute(IProgressMonitor monitor) throws GerritException {
 				getChangeDetailService(monitor).patchSetPublishDetailX(id, this);
 			}
+
+			@Override
+			public Object getRequestKey() {
+				return requestKey("patchSetPublishDetailX", id); //$NON-NLS-1$
+			}
 		});
 		return publishDetail;
 	}
 
-	public GerritChange getChange(String reviewId, IProgressMonitor monitor) throws GerritException {
-		GerritChange gerritChange = new GerritChange();
+	public GerritChange getChange(final String reviewId, IProgressMonitor monitor) throws GerritException {
 		int id;
 		try {
 			id = id(reviewId);
@@ -586,32 +813,59 @@ public class GerritClient extends ReviewsClient {
 				throw e;
 			}
 		}
-		ChangeDetailX changeDetail = getChangeDetail(id, monitor);
-		List<PatchSetDetail> patchSets = new ArrayList<PatchSetDetail>(changeDetail.getPatchSets().size());
-		Map<PatchSet.Id, PatchSetPublishDetailX> patchSetPublishDetailByPatchSetId = new HashMap<PatchSet.Id, PatchSetPublishDetailX>();
-		for (PatchSet patchSet : changeDetail.getPatchSets()) {
-			try {
-				PatchSetDetail patchSetDetail = getPatchSetDetail(null, patchSet.getId(), monitor);
+		GerritChange gerritChange = new GerritChange();
+		final ChangeScope scope = new ChangeScope();
+		final ChangeDetailX changeDetail = getChangeDetail(id, monitor);
+		List<Task<PatchSetDetail>> tasks = new ArrayList<Task<PatchSetDetail>>(changeDetail.getPatchSets().size());
+		final Map<PatchSet.Id, PatchSetPublishDetailX> patchSetPublishDetailByPatchSetId = Collections.synchronizedMap(
+				new HashMap<PatchSet.Id, PatchSetPublishDetailX>());
+		for (final PatchSet patchSet : changeDetail.getPatchSets()) {
+			tasks.add(new Task<PatchSetDetail>() {
+				@Override
+				public PatchSetDetail execute(IProgressMonitor monitor) throws GerritException {
+					return getPatchSetDetails(reviewId, patchSet, scope, patchSetPublishDetailByPatchSetId, monitor);
+				}
+			});
+		}
+		List<PatchSetDetail> patchSets = new ArrayList<PatchSetDetail>(tasks.size());
+		for (PatchSetDetail patchSetDetail : getRequestExecutor().execute(tasks, monitor)) {
+			if (patchSetDetail != null) {
 				patchSets.add(patchSetDetail);
 				if (!isAnonymous()) {
-					PatchSetPublishDetailX patchSetPublishDetail = getPatchSetPublishDetail(patchSet.getId(), monitor);
-
-					applyPatchSetInfo(patchSetDetail, patchSetPublishDetail, monitor);
-					patchSetPublishDetailByPatchSetId.put(patchSet.getId(), patchSetPublishDetail);
 					changeDetail.setCurrentPatchSetDetail(patchSetDetail);
 				}
-			} catch (GerritException e) {
-				handleMissingPatchSet(
-						NLS.bind("Patch Set {0} items for Review {1}", patchSet.getPatchSetId(), reviewId), e); //$NON-NLS-1$
 			}
 		}
 		gerritChange.setChangeDetail(changeDetail);
 		gerritChange.setPatchSets(patchSets);
-		gerritChange.setPatchSetPublishDetailByPatchSetId(patchSetPublishDetailByPatchSetId);
+		gerritChange.setPatchSetPublishDetailByPatchSetId(new HashMap<PatchSet.Id, PatchSetPublishDetailX>(
+				patchSetPublishDetailByPatchSetId));
 
 		return gerritChange;
 	}
 
+	/**
+	 * Retrieves the details of a single patch set. Returns <code>null</code> if the patch set could not be loaded.
+	 */
+	private PatchSetDetail getPatchSetDetails(String reviewId, PatchSet patchSet, ChangeScope scope,
+			Map<PatchSet.Id, PatchSetPublishDetailX> patchSetPublishDetailByPatchSetId, IProgressMonitor monitor) {
+		try {
+			PatchSetDetail patchSetDetail = getPatchSetDetail(null, patchSet.getId(), monitor);
+			if (!isAnonymous()) {
+				PatchSetPublishDetailX patchSetPublishDetail = getPatchSetPublishDetail(patchSet.getId(), scope,
+						monitor);
+
+				applyPatchSetInfo(patchSetDetail, patchSetPublishDetail, monitor);
+				patchSetPublishDetailByPatchSetId.put(patchSet.getId(), patchSetPublishDetail);
+			}
+			return patchSetDetail;
+		} catch (GerritException e) {
+			handleMissingPatchSet(
+					NLS.bind("Patch Set {0} items for Review {1}", patchSet.getPatchSetId(), reviewId), e); //$NON-NLS-1$
+			return null;
+		}
+	}
+
 	protected void applyPatchSetInfo(PatchSetDetail patchSetDetail, PatchSetPublishDetailX patchSetPublishDetail,
 			IProgressMonitor monitor) throws GerritException {
 	}
@@ -657,7 +911,7 @@ public class GerritClient extends ReviewsClient {
 
 			private String getResponseBodyAsString(HttpMethodBase method) {
 				try {
-					String msg = method.getResponseBodyAsString();
+					String msg = GerritHttpClient.getResponseBodyAsString(method);
 					return msg.trim();
 				} catch (IOException e) {
 					// ignore
@@ -726,18 +980,37 @@ public class GerritClient extends ReviewsClient {
 	}
 
 	/**
-	 * Returns the latest 25 reviews.
+	 * Returns all open reviews.
 	 */
 	public List<GerritQueryResult> queryAllReviews(IProgressMonitor monitor) throws GerritException {
-		return executeQuery(monitor, "status:open"); //$NON-NLS-1$
+		QueryResultCollector collector = new QueryResultCollector();
+		queryAllReviews(monitor, collector);
+		return collector.getResults();
 	}
 
 	/**
-	 * Returns the latest 25 reviews for the given project.
+	 * Retrieves all open reviews and notifies <code>listener</code> for each page of results.
+	 */
+	public void queryAllReviews(IProgressMonitor monitor, QueryResultListener listener) throws GerritException {
+		executeQuery(monitor, "status:open", GET_LABELS_OPTION, listener); //$NON-NLS-1$
+	}
+
+	/**
+	 * Returns all open reviews for the given project.
 	 */
 	public List<GerritQueryResult> queryByProject(IProgressMonitor monitor, final String project)
 			throws GerritException {
-		return executeQuery(monitor, "status:open project:" + project); //$NON-NLS-1$
+		QueryResultCollector collector = new QueryResultCollector();
+		queryByProject(monitor, project, collector);
+		return collector.getResults();
+	}
+
+	/**
+	 * Retrieves all open reviews for the given project and notifies <code>listener</code> for each page of results.
+	 */
+	public void queryByProject(IProgressMonitor monitor, final String project, QueryResultListener listener)
+			throws GerritException {
+		executeQuery(monitor, "status:open project:" + project, GET_LABELS_OPTION, listener); //$NON-NLS-1$
 	}
 
 	/**
@@ -745,19 +1018,41 @@ public class GerritClient extends ReviewsClient {
 	 * user. On Gerrit 2.4 and earlier closed reviews are not included.
 	 */
 	public List<GerritQueryResult> queryMyReviews(IProgressMonitor monitor) throws GerritException {
-		return executeQueryRest(monitor, "owner:self OR reviewer:self", GET_LABELS_OPTION); //$NON-NLS-1$
+		QueryResultCollector collector = new QueryResultCollector();
+		queryMyReviews(monitor, collector);
+		return collector.getResults();
+	}
+
+	/**
+	 * Retrieves changes associated with the logged in user and notifies <code>listener</code> for each page of
+	 * results.
+	 * 
+	 * @see #queryMyReviews(IProgressMonitor)
+	 */
+	public void queryMyReviews(IProgressMonitor monitor, QueryResultListener listener) throws GerritException {
+		executeQueryRest(monitor, "owner:self OR reviewer:self", GET_LABELS_OPTION, listener); //$NON-NLS-1$
 	}
 
 	/**
 	 * Returns watched changes of the currently logged in user
 	 */
 	public List<GerritQueryResult> queryWatchedReviews(IProgressMonitor monitor) throws GerritException {
-		return executeQuery(monitor, "is:watched status:open"); //$NON-NLS-1$
+		QueryResultCollector collector = new QueryResultCollector();
+		queryWatchedReviews(monitor, collector);
+		return collector.getResults();
+	}
+
+	/**
+	 * Retrieves watched changes of the currently logged in user and notifies <code>listener</code> for each page of
+	 * results.
+	 */
+	public void queryWatchedReviews(IProgressMonitor monitor, QueryResultListener listener) throws GerritException {
+		executeQuery(monitor, "is:watched status:open", GET_LABELS_OPTION, listener); //$NON-NLS-1$
 	}
 
 	/**
 	 * Retrieves the root URL for the Gerrit instance and attempts to parse the configuration from the JavaScript
-	 * portion of the page.
+	 * portion of the page. The page is not cached since it embeds the XSRF key and account of the current session.
 	 */
 	private GerritConfigX refreshGerritConfig(final IProgressMonitor monitor) throws GerritException {
 		try {
@@ -769,7 +1064,7 @@ public class GerritClient extends ReviewsClient {
 
 				@Override
 				public GerritConfigX process(HttpMethodBase method) throws IOException {
-					InputStream in = WebUtil.getResponseBodyAsStream(method, monitor);
+					InputStream in = client.getResponseBodyAsStream(method);
 					try {
 						GerritHtmlProcessor processor = new GerritHtmlProcessor();
 						processor.parse(in, method.getResponseCharSet());
@@ -795,8 +1090,13 @@ public class GerritClient extends ReviewsClient {
 		}
 	}
 
+	/**
+	 * Retrieves the configuration from the repository and notifies the state listener. The returned configuration is
+	 * served by {@link #refreshConfigOnce(IProgressMonitor)} until it becomes stale.
+	 */
 	public GerritConfiguration refreshConfig(IProgressMonitor monitor) throws GerritException {
 		configRefreshed = true;
+		long timestamp = System.currentTimeMillis();
 		GerritConfigX gerritConfig = refreshGerritConfig(monitor);
 		List<Project> projects = getVisibleProjects(monitor, gerritConfig);
 		Account account = null;
@@ -807,22 +1107,49 @@ public class GerritClient extends ReviewsClient {
 				throw e;
 			}
 		}
-		config = new GerritConfiguration(gerritConfig, projects, account);
+		GerritConfiguration config = new GerritConfiguration(gerritConfig, projects, account);
+		this.config = config;
+		configTimestamp = timestamp;
 		if (stateListener != null) {
 			stateListener.configurationChanged(config);
 		}
 		return config;
 	}
 
+	/**
+	 * Returns the last known configuration without waiting for the repository. If the configuration was not refreshed
+	 * in this session or is older than {@link #CONFIG_MAX_AGE} a refresh is scheduled in the background. The
+	 * configuration is only retrieved synchronously if none is available, yet.
+	 */
 	public GerritConfiguration refreshConfigOnce(IProgressMonitor monitor) throws GerritException {
-		if (!configRefreshed && config == null) {
-			try {
-				refreshConfig(monitor);
-			} catch (GerritException e) {
-				// don't fail validation in case config parsing fails
+		GerritConfiguration config = getConfiguration();
+		if (config == null) {
+			if (!configRefreshed) {
+				try {
+					config = refreshConfig(monitor);
+				} catch (GerritException e) {
+					// don't fail validation in case config parsing fails
+				}
+			}
+		} else if (isConfigStale()) {
+			scheduleConfigRefresh();
+		}
+		return config;
+	}
+
+	private boolean isConfigStale() {
+		return System.currentTimeMillis() - configTimestamp > CONFIG_MAX_AGE;
+	}
+
+	/**
+	 * Schedules a refresh of the configuration in the background unless a refresh is already scheduled or running.
+	 */
+	public void scheduleConfigRefresh() {
+		synchronized (configRefreshJob) {
+			if (configRefreshJob.getState() == Job.NONE) {
+				configRefreshJob.schedule();
 			}
 		}
-		return getConfiguration();
 	}
 
 	public void createRemoteBranch(String projectName, String branchName, String revision, IProgressMonitor monitor)
@@ -876,7 +1203,7 @@ public class GerritClient extends ReviewsClient {
 
 			private String getResponseBodyAsString(HttpMethodBase method) {
 				try {
-					return method.getResponseBodyAsString();
+					return GerritHttpClient.getResponseBodyAsString(method);
 				} catch (IOException e) {
 					return null;
 				}
@@ -909,6 +1236,17 @@ public class GerritClient extends ReviewsClient {
 		return executeQuery(monitor, queryString, GET_LABELS_OPTION);
 	}
 
+	/**
+	 * Sends a query for the changes visible to the caller to the gerrit server and notifies <code>listener</code> for
+	 * each page of results as soon as it has been received.
+	 * 
+	 * @see #executeQuery(IProgressMonitor, String, String, QueryResultListener)
+	 */
+	public void executeQuery(IProgressMonitor monitor, final String queryString, QueryResultListener listener)
+			throws GerritException {
+		executeQuery(monitor, queryString, GET_LABELS_OPTION, listener);
+	}
+
 	/**
 	 * Sends a query for the changes visible to the caller to the gerrit server with the possibility of adding options
 	 * to the query.
@@ -924,7 +1262,28 @@ public class GerritClient extends ReviewsClient {
 	 */
 	public List<GerritQueryResult> executeQuery(IProgressMonitor monitor, final String queryString, String optionString)
 			throws GerritException {
-		return executeQueryRest(monitor, queryString, optionString);
+		QueryResultCollector collector = new QueryResultCollector();
+		executeQuery(monitor, queryString, optionString, collector);
+		return collector.getResults();
+	}
+
+	/**
+	 * Sends a query for the changes visible to the caller to the gerrit server and notifies <code>listener</code> for
+	 * each page of results as soon as it has been received.
+	 * 
+	 * @param monitor
+	 *            A progress monitor
+	 * @param queryString
+	 *            The specific gerrit change query
+	 * @param optionString
+	 *            Query options ("&o=" parameter). Only applicable for the REST API, ignored otherwise. May be null.
+	 * @param listener
+	 *            Notified on the calling thread for each page of results
+	 * @throws GerritException
+	 */
+	public void executeQuery(IProgressMonitor monitor, final String queryString, String optionString,
+			QueryResultListener listener) throws GerritException {
+		executeQueryRest(monitor, queryString, optionString, listener);
 	}
 
 	/**
@@ -957,10 +1316,69 @@ public class GerritClient extends ReviewsClient {
 	 */
 	public List<GerritQueryResult> executeQueryRest(IProgressMonitor monitor, final String queryString,
 			String optionString) throws GerritException {
+		QueryResultCollector collector = new QueryResultCollector();
+		executeQueryRest(monitor, queryString, optionString, collector);
+		return collector.getResults();
+	}
+
+	/**
+	 * Sends a query for the changes visible to the caller to the gerrit server using the gerrit REST API. If the
+	 * server truncates the result, the remaining pages are retrieved by skipping the changes received so far. The next
+	 * page is retrieved in the background while <code>listener</code> processes the current page.
+	 * 
+	 * @param monitor
+	 *            A progress monitor
+	 * @param queryString
+	 *            The specific gerrit change query
+	 * @param optionString
+	 *            Query options ("&o=" parameter). May be null or empty.
+	 * @param listener
+	 *            Notified on the calling thread for each page of results
+	 * @throws GerritException
+	 */
+	public void executeQueryRest(IProgressMonitor monitor, final String queryString, String optionString,
+			QueryResultListener listener) throws GerritException {
 		String uri = "/changes/?q=" + encode(queryString); //$NON-NLS-1$
 		if (StringUtils.isNotBlank(optionString)) {
 			uri += "&o=" + encode(optionString); //$NON-NLS-1$
 		}
+
+		GerritRequestExecutor executor = getRequestExecutor();
+		List<GerritQueryResult> page = getQueryResultPage(uri, 0, monitor);
+		int start = 0;
+		while (page != null && !page.isEmpty()) {
+			Future<List<GerritQueryResult>> nextPage = null;
+			if (page.get(page.size() - 1).hasMoreChanges()) {
+				final String pageUri = uri;
+				final int pageStart = start + page.size();
+				nextPage = executor.submit(new Task<List<GerritQueryResult>>() {
+					@Override
+					public List<GerritQueryResult> execute(IProgressMonitor monitor) throws GerritException {
+						return getQueryResultPage(pageUri, pageStart, monitor);
+					}
+				}, monitor);
+			}
+			try {
+				listener.resultsReceived(page);
+			} catch (RuntimeException e) {
+				if (nextPage != null) {
+					nextPage.cancel(false);
+				}
+				throw e;
+			}
+			if (nextPage == null) {
+				break;
+			}
+			start += page.size();
+			page = executor.getResult(nextPage, monitor);
+		}
+	}
+
+	private List<GerritQueryResult> getQueryResultPage(String uri, int start, IProgressMonitor monitor)
+			throws GerritException {
+		if (start > 0) {
+			uri += "&S=" + start; //$NON-NLS-1$
+		}
 		TypeToken<List<GerritQueryResult>> queryResultListType = new TypeToken<List<GerritQueryResult>>() {
 		};
 		return executeGetRestRequest(uri, queryResultListType.getType(), monitor);
@@ -1016,6 +1434,12 @@ public class GerritClient extends ReviewsClient {
 	private List<Project> getVisibleProjects(IProgressMonitor monitor, GerritConfig gerritConfig)
 			throws GerritException {
 		List<Project> result = new ArrayList<Project>();
+		String variant = getCapability(GerritCapabilityRegistry.VISIBLE_PROJECTS);
+		if (GerritCapabilityRegistry.VISIBLE_PROJECTS_FALLBACK.equals(variant)) {
+			addProjectsWhenNoSuchService(monitor, gerritConfig, result);
+			Collections.sort(result, new ProjectByNameComparator());
+			return result;
+		}
 		try {
 			List<ProjectDetailX> projectDetails = execute(monitor, new Operation<List<ProjectDetailX>>() {
 				@Override
@@ -1031,6 +1455,8 @@ public class GerritClient extends ReviewsClient {
 		} catch (GerritException e) {
 			if (isNoSuchServiceError(e)) {
 				addProjectsWhenNoSuchService(monitor, gerritConfig, result);
+				setCapability(GerritCapabilityRegistry.VISIBLE_PROJECTS,
+						GerritCapabilityRegistry.VISIBLE_PROJECTS_FALLBACK);
 			} else {
 				throw e;
 			}
@@ -1065,7 +1491,82 @@ public class GerritClient extends ReviewsClient {
 		return client.isAnonymous();
 	}
 
-	protected <T> T execute(IProgressMonitor monitor, Operation<T> operation) throws GerritException {
+	/**
+	 * Sets the cache for responses to REST requests. Cached responses are revalidated with conditional requests.
+	 *
+	 * @param responseCache
+	 *            the cache or null to disable caching
+	 */
+	public void setResponseCache(GerritResponseCache responseCache) {
+		client.setResponseCache(responseCache);
+	}
+
+	public GerritResponseCache getResponseCache() {
+		return client.getResponseCache();
+	}
+
+	/**
+	 * Sets the connection pool that is used for requests to the repository.
+	 *
+	 * @param connectionManager
+	 *            the connection pool or null to use the pool that is shared with other connectors
+	 */
+	public void setConnectionManager(HttpConnectionManager connectionManager) {
+		client.setConnectionManager(connectionManager);
+	}
+
+	public HttpConnectionManager getConnectionManager() {
+		return client.getConnectionManager();
+	}
+
+	/**
+	 * Sets the registry of service variants that were probed for the repository, e.g. in a previous session.
+	 */
+	public void setCapabilityRegistry(GerritCapabilityRegistry capabilityRegistry) {
+		Assert.isNotNull(capabilityRegistry);
+		this.capabilityRegistry = capabilityRegistry;
+	}
+
+	public GerritCapabilityRegistry getCapabilityRegistry() {
+		return capabilityRegistry;
+	}
+
+	protected String getCapability(String service) {
+		return capabilityRegistry.getVariant(service);
+	}
+
+	/**
+	 * Records that the repository supports <code>variant</code> of <code>service</code>.
+	 */
+	protected void setCapability(String service, String variant) {
+		GerritCapabilityRegistry registry = capabilityRegistry;
+		if (registry.setVariant(service, variant) && stateListener != null) {
+			stateListener.capabilitiesChanged(registry);
+		}
+	}
+
+	private void removeCapability(String service) {
+		GerritCapabilityRegistry registry = capabilityRegistry;
+		if (registry.removeVariant(service) && stateListener != null) {
+			stateListener.capabilitiesChanged(registry);
+		}
+	}
+
+	protected <T> T execute(IProgressMonitor monitor, final Operation<T> operation) throws GerritException {
+		return requestCoalescer.execute(operation.getRequestKey(), new GerritRequestCoalescer.Call<T>() {
+			@Override
+			public T call(IProgressMonitor monitor) throws GerritException {
+				return executeWithRetry(monitor, operation);
+			}
+
+			@Override
+			public T copy(T result) {
+				return operation.copy(result);
+			}
+		}, monitor);
+	}
+
+	private <T> T executeWithRetry(IProgressMonitor monitor, Operation<T> operation) throws GerritException {
 		try {
 			GerritRequest.setCurrentRequest(new GerritRequest(monitor));
 			try {
@@ -1107,9 +1608,43 @@ public class GerritClient extends ReviewsClient {
 					throw new GerritException(e);
 				}
 			}
+
+			@Override
+			public Object getRequestKey() {
+				return requestKey("GET", url, resultType); //$NON-NLS-1$
+			}
+
+			@Override
+			public T copy(T result) {
+				return JSonSupport.getDefault().copy(result, resultType);
+			}
 		});
 	}
 
+	/**
+	 * Executes a GET request for a change-level resource. If <code>scope</code> is not null the response is shared by
+	 * all requests for the same url within the scope.
+	 */
+	@SuppressWarnings("unchecked")
+	protected <T> T executeGetChangeRestRequest(ChangeScope scope, String url, Type resultType,
+			IProgressMonitor monitor) throws GerritException {
+		if (scope == null) {
+			return executeGetRestRequest(url, resultType, monitor);
+		}
+		T result = (T) scope.responseByUrl.get(url);
+		if (result == null) {
+			// concurrent requests for the same url are coalesced by execute()
+			result = executeGetRestRequest(url, resultType, monitor);
+			if (result != null) {
+				T existing = (T) scope.responseByUrl.putIfAbsent(url, result);
+				if (existing != null) {
+					result = existing;
+				}
+			}
+		}
+		return result;
+	}
+
 	protected <T> T executePutRestRequest(final String url, final Object input, final Type resultType,
 			final ErrorHandler handler, IProgressMonitor monitor) throws GerritException {
 		return execute(monitor, new Operation<T>() {
@@ -1138,6 +1673,13 @@ public class GerritClient extends ReviewsClient {
 		});
 	}
 
+	/**
+	 * Creates a key for {@link Operation#getRequestKey()} from the name of the request and its arguments.
+	 */
+	protected static Object requestKey(Object... parts) {
+		return Arrays.asList(parts);
+	}
+
 	protected <T> T executeOnce(IProgressMonitor monitor, Operation<T> operation) throws GerritException {
 		operation.execute(monitor);
 		if (operation.getException() instanceof GerritException) {
@@ -1154,6 +1696,47 @@ public class GerritClient extends ReviewsClient {
 		return operation.getResult();
 	}
 
+	/**
+	 * Returns the executor that runs independent requests concurrently. The number of concurrent requests is limited by
+	 * the {@link GerritConnector#KEY_REPOSITORY_MAX_CONCURRENT_REQUESTS} repository property.
+	 */
+	public synchronized GerritRequestExecutor getRequestExecutor() {
+		if (requestExecutor == null) {
+			requestExecutor = new GerritRequestExecutor(getMaxConcurrentRequests());
+		}
+		return requestExecutor;
+	}
+
+	/**
+	 * Returns the executor that retrieves several reviews concurrently. Reviews are retrieved on separate threads from
+	 * the {@link #getRequestExecutor() request executor} so that the requests of each review, e.g. for patch set
+	 * details, are still run concurrently instead of inline on a busy request worker.
+	 */
+	public synchronized GerritRequestExecutor getReviewExecutor() {
+		if (reviewExecutor == null) {
+			reviewExecutor = new GerritRequestExecutor(getMaxConcurrentRequests());
+		}
+		return reviewExecutor;
+	}
+
+	private int getMaxConcurrentRequests() {
+		TaskRepository repository = getRepository();
+		if (repository != null) {
+			String value = repository.getProperty(GerritConnector.KEY_REPOSITORY_MAX_CONCURRENT_REQUESTS);
+			if (value != null) {
+				try {
+					int maxConcurrentRequests = Integer.parseInt(value);
+					if (maxConcurrentRequests > 0) {
+						return maxConcurrentRequests;
+					}
+				} catch (NumberFormatException e) {
+					// fall back to default
+				}
+			}
+		}
+		return GerritRequestExecutor.DEFAULT_MAX_CONCURRENT_REQUESTS;
+	}
+
 	private synchronized <T extends RemoteJsonService> T getService(Class<T> clazz, IProgressMonitor monitor) {
 		RemoteJsonService service = serviceByClass.get(clazz);
 		if (service == null) {
@@ -1181,6 +1764,12 @@ public class GerritClient extends ReviewsClient {
 			@Override
 			public void execute(IProgressMonitor monitor) throws GerritException {
 				try {
+					String result = getVersionFromRestApi(monitor);
+					if (result != null) {
+						onSuccess(GerritVersion.parseGerritVersion(result));
+						return;
+					}
+
 					Request<String> request = new Request<String>() {
 						@Override
 						public HttpMethodBase createMethod() throws IOException {
@@ -1189,7 +1778,7 @@ public class GerritClient extends ReviewsClient {
 
 						@Override
 						public String process(HttpMethodBase method) throws IOException {
-							String content = method.getResponseBodyAsString();
+							String content = GerritHttpClient.getResponseBodyAsString(method);
 							Matcher matcher = GERRIT_VERSION_PATTERN.matcher(content);
 							if (matcher.find()) {
 								return matcher.group(1);
@@ -1197,7 +1786,7 @@ public class GerritClient extends ReviewsClient {
 							return null;
 						}
 					};
-					String result = client.execute(request, false, monitor);
+					result = client.execute(request, false, monitor);
 					Version version = GerritVersion.parseGerritVersion(result);
 					onSuccess(version);
 				} catch (Exception e) {
@@ -1207,6 +1796,22 @@ public class GerritClient extends ReviewsClient {
 		});
 	}
 
+	/**
+	 * Retrieves the version from the REST endpoint that is available in Gerrit 2.8 and later which is cheaper than
+	 * scraping the hooks page. Returns null if the endpoint is not supported.
+	 */
+	private String getVersionFromRestApi(IProgressMonitor monitor) {
+		try {
+			return client.execute(client.new RestRequest<String>(HttpMethod.GET, "/config/server/version", null, //$NON-NLS-1$
+					String.class, null), false, monitor);
+		} catch (OperationCanceledException e) {
+			throw e;
+		} catch (Exception e) {
+			// not supported by this version, fall back to the hooks page
+			return null;
+		}
+	}
+
 	public String toReviewId(String id, IProgressMonitor monitor) throws GerritException {
 		try {
 			Integer.parseInt(id);
@@ -34,12 +34,14 @@ import com.google.gwtjsonrpc.client.VoidResult;
 
 public class GerritClient24 extends GerritClient {
 
-	private boolean restQueryAPIEnabled;
-
 	protected GerritClient24(TaskRepository repository, Version version) {
 		super(repository, version);
 	}
 
+	private boolean isRestQueryApiEnabled() {
+		return GerritCapabilityRegistry.QUERY_REST.equals(getCapability(GerritCapabilityRegistry.QUERY));
+	}
+
 	@Override
 	public ChangeDetailX getChangeDetail(int reviewId, IProgressMonitor monitor) throws GerritException {
 		ChangeDetailX changeDetail = super.getChangeDetail(reviewId, monitor);
@@ -113,8 +115,8 @@ public class GerritClient24 extends GerritClient {
 	 * user. On Gerrit 2.4 and earlier closed reviews are not included.
 	 */
 	@Override
-	public List<GerritQueryResult> queryMyReviews(IProgressMonitor monitor) throws GerritException {
-		if (!restQueryAPIEnabled) {
+	public void queryMyReviews(IProgressMonitor monitor, QueryResultListener listener) throws GerritException {
+		if (!isRestQueryApiEnabled()) {
 			try {
 				final Account account = getAccount(monitor);
 				AccountDashboardInfo ad = execute(monitor, new Operation<AccountDashboardInfo>() {
@@ -127,16 +129,17 @@ public class GerritClient24 extends GerritClient {
 				List<com.google.gerrit.common.data.ChangeInfo> allMyChanges = ad.getByOwner();
 				allMyChanges.addAll(ad.getForReview());
 				allMyChanges.addAll(ad.getClosed());
-				return convert(allMyChanges);
+				listener.resultsReceived(convert(allMyChanges));
+				return;
 			} catch (GerritException e) {
 				if (isNoSuchServiceError(e)) {
-					restQueryAPIEnabled = true;
+					setCapability(GerritCapabilityRegistry.QUERY, GerritCapabilityRegistry.QUERY_REST);
 				} else {
 					throw e;
 				}
 			}
 		}
-		return super.queryMyReviews(monitor);
+		super.queryMyReviews(monitor, listener);
 	}
 
 	/**
@@ -149,13 +152,14 @@ public class GerritClient24 extends GerritClient {
 	 *            The specific gerrit change query
 	 * @param optionString
 	 *            Query options ("&o=" parameter). Only applicable for the REST API, ignored otherwise. May be null.
-	 * @return a list of GerritQueryResults built from the parsed query result (ChangeInfo:s)
+	 * @param listener
+	 *            Notified on the calling thread for each page of results
 	 * @throws GerritException
 	 */
 	@Override
-	public List<GerritQueryResult> executeQuery(IProgressMonitor monitor, final String queryString, String optionString)
-			throws GerritException {
-		if (!restQueryAPIEnabled) {
+	public void executeQuery(IProgressMonitor monitor, final String queryString, String optionString,
+			QueryResultListener listener) throws GerritException {
+		if (!isRestQueryApiEnabled()) {
 			try {
 				SingleListChangeInfo sl = execute(monitor, new Operation<SingleListChangeInfo>() {
 					@Override
@@ -163,16 +167,17 @@ public class GerritClient24 extends GerritClient {
 						getChangeListService(monitor).allQueryNext(queryString, "z", -1, this); //$NON-NLS-1$
 					}
 				});
-				return convert(sl.getChanges());
+				listener.resultsReceived(convert(sl.getChanges()));
+				return;
 			} catch (GerritException e) {
 				if (isNoSuchServiceError(e)) {
-					restQueryAPIEnabled = true;
+					setCapability(GerritCapabilityRegistry.QUERY, GerritCapabilityRegistry.QUERY_REST);
 				} else {
 					throw e;
 				}
 			}
 		}
-		return super.executeQuery(monitor, queryString);
+		super.executeQuery(monitor, queryString, optionString, listener);
 	}
 
 	@Override
@@ -48,10 +48,11 @@ public class GerritClient26 extends GerritClient {
 	}
 
 	@Override
-	public PatchSetPublishDetailX getPatchSetPublishDetail(Id id, IProgressMonitor monitor) throws GerritException {
-		PatchSetPublishDetailX publishDetail = super.getPatchSetPublishDetail(id, monitor);
+	protected PatchSetPublishDetailX getPatchSetPublishDetail(Id id, ChangeScope scope, IProgressMonitor monitor)
+			throws GerritException {
+		PatchSetPublishDetailX publishDetail = super.getPatchSetPublishDetail(id, scope, monitor);
 		if (publishDetail.getLabels() == null) {
-			ChangeInfo changeInfo = getChangeInfo(id.getParentKey().get(), monitor);
+			ChangeInfo changeInfo = getChangeInfo(id.getParentKey().get(), scope, monitor);
 			publishDetail.setLabels(changeInfo.convertToPermissionLabels());
 			if (publishDetail.getGiven() == null) {
 				publishDetail.setGiven(changeInfo.convertToPatchSetApprovals(id, getAccount(monitor)));
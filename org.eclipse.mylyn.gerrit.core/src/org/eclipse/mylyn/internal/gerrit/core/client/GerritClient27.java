@@ -11,10 +11,13 @@
 
 package org.eclipse.mylyn.internal.gerrit.core.client;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.mylyn.internal.gerrit.core.client.rest.ProjectInfo;
 import org.eclipse.mylyn.tasks.core.TaskRepository;
 import org.osgi.framework.Version;
@@ -30,8 +33,20 @@ public class GerritClient27 extends GerritClient26 {
 		super(repository, version);
 	}
 
-	private Map<String, ProjectInfo> listProjects(IProgressMonitor monitor) throws GerritException {
-		final String uri = "/projects/"; //$NON-NLS-1$
+	/**
+	 * Returns the number of projects that are retrieved per request or 0, if the repository does not support paging
+	 * and all projects are retrieved with a single request.
+	 */
+	protected int getProjectsPageSize() {
+		return 0;
+	}
+
+	private Map<String, ProjectInfo> listProjects(int start, int limit, IProgressMonitor monitor)
+			throws GerritException {
+		String uri = "/projects/"; //$NON-NLS-1$
+		if (limit > 0) {
+			uri += "?n=" + limit + "&S=" + start; //$NON-NLS-1$ //$NON-NLS-2$
+		}
 		TypeToken<Map<String, ProjectInfo>> resultType = new TypeToken<Map<String, ProjectInfo>>() {
 		};
 		return executeGetRestRequest(uri, resultType.getType(), monitor);
@@ -40,9 +55,24 @@ public class GerritClient27 extends GerritClient26 {
 	@Override
 	protected void addProjectsWhenNoSuchService(IProgressMonitor monitor, GerritConfig gerritConfig,
 			List<Project> result) throws GerritException {
-		Map<String, ProjectInfo> projects = listProjects(monitor);
-		for (String projectName : projects.keySet()) {
-			result.add(new Project(new NameKey(projectName)));
-		}
+		int pageSize = getProjectsPageSize();
+		Set<String> projectNames = new HashSet<String>();
+		Map<String, ProjectInfo> projects;
+		do {
+			if (monitor != null && monitor.isCanceled()) {
+				throw new OperationCanceledException();
+			}
+			projects = listProjects(projectNames.size(), pageSize, monitor);
+			int size = projectNames.size();
+			for (String projectName : projects.keySet()) {
+				if (projectNames.add(projectName)) {
+					result.add(new Project(new NameKey(projectName)));
+				}
+			}
+			if (projectNames.size() == size) {
+				// the repository ignored the offset
+				break;
+			}
+		} while (pageSize > 0 && projects.size() >= pageSize);
 	}
 }
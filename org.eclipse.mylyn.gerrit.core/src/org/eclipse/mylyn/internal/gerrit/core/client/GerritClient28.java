@@ -132,7 +132,7 @@ public class GerritClient28 extends GerritClient27 {
 
 			private String getResponseBodyAsString(HttpMethodBase method) {
 				try {
-					return method.getResponseBodyAsString();
+					return GerritHttpClient.getResponseBodyAsString(method);
 				} catch (IOException e) {
 					return null;
 				}
@@ -72,10 +72,17 @@ public class GerritClient29 extends GerritClient28 {
 
 	final String MAY = "MAY"; //$NON-NLS-1$
 
+	private static final int PROJECTS_PAGE_SIZE = 500;
+
 	protected GerritClient29(TaskRepository repository, Version version) {
 		super(repository, version);
 	}
 
+	@Override
+	protected int getProjectsPageSize() {
+		return PROJECTS_PAGE_SIZE;
+	}
+
 	@Override
 	protected Account executeAccount(IProgressMonitor monitor) throws GerritException {
 		if (isAnonymous()) {
@@ -108,7 +115,7 @@ public class GerritClient29 extends GerritClient28 {
 
 			private String getResponseBodyAsString(HttpMethodBase method) {
 				try {
-					return method.getResponseBodyAsString();
+					return GerritHttpClient.getResponseBodyAsString(method);
 				} catch (IOException e) {
 					return null;
 				}
@@ -180,11 +187,11 @@ public class GerritClient29 extends GerritClient28 {
 	}
 
 	@Override
-	public PatchSetPublishDetailX getPatchSetPublishDetail(final PatchSet.Id id, IProgressMonitor monitor)
-			throws GerritException {
+	protected PatchSetPublishDetailX getPatchSetPublishDetail(final PatchSet.Id id, ChangeScope scope,
+			IProgressMonitor monitor) throws GerritException {
 		PatchSetPublishDetailX publishDetail = null;
 		publishDetail = new PatchSetPublishDetailX();
-		ChangeInfo changeInfo = getChangeInfo(id.getParentKey().get(), monitor);
+		ChangeInfo changeInfo = getChangeInfo(id.getParentKey().get(), scope, monitor);
 
 		List<AccountInfo> listAccountInfo = new ArrayList<AccountInfo>();
 
@@ -248,7 +255,7 @@ public class GerritClient29 extends GerritClient28 {
 
 					private String getResponseBodyAsString(HttpMethodBase method) {
 						try {
-							return method.getResponseBodyAsString();
+							return GerritHttpClient.getResponseBodyAsString(method);
 						} catch (IOException e) {
 							return null;
 						}
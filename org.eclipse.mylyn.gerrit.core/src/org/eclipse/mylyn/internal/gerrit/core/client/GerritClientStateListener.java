@@ -19,4 +19,7 @@ public class GerritClientStateListener {
 	protected void authStateChanged(GerritAuthenticationState config) {
 	}
 
+	protected void capabilitiesChanged(GerritCapabilityRegistry registry) {
+	}
+
 }
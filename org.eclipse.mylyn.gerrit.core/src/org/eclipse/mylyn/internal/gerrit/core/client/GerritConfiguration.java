@@ -33,6 +33,8 @@ public final class GerritConfiguration {
 
 	private Account account;
 
+	private transient volatile ProjectNameIndex projectNameIndex;
+
 	GerritConfiguration() {
 		// no-args constructor needed by gson
 	}
@@ -63,6 +65,19 @@ public final class GerritConfiguration {
 		}
 	}
 
+	/**
+	 * @return an index of the names of all visible projects, never null
+	 */
+	public ProjectNameIndex getProjectNameIndex() {
+		ProjectNameIndex index = projectNameIndex;
+		if (index == null) {
+			// the index is immutable, concurrent callers may build it more than once
+			index = new ProjectNameIndex(getProjects());
+			projectNameIndex = index;
+		}
+		return index;
+	}
+
 	/**
 	 * @return the account instance, null if not authenticated
 	 */
@@ -0,0 +1,193 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.internal.gerrit.core.client;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import org.eclipse.core.runtime.Assert;
+import org.eclipse.mylyn.internal.gerrit.core.client.compat.GerritConfigX;
+
+import com.google.gerrit.reviewdb.Account;
+import com.google.gerrit.reviewdb.Project;
+import com.google.gerrit.reviewdb.Project.NameKey;
+
+/**
+ * Persists a {@link GerritConfiguration} in a compact binary file. The server configuration and the account are stored
+ * as JSON while the list of projects, which makes up the bulk of the configuration on large servers, is stored as a
+ * sequence of names. Files are verified against the checksum that was returned when the file was written before they
+ * are parsed.
+ */
+public class GerritConfigurationStore {
+
+	public static final String FILE_EXTENSION = ".config"; //$NON-NLS-1$
+
+	private static final int MAGIC = 0x47434647; // "GCFG"
+
+	private static final int FORMAT_VERSION = 1;
+
+	private static final String UTF_8 = "UTF-8"; //$NON-NLS-1$
+
+	private final File file;
+
+	public GerritConfigurationStore(File file) {
+		Assert.isNotNull(file);
+		this.file = file;
+	}
+
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * Replaces the contents of the file with <code>configuration</code>.
+	 *
+	 * @return the checksum of the written file
+	 */
+	public synchronized String write(GerritConfiguration configuration) throws IOException {
+		Assert.isNotNull(configuration);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeInt(MAGIC);
+		out.writeInt(FORMAT_VERSION);
+		JSonSupport support = JSonSupport.getDefault();
+		writeString(out, support.toJson(configuration.getGerritConfig()));
+		writeString(out, (configuration.getAccount() != null) ? support.toJson(configuration.getAccount()) : null);
+		List<Project> projects = configuration.getProjects();
+		out.writeInt(projects.size());
+		for (Project project : projects) {
+			writeString(out, project.getName());
+		}
+		out.close();
+		byte[] content = bytes.toByteArray();
+
+		file.getParentFile().mkdirs();
+		File tempFile = new File(file.getParentFile(), file.getName() + ".tmp"); //$NON-NLS-1$
+		FileOutputStream fileOut = new FileOutputStream(tempFile);
+		try {
+			fileOut.write(content);
+		} finally {
+			fileOut.close();
+		}
+		file.delete();
+		if (!tempFile.renameTo(file)) {
+			tempFile.delete();
+			throw new IOException("Failed to write " + file); //$NON-NLS-1$
+		}
+
+		return computeChecksum(content);
+	}
+
+	/**
+	 * Reads the configuration from the file.
+	 *
+	 * @param checksum
+	 *            the checksum returned by {@link #write(GerritConfiguration)} or null, to skip verification
+	 * @return the configuration or null, if the file does not exist
+	 * @throws IOException
+	 *             if the file is corrupt, was written in an unsupported format or does not match <code>checksum</code>
+	 */
+	public synchronized GerritConfiguration read(String checksum) throws IOException {
+		if (!file.exists()) {
+			return null;
+		}
+		byte[] content = readContent();
+		if (checksum != null && !checksum.equals(computeChecksum(content))) {
+			throw new IOException("Checksum mismatch"); //$NON-NLS-1$
+		}
+		try {
+			return readConfiguration(new DataInputStream(new ByteArrayInputStream(content)));
+		} catch (RuntimeException e) {
+			// parse errors
+			IOException ioe = new IOException("Invalid configuration file " + file); //$NON-NLS-1$
+			ioe.initCause(e);
+			throw ioe;
+		}
+	}
+
+	public synchronized void delete() {
+		file.delete();
+	}
+
+	private byte[] readContent() throws IOException {
+		DataInputStream in = new DataInputStream(new FileInputStream(file));
+		try {
+			byte[] content = new byte[(int) file.length()];
+			in.readFully(content);
+			return content;
+		} finally {
+			in.close();
+		}
+	}
+
+	private GerritConfiguration readConfiguration(DataInputStream in) throws IOException {
+		if (in.readInt() != MAGIC) {
+			throw new IOException("Invalid configuration file " + file); //$NON-NLS-1$
+		}
+		if (in.readInt() != FORMAT_VERSION) {
+			throw new IOException("Unsupported configuration file format"); //$NON-NLS-1$
+		}
+		JSonSupport support = JSonSupport.getDefault();
+		GerritConfigX gerritConfig = support.parseResponse(readString(in), GerritConfigX.class);
+		String accountJson = readString(in);
+		Account account = (accountJson != null) ? support.<Account> parseResponse(accountJson, Account.class) : null;
+		int count = in.readInt();
+		if (count < 0 || count > in.available()) {
+			throw new IOException("Invalid configuration file " + file); //$NON-NLS-1$
+		}
+		List<Project> projects = new ArrayList<Project>(count);
+		for (int i = 0; i < count; i++) {
+			projects.add(new Project(new NameKey(readString(in))));
+		}
+		return new GerritConfiguration(gerritConfig, projects, account);
+	}
+
+	private static String computeChecksum(byte[] content) {
+		CRC32 crc = new CRC32();
+		crc.update(content);
+		return Long.toHexString(crc.getValue());
+	}
+
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		if (value == null) {
+			out.writeInt(-1);
+		} else {
+			byte[] bytes = value.getBytes(UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length < 0) {
+			return null;
+		}
+		if (length > in.available()) {
+			throw new EOFException();
+		}
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, UTF_8);
+	}
+
+}
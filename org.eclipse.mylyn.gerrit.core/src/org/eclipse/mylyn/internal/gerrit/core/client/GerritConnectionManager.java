@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.internal.gerrit.core.client;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.httpclient.ConnectionPoolTimeoutException;
+import org.apache.commons.httpclient.HostConfiguration;
+import org.apache.commons.httpclient.HttpConnection;
+import org.apache.commons.httpclient.MultiThreadedHttpConnectionManager;
+import org.apache.commons.httpclient.params.HttpConnectionManagerParams;
+import org.apache.commons.httpclient.params.HttpConnectionParams;
+import org.eclipse.core.runtime.Assert;
+
+/**
+ * A connection pool that is dedicated to a single Gerrit repository so that requests to the repository do not compete
+ * with other connectors for connections. Connections are kept alive and reused until they have been idle for longer
+ * than the timeout passed to {@link #closeIdleConnections(long)}.
+ * <p>
+ * The pool keeps track of its utilization: the number of leased connections, the number of requests waiting for a
+ * connection and the number of open connections that are available for reuse.
+ */
+public class GerritConnectionManager extends MultiThreadedHttpConnectionManager {
+
+	public static final int DEFAULT_MAX_CONNECTIONS_PER_HOST = 20;
+
+	public static final int DEFAULT_MAX_TOTAL_CONNECTIONS = 40;
+
+	private static final int CONNECTION_TIMEOUT = 60 * 1000;
+
+	private static final int SOCKET_TIMEOUT = 3 * 60 * 1000;
+
+	/**
+	 * The parameters of the leased connections. The pool hands out wrappers for connections but receives the wrapped
+	 * connection on release, both share the parameters of the wrapped connection. Entries of connections that were
+	 * reclaimed by the pool without being released are removed when the connection is garbage collected.
+	 */
+	private final Set<HttpConnectionParams> leasedConnections = Collections.synchronizedSet(Collections
+			.newSetFromMap(new WeakHashMap<HttpConnectionParams, Boolean>()));
+
+	private final AtomicInteger pendingRequests = new AtomicInteger();
+
+	public GerritConnectionManager() {
+		HttpConnectionManagerParams params = getParams();
+		params.setConnectionTimeout(CONNECTION_TIMEOUT);
+		params.setSoTimeout(SOCKET_TIMEOUT);
+		// validate connections that were kept alive before reusing them
+		params.setStaleCheckingEnabled(true);
+		setLimits(DEFAULT_MAX_CONNECTIONS_PER_HOST, DEFAULT_MAX_TOTAL_CONNECTIONS);
+	}
+
+	/**
+	 * Updates the limits of the pool. Changes take effect for subsequent requests.
+	 */
+	public void setLimits(int maxConnectionsPerHost, int maxTotalConnections) {
+		Assert.isLegal(maxConnectionsPerHost > 0, "maxConnectionsPerHost must be greater than 0"); //$NON-NLS-1$
+		Assert.isLegal(maxTotalConnections >= maxConnectionsPerHost,
+				"maxTotalConnections must not be less than maxConnectionsPerHost"); //$NON-NLS-1$
+		HttpConnectionManagerParams params = getParams();
+		params.setDefaultMaxConnectionsPerHost(maxConnectionsPerHost);
+		params.setMaxTotalConnections(maxTotalConnections);
+	}
+
+	@Override
+	public HttpConnection getConnectionWithTimeout(HostConfiguration hostConfiguration, long timeout)
+			throws ConnectionPoolTimeoutException {
+		pendingRequests.incrementAndGet();
+		try {
+			HttpConnection connection = super.getConnectionWithTimeout(hostConfiguration, timeout);
+			leasedConnections.add(connection.getParams());
+			return connection;
+		} finally {
+			pendingRequests.decrementAndGet();
+		}
+	}
+
+	@Override
+	public void releaseConnection(HttpConnection connection) {
+		// connections may be released more than once, only the first release returns a leased connection
+		leasedConnections.remove(connection.getParams());
+		super.releaseConnection(connection);
+	}
+
+	public int getMaxConnectionsPerHost() {
+		return getParams().getDefaultMaxConnectionsPerHost();
+	}
+
+	public int getMaxTotalConnections() {
+		return getParams().getMaxTotalConnections();
+	}
+
+	/**
+	 * Returns the number of connections that are currently used by requests.
+	 */
+	public int getLeasedConnections() {
+		return leasedConnections.size();
+	}
+
+	/**
+	 * Returns the number of requests that are waiting for a connection because the limits of the pool have been
+	 * reached.
+	 */
+	public int getPendingRequests() {
+		return pendingRequests.get();
+	}
+
+	/**
+	 * Returns the number of open connections that are idle and available for reuse.
+	 */
+	public int getAvailableConnections() {
+		return Math.max(0, getConnectionsInPool() - getLeasedConnections());
+	}
+
+}
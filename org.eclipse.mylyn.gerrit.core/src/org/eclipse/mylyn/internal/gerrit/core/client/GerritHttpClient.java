@@ -14,6 +14,9 @@
 
 package org.eclipse.mylyn.internal.gerrit.core.client;
 
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Type;
@@ -21,12 +24,20 @@ import java.net.HttpURLConnection;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
 
 import org.apache.commons.httpclient.Cookie;
 import org.apache.commons.httpclient.Credentials;
 import org.apache.commons.httpclient.Header;
 import org.apache.commons.httpclient.HostConfiguration;
 import org.apache.commons.httpclient.HttpClient;
+import org.apache.commons.httpclient.HttpConnectionManager;
 import org.apache.commons.httpclient.HttpMethodBase;
 import org.apache.commons.httpclient.HttpStatus;
 import org.apache.commons.httpclient.auth.AuthScope;
@@ -36,8 +47,10 @@ import org.apache.commons.httpclient.methods.PostMethod;
 import org.apache.commons.httpclient.methods.PutMethod;
 import org.apache.commons.httpclient.methods.RequestEntity;
 import org.apache.commons.httpclient.methods.StringRequestEntity;
+import org.apache.commons.io.IOUtils;
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.mylyn.commons.core.CoreUtil;
 import org.eclipse.mylyn.commons.net.AbstractWebLocation;
 import org.eclipse.mylyn.commons.net.AuthenticationCredentials;
@@ -79,6 +92,23 @@ public class GerritHttpClient {
 		}
 	}
 
+	/**
+	 * Implemented by requests whose responses may be stored in the response cache.
+	 */
+	public static interface CacheableRequest<T> {
+
+		/**
+		 * Returns the key for storing the response in the response cache or null if the response must not be cached.
+		 */
+		public String getCacheKey();
+
+		/**
+		 * Processes a response body that is being stored in or served from the response cache.
+		 */
+		public T process(InputStream in, String charset) throws IOException;
+
+	}
+
 	public static interface ErrorHandler {
 		public void handleError(HttpMethodBase method) throws GerritException;
 	}
@@ -107,15 +137,50 @@ public class GerritHttpClient {
 
 		@Override
 		public String process(HttpMethodBase method) throws IOException {
-			return method.getResponseBodyAsString();
+			byte[] body = getResponseBody(method);
+			return (body != null) ? new String(body, method.getResponseCharSet()) : null;
+		}
+
+	}
+
+	/**
+	 * Decodes the result of a Json-RPC call directly from the response stream.
+	 */
+	class JsonRpcRequest extends Request<JSonSupport.JSonRpcResult> {
+
+		private final JSonSupport json = JSonSupport.getDefault();
+
+		private final JsonRequest request;
+
+		private final Type resultType;
+
+		public JsonRpcRequest(final String serviceUri, final JsonEntity entity, Type resultType) {
+			this.request = new JsonRequest(serviceUri, entity);
+			this.resultType = resultType;
+		}
+
+		@Override
+		public PostMethod createMethod() throws IOException {
+			return request.createMethod();
+		}
+
+		@Override
+		public JSonSupport.JSonRpcResult process(HttpMethodBase method) throws IOException {
+			InputStream in = getResponseBodyAsStream(method);
+			Assert.isLegal(in != null);
+			try {
+				return json.parseJsonResponse(in, method.getResponseCharSet(), resultType);
+			} finally {
+				in.close();
+			}
 		}
 
 	}
 
 	// visible for testing
-	class RestRequest<T> extends Request<T> {
+	class RestRequest<T> extends Request<T> implements CacheableRequest<T> {
 
-		private final JSonSupport json = new JSonSupport();
+		private final JSonSupport json = JSonSupport.getDefault();
 
 		private final HttpMethod httpMethod;
 
@@ -183,10 +248,27 @@ public class GerritHttpClient {
 		public T process(HttpMethodBase method) throws IOException {
 			Type rawType = TypeToken.get(resultType).getRawType();
 			if (rawType == Byte[].class || rawType == byte[].class) {
-				return (T) method.getResponseBody();
+				return (T) getResponseBody(method);
+			}
+			InputStream in = getResponseBodyAsStream(method);
+			Assert.isLegal(in != null);
+			try {
+				return process(in, method.getResponseCharSet());
+			} finally {
+				in.close();
+			}
+		}
+
+		public T process(InputStream in, String charset) throws IOException {
+			return json.<T> parseResponse(in, charset, resultType);
+		}
+
+		public String getCacheKey() {
+			Type rawType = TypeToken.get(resultType).getRawType();
+			if (httpMethod == HttpMethod.GET && rawType != Byte[].class && rawType != byte[].class) {
+				return serviceUri;
 			}
-			String content = method.getResponseBodyAsString();
-			return json.parseResponse(content, resultType);
+			return null;
 		}
 
 		@Override
@@ -197,14 +279,122 @@ public class GerritHttpClient {
 		}
 	}
 
+	/**
+	 * Retrieves binary content. Zipped content is extracted while it is being received.
+	 */
+	class BinaryRequest extends Request<byte[]> {
+
+		private final String serviceUri;
+
+		public BinaryRequest(final String serviceUri) {
+			this.serviceUri = serviceUri;
+		}
+
+		@Override
+		public HttpMethodBase createMethod() throws IOException {
+			return new GetMethod(getUrl() + serviceUri);
+		}
+
+		@Override
+		public byte[] process(HttpMethodBase method) throws IOException {
+			InputStream in = getResponseBodyAsStream(method);
+			if (in == null) {
+				return null;
+			}
+			try {
+				return readBinaryContent(in, method.getResponseContentLength());
+			} finally {
+				in.close();
+			}
+		}
+
+	}
+
 	public static abstract class JsonEntity {
 
 		public abstract String getContent();
 
 	}
 
+	/**
+	 * Adds the number of bytes read from the wrapped stream to a counter.
+	 */
+	private static class CountingInputStream extends FilterInputStream {
+
+		private final AtomicLong counter;
+
+		CountingInputStream(InputStream in, AtomicLong counter) {
+			super(in);
+			this.counter = counter;
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b = super.read();
+			if (b != -1) {
+				counter.incrementAndGet();
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int count = super.read(b, off, len);
+			if (count > 0) {
+				counter.addAndGet(count);
+			}
+			return count;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			long count = super.skip(n);
+			if (count > 0) {
+				counter.addAndGet(count);
+			}
+			return count;
+		}
+
+	}
+
+	/**
+	 * The authentication state of a client. Instances are immutable and replaced as a whole when the state changes so
+	 * that a request always observes a consistent combination of session cookie and XSRF key.
+	 */
+	private static final class Session {
+
+		private final Cookie cookie;
+
+		private final String xsrfKey;
+
+		private final boolean obtainedXsrfKey;
+
+		Session(Cookie cookie, String xsrfKey, boolean obtainedXsrfKey) {
+			this.cookie = cookie;
+			this.xsrfKey = xsrfKey;
+			this.obtainedXsrfKey = obtainedXsrfKey;
+		}
+
+		boolean needsAuthentication() {
+			return cookie == null || cookie.isExpired();
+		}
+
+	}
+
 	private static final String ACCEPT = "Accept"; //$NON-NLS-1$
 
+	private static final String ACCEPT_ENCODING = "Accept-Encoding"; //$NON-NLS-1$
+
+	private static final String CONTENT_ENCODING = "Content-Encoding"; //$NON-NLS-1$
+
+	private static final String ENCODING_GZIP = "gzip"; //$NON-NLS-1$
+
+	private static final String ENCODING_X_GZIP = "x-gzip"; //$NON-NLS-1$
+
+	private static final String ENCODING_DEFLATE = "deflate"; //$NON-NLS-1$
+
+	private static final int BUFFER_SIZE = 8192;
+
 	private static final String APPLICATION_JSON = "application/json"; //$NON-NLS-1$
 
 	private static final String X_GERRIT_AUTHORITY = "X-Gerrit-Auth"; //$NON-NLS-1$
@@ -215,19 +405,27 @@ public class GerritHttpClient {
 
 	private static final String BECOME_URL = "/become"; //$NON-NLS-1$
 
-	private HostConfiguration hostConfiguration;
+	private static final long LOCK_POLL_INTERVAL = 100;
 
 	private final HttpClient httpClient;
 
-	private int id = 1;
+	private final AtomicInteger id = new AtomicInteger(1);
 
 	private final AbstractWebLocation location;
 
-	private volatile Cookie xsrfCookie;
+	private volatile Session session = new Session(null, null, false);
+
+	/**
+	 * Ensures that only a single request authenticates or retrieves the XSRF key at a time while concurrent requests
+	 * wait for and reuse the result.
+	 */
+	private final ReentrantLock authenticationLock = new ReentrantLock();
+
+	private volatile GerritResponseCache responseCache;
 
-	private volatile String xsrfKey;
+	private final AtomicLong receivedBytes = new AtomicLong();
 
-	private volatile boolean obtainedXsrfKey;
+	private final AtomicLong decodedBytes = new AtomicLong();
 
 	public GerritHttpClient(AbstractWebLocation location) {
 		Assert.isNotNull(location, "Location must be not null."); //$NON-NLS-1$
@@ -235,24 +433,80 @@ public class GerritHttpClient {
 		this.httpClient = new HttpClient(WebUtil.getConnectionManager());
 	}
 
-	public synchronized int getId() {
-		return id++;
+	public int getId() {
+		return id.getAndIncrement();
 	}
 
 	public AbstractWebLocation getLocation() {
 		return location;
 	}
 
-	public synchronized String getXsrfKey() {
-		if (xsrfKey != null) {
-			return xsrfKey;
+	/**
+	 * Sets the cache for responses to REST GET requests. Cached responses are revalidated with conditional requests.
+	 *
+	 * @param responseCache
+	 *            the cache or null to disable caching
+	 */
+	public void setResponseCache(GerritResponseCache responseCache) {
+		this.responseCache = responseCache;
+	}
+
+	public GerritResponseCache getResponseCache() {
+		return responseCache;
+	}
+
+	/**
+	 * Sets the connection pool that is used for requests.
+	 *
+	 * @param connectionManager
+	 *            the connection pool or null to use the pool that is shared with other connectors
+	 */
+	public void setConnectionManager(HttpConnectionManager connectionManager) {
+		httpClient.setHttpConnectionManager((connectionManager != null)
+				? connectionManager
+				: WebUtil.getConnectionManager());
+	}
+
+	public HttpConnectionManager getConnectionManager() {
+		return httpClient.getHttpConnectionManager();
+	}
+
+	/**
+	 * Returns the number of response body bytes that were received from the server. For compressed responses this is
+	 * the compressed size.
+	 */
+	public long getReceivedBytes() {
+		return receivedBytes.get();
+	}
+
+	/**
+	 * Returns the number of response body bytes after decompression.
+	 */
+	public long getDecodedBytes() {
+		return decodedBytes.get();
+	}
+
+	public String getXsrfKey() {
+		Session current = session;
+		if (current.xsrfKey != null) {
+			return current.xsrfKey;
+		}
+		return (current.cookie != null) ? current.cookie.getValue() : null;
+	}
+
+	public void setXsrfKey(String xsrfKey) {
+		synchronized (this) {
+			session = new Session(session.cookie, xsrfKey, true);
 		}
-		return (xsrfCookie != null) ? xsrfCookie.getValue() : null;
+		xsrfKeyChanged(xsrfKey);
 	}
 
-	public synchronized void setXsrfKey(String xsrfKey) {
-		this.xsrfKey = xsrfKey;
-		this.obtainedXsrfKey = true;
+	/**
+	 * Returns the XSRF key that was obtained for the current session or null, if the key has not been obtained.
+	 */
+	public String getObtainedXsrfKey() {
+		Session current = session;
+		return (current.obtainedXsrfKey) ? current.xsrfKey : null;
 	}
 
 	/**
@@ -269,6 +523,23 @@ public class GerritHttpClient {
 		return execute(new JsonRequest(serviceUri, entity), monitor);
 	}
 
+	/**
+	 * Send a JSON request to the Gerrit server and decode the result while it is being received.
+	 * 
+	 * @return The decoded result
+	 * @throws GerritException
+	 *             if the server returned an error
+	 */
+	public <T> T postJsonRequest(final String serviceUri, final JsonEntity entity, Type resultType,
+			IProgressMonitor monitor) throws IOException, GerritException {
+		Assert.isNotNull(serviceUri, "Service URI must be not null."); //$NON-NLS-1$
+		Assert.isNotNull(entity, "JSON entity must be not null."); //$NON-NLS-1$
+		Assert.isNotNull(resultType, "Output type must be not null."); //$NON-NLS-1$
+
+		JSonSupport.JSonRpcResult result = execute(new JsonRpcRequest(serviceUri, entity, resultType), monitor);
+		return result.<T> getResult();
+	}
+
 	public <T> T postRestRequest(final String serviceUri, final Object input, Type resultType, ErrorHandler handler,
 			IProgressMonitor monitor) throws IOException, GerritException {
 		Assert.isNotNull(input, "Input object must be not null."); //$NON-NLS-1$
@@ -304,35 +575,87 @@ public class GerritHttpClient {
 		return execute(new RestRequest<T>(httpMethod, serviceUri, input, resultType, handler), monitor);
 	}
 
+	/**
+	 * Retrieves binary content from the Gerrit server, e.g. from the <code>/cat/</code> servlet. If the server returns
+	 * a zip archive the content of its single entry is returned.
+	 */
+	public byte[] getBinaryRequest(final String serviceUri, IProgressMonitor monitor) throws IOException,
+			GerritException {
+		Assert.isNotNull(serviceUri, "Service URI must be not null."); //$NON-NLS-1$
+
+		return execute(new BinaryRequest(serviceUri), monitor);
+	}
+
+	/**
+	 * Reads <code>in</code> into a single array. If the content is a ZIP archive, the first entry of the archive is
+	 * extracted on the fly instead.
+	 * 
+	 * @param contentLength
+	 *            the expected length of <code>in</code> or -1 if unknown
+	 * @see GerritClient#isZippedContent(byte[])
+	 */
+	static byte[] readBinaryContent(InputStream in, long contentLength) throws IOException {
+		BufferedInputStream buffered = new BufferedInputStream(in, BUFFER_SIZE);
+		// isZippedContent() expects more than the 4 byte header
+		byte[] header = new byte[5];
+		buffered.mark(header.length);
+		int length = 0;
+		while (length < header.length) {
+			int count = buffered.read(header, length, header.length - length);
+			if (count == -1) {
+				break;
+			}
+			length += count;
+		}
+		buffered.reset();
+		if (length == header.length && GerritClient.isZippedContent(header)) {
+			return GerritClient.unzip(buffered);
+		}
+		return toByteArray(buffered, contentLength);
+	}
+
+	private static byte[] toByteArray(InputStream in, long expectedLength) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream((expectedLength > 0 && expectedLength < Integer.MAX_VALUE)
+				? (int) expectedLength
+				: BUFFER_SIZE);
+		IOUtils.copy(in, out);
+		return out.toByteArray();
+	}
+
 	public <T> T execute(Request<T> request, IProgressMonitor monitor) throws IOException, GerritException {
 		return execute(request, true, monitor);
 	}
 
+	/**
+	 * Executes <code>request</code>. This method may be invoked concurrently from several threads: each request uses
+	 * its own host configuration and observes a consistent authentication state. If several requests require
+	 * authentication at the same time only one of them authenticates while the others wait and reuse the new session.
+	 */
 	public <T> T execute(Request<T> request, boolean authenticateIfNeeded, IProgressMonitor monitor)
 			throws IOException, GerritException {
 		String openIdProvider = getOpenIdProvider();
 
-		hostConfiguration = WebUtil.createHostConfiguration(httpClient, location, monitor);
+		GerritResponseCache cache = responseCache;
+		CacheableRequest<T> cacheableRequest = getCacheableRequest(request);
+		String cacheKey = (cache != null && cacheableRequest != null) ? getCacheKey(cacheableRequest) : null;
+		GerritResponseCache.Entry cachedEntry = (cacheKey != null) ? cache.get(cacheKey) : null;
 
 		for (int attempt = 0; attempt < 2; attempt++) {
+			Session current = session;
 			if (authenticateIfNeeded) {
-				// force authentication
-				if (needsAuthentication()) {
-					AuthenticationCredentials credentials = location.getCredentials(AuthenticationType.REPOSITORY);
-					if (openIdProvider != null || credentials != null) {
-						authenticate(openIdProvider, monitor);
-					}
-				}
-				if (!obtainedXsrfKey) {
-					updateXsrfKey(monitor);
-				}
+				current = prepareSession(current, openIdProvider, monitor);
 			}
 
+			HostConfiguration hostConfiguration = WebUtil.createHostConfiguration(httpClient, location, monitor);
 			HttpMethodBase method = request.createMethod();
-			if (obtainedXsrfKey) {
+			method.setRequestHeader(ACCEPT_ENCODING, ENCODING_GZIP + ", " + ENCODING_DEFLATE); //$NON-NLS-1$
+			if (current.obtainedXsrfKey) {
 				// required to authenticate against Gerrit 2.6+ REST endpoints
 				// harmless in previous versions
-				method.setRequestHeader(X_GERRIT_AUTHORITY, xsrfKey);
+				method.setRequestHeader(X_GERRIT_AUTHORITY, current.xsrfKey);
+			}
+			if (cachedEntry != null) {
+				cachedEntry.addValidators(method);
 			}
 			try {
 				// Execute the method.
@@ -346,13 +669,36 @@ public class GerritHttpClient {
 			}
 
 			int code = method.getStatusCode();
-			if (code == HttpURLConnection.HTTP_OK || code == HttpURLConnection.HTTP_ACCEPTED
+			if (code == HttpURLConnection.HTTP_OK && cacheKey != null) {
+				try {
+					return processCacheable(cacheableRequest, method, cache, cacheKey);
+				} finally {
+					WebUtil.releaseConnection(method, monitor);
+				}
+			} else if (code == HttpURLConnection.HTTP_OK || code == HttpURLConnection.HTTP_ACCEPTED
 					|| code == HttpURLConnection.HTTP_CREATED) {
 				try {
 					return request.process(method);
 				} finally {
 					WebUtil.releaseConnection(method, monitor);
 				}
+			} else if (code == HttpURLConnection.HTTP_NOT_MODIFIED && cachedEntry != null) {
+				WebUtil.releaseConnection(method, monitor);
+				try {
+					InputStream in = cache.getContent(cachedEntry);
+					try {
+						T result = cacheableRequest.process(in, cachedEntry.getCharset());
+						cache.recordHit();
+						return result;
+					} finally {
+						in.close();
+					}
+				} catch (IOException e) {
+					// the entry was evicted or is corrupt, retrieve the full response
+					cache.remove(cacheKey);
+					cachedEntry = null;
+					attempt--;
+				}
 			} else if (code == HttpURLConnection.HTTP_NO_CONTENT) {
 				try {
 					return null;
@@ -368,7 +714,7 @@ public class GerritHttpClient {
 				}
 				if (code == HttpURLConnection.HTTP_UNAUTHORIZED || code == HttpURLConnection.HTTP_FORBIDDEN) {
 					// login or re-authenticate due to an expired session
-					authenticate(openIdProvider, monitor);
+					reauthenticate(current, openIdProvider, monitor);
 				} else {
 					throw new GerritHttpException(code);
 				}
@@ -378,8 +724,180 @@ public class GerritHttpClient {
 		throw new GerritLoginException();
 	}
 
+	@SuppressWarnings("unchecked")
+	private <T> CacheableRequest<T> getCacheableRequest(Request<T> request) {
+		return (request instanceof CacheableRequest<?>) ? (CacheableRequest<T>) request : null;
+	}
+
+	private String getCacheKey(CacheableRequest<?> request) {
+		String key = request.getCacheKey();
+		if (key == null) {
+			return null;
+		}
+		// responses depend on the permissions of the user
+		AuthenticationCredentials credentials = location.getCredentials(AuthenticationType.REPOSITORY);
+		return ((credentials != null) ? credentials.getUserName() : "") + "@" + key; //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/**
+	 * Processes the response body while it is being written to the cache.
+	 */
+	private <T> T processCacheable(CacheableRequest<T> request, HttpMethodBase method, GerritResponseCache cache,
+			String cacheKey) throws IOException {
+		cache.recordMiss();
+		InputStream in = getResponseBodyAsStream(method);
+		Assert.isLegal(in != null);
+		if (!cache.isCacheable(method)) {
+			try {
+				return request.process(in, method.getResponseCharSet());
+			} finally {
+				in.close();
+			}
+		}
+		GerritResponseCache.CachingInputStream cachingIn = cache.put(cacheKey, method, in);
+		try {
+			T result = request.process(cachingIn, method.getResponseCharSet());
+			cachingIn.commit();
+			return result;
+		} finally {
+			cachingIn.close();
+		}
+	}
+
+	/**
+	 * Authenticates and retrieves the XSRF key unless <code>current</code> is already usable. Returns the session
+	 * that should be used for the request.
+	 */
+	private Session prepareSession(Session current, String openIdProvider, IProgressMonitor monitor)
+			throws IOException, GerritException {
+		if (current.obtainedXsrfKey && (!current.needsAuthentication() || !canAuthenticate(openIdProvider))) {
+			return current;
+		}
+		lockAuthentication(monitor);
+		try {
+			// another request may have completed authentication while this request was waiting for the lock
+			if (session.needsAuthentication() && canAuthenticate(openIdProvider)) {
+				authenticate(openIdProvider, monitor);
+			}
+			if (!session.obtainedXsrfKey) {
+				updateXsrfKey(monitor);
+			}
+			return session;
+		} finally {
+			authenticationLock.unlock();
+		}
+	}
+
+	/**
+	 * Re-authenticates after a request that used <code>failed</code> was rejected, unless another request has already
+	 * established a new session in the meantime.
+	 */
+	private void reauthenticate(Session failed, String openIdProvider, IProgressMonitor monitor) throws IOException,
+			GerritException {
+		lockAuthentication(monitor);
+		try {
+			if (session.cookie == failed.cookie) {
+				authenticate(openIdProvider, monitor);
+			}
+		} finally {
+			authenticationLock.unlock();
+		}
+	}
+
+	private void lockAuthentication(IProgressMonitor monitor) throws GerritException {
+		try {
+			while (!authenticationLock.tryLock(LOCK_POLL_INTERVAL, TimeUnit.MILLISECONDS)) {
+				if (monitor != null && monitor.isCanceled()) {
+					throw new OperationCanceledException();
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new GerritException(e);
+		}
+	}
+
+	private boolean canAuthenticate(String openIdProvider) {
+		return openIdProvider != null || location.getCredentials(AuthenticationType.REPOSITORY) != null;
+	}
+
+	/**
+	 * Returns a stream that decodes the response body of <code>method</code> according to its
+	 * <code>Content-Encoding</code> while it is being read.
+	 */
+	InputStream getResponseBodyAsStream(HttpMethodBase method) throws IOException {
+		InputStream in = method.getResponseBodyAsStream();
+		if (in == null) {
+			return null;
+		}
+		in = decode(new CountingInputStream(in, receivedBytes), getContentEncoding(method));
+		return new CountingInputStream(in, decodedBytes);
+	}
+
+	/**
+	 * Returns the decoded response body of <code>method</code>.
+	 */
+	byte[] getResponseBody(HttpMethodBase method) throws IOException {
+		if (getContentEncoding(method) == null) {
+			byte[] body = method.getResponseBody();
+			if (body != null) {
+				receivedBytes.addAndGet(body.length);
+				decodedBytes.addAndGet(body.length);
+			}
+			return body;
+		}
+		InputStream in = getResponseBodyAsStream(method);
+		if (in == null) {
+			return null;
+		}
+		try {
+			return IOUtils.toByteArray(in);
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Returns the decoded response body of <code>method</code> as a string. Intended for error handlers that inspect
+	 * the body of responses to requests that accepted compressed content.
+	 */
+	static String getResponseBodyAsString(HttpMethodBase method) throws IOException {
+		String encoding = getContentEncoding(method);
+		if (encoding == null) {
+			return method.getResponseBodyAsString();
+		}
+		InputStream in = method.getResponseBodyAsStream();
+		if (in == null) {
+			return null;
+		}
+		try {
+			return IOUtils.toString(decode(in, encoding), method.getResponseCharSet());
+		} finally {
+			in.close();
+		}
+	}
+
+	private static InputStream decode(InputStream in, String encoding) throws IOException {
+		if (ENCODING_GZIP.equals(encoding) || ENCODING_X_GZIP.equals(encoding)) {
+			return new GZIPInputStream(in, BUFFER_SIZE);
+		} else if (ENCODING_DEFLATE.equals(encoding)) {
+			return new InflaterInputStream(in);
+		}
+		return in;
+	}
+
+	private static String getContentEncoding(HttpMethodBase method) {
+		Header header = method.getResponseHeader(CONTENT_ENCODING);
+		if (header == null) {
+			return null;
+		}
+		String encoding = header.getValue().trim().toLowerCase(Locale.ENGLISH);
+		return (encoding.length() > 0 && !"identity".equals(encoding)) ? encoding : null; //$NON-NLS-1$
+	}
+
 	private void updateXsrfKey(IProgressMonitor monitor) throws IOException {
 		String repositoryUrl = getUrl() + "/"; //$NON-NLS-1$
+		HostConfiguration hostConfiguration = WebUtil.createHostConfiguration(httpClient, location, monitor);
 		GetMethod method = new GetMethod(WebUtil.getRequestPath(repositoryUrl));
 		method.setFollowRedirects(false);
 		int code;
@@ -406,7 +924,7 @@ public class GerritHttpClient {
 	}
 
 	GetMethod getRequest(String serviceUri, IProgressMonitor monitor) throws IOException {
-		hostConfiguration = WebUtil.createHostConfiguration(httpClient, location, monitor);
+		HostConfiguration hostConfiguration = WebUtil.createHostConfiguration(httpClient, location, monitor);
 		GetMethod method = new GetMethod(getUrl() + serviceUri);
 		try {
 			// Execute the method.
@@ -432,24 +950,26 @@ public class GerritHttpClient {
 	private void authenticate(String openIdProvider, IProgressMonitor monitor) throws GerritException, IOException {
 		while (true) {
 			AuthenticationCredentials credentials = location.getCredentials(AuthenticationType.REPOSITORY);
+			// the proxy settings may have changed if credentials were requested
+			HostConfiguration hostConfiguration = WebUtil.createHostConfiguration(httpClient, location, monitor);
 
 			int code;
 			if (openIdProvider != null) {
-				code = authenticateOpenIdService(openIdProvider, monitor);
+				code = authenticateOpenIdService(openIdProvider, hostConfiguration, monitor);
 				if (code == -1) {
 					continue;
 				}
 			} else if (credentials != null) {
 				// try form based authentication first
-				code = authenticateForm(credentials, monitor);
+				code = authenticateForm(credentials, hostConfiguration, monitor);
 				if (code == -1) {
 					continue;
 				} else if (code == HttpStatus.SC_NOT_FOUND) {
-					code = authenticateUserPassService(credentials, monitor);
+					code = authenticateUserPassService(credentials, hostConfiguration, monitor);
 					if (code == -1) {
 						continue;
 					} else if (code == HttpStatus.SC_NOT_FOUND) {
-						code = authenticateDevelopmentMode(credentials, monitor);
+						code = authenticateDevelopmentMode(credentials, hostConfiguration, monitor);
 						if (code == -1) {
 							continue;
 						}
@@ -474,9 +994,9 @@ public class GerritHttpClient {
 		return null;
 	}
 
-	private int authenticateOpenIdService(String openIdProvider, IProgressMonitor monitor) throws IOException,
-			GerritException {
-		JSonSupport json = new JSonSupport();
+	private int authenticateOpenIdService(String openIdProvider, HostConfiguration hostConfiguration,
+			IProgressMonitor monitor) throws IOException, GerritException {
+		JSonSupport json = JSonSupport.getDefault();
 
 		List<Object> args = new ArrayList<Object>(2);
 		args.add(openIdProvider);
@@ -553,9 +1073,9 @@ public class GerritHttpClient {
 		}
 	}
 
-	private int authenticateUserPassService(AuthenticationCredentials credentials, IProgressMonitor monitor)
-			throws IOException, GerritException {
-		JSonSupport json = new JSonSupport();
+	private int authenticateUserPassService(AuthenticationCredentials credentials, HostConfiguration hostConfiguration,
+			IProgressMonitor monitor) throws IOException, GerritException {
+		JSonSupport json = JSonSupport.getDefault();
 
 		List<Object> args = new ArrayList<Object>(2);
 		args.add(credentials.getUserName());
@@ -592,8 +1112,8 @@ public class GerritHttpClient {
 		}
 	}
 
-	private int authenticateDevelopmentMode(AuthenticationCredentials credentials, IProgressMonitor monitor)
-			throws IOException, GerritException {
+	private int authenticateDevelopmentMode(AuthenticationCredentials credentials, HostConfiguration hostConfiguration,
+			IProgressMonitor monitor) throws IOException, GerritException {
 		// try to detect if user name is user id, email or account id
 		String key;
 		if (credentials.getUserName().contains("@")) { //$NON-NLS-1$
@@ -639,8 +1159,8 @@ public class GerritHttpClient {
 		return HttpStatus.SC_NOT_FOUND;
 	}
 
-	private int authenticateForm(AuthenticationCredentials credentials, IProgressMonitor monitor) throws IOException,
-			GerritException {
+	private int authenticateForm(AuthenticationCredentials credentials, HostConfiguration hostConfiguration,
+			IProgressMonitor monitor) throws IOException, GerritException {
 		// try standard basic/digest/ntlm authentication first
 		String repositoryUrl = getUrl();
 		AuthScope authScope = new AuthScope(WebUtil.getHost(repositoryUrl), WebUtil.getPort(repositoryUrl), null,
@@ -691,10 +1211,6 @@ public class GerritHttpClient {
 		return new HttpMethodBase[] { post, get };
 	}
 
-	private synchronized boolean needsAuthentication() {
-		return (xsrfCookie == null || xsrfCookie.isExpired());
-	}
-
 	private boolean needsReauthentication(int code, IProgressMonitor monitor) throws IOException, GerritLoginException {
 		final AuthenticationType authenticationType;
 		if (code == HttpStatus.SC_UNAUTHORIZED || code == HttpStatus.SC_FORBIDDEN) {
@@ -716,8 +1232,6 @@ public class GerritHttpClient {
 		} catch (UnsupportedRequestException e) {
 			throw new GerritLoginException();
 		}
-
-		hostConfiguration = WebUtil.createHostConfiguration(httpClient, location, monitor);
 	}
 
 	protected void validateAuthenticationState(HttpClient httpClient) throws GerritLoginException {
@@ -739,29 +1253,45 @@ public class GerritHttpClient {
 	protected void sessionChanged(Cookie cookie) {
 	}
 
+	protected void xsrfKeyChanged(String xsrfKey) {
+	}
+
 	public boolean isAnonymous() {
 		return getLocation().getCredentials(AuthenticationType.REPOSITORY) == null && getOpenIdProvider() == null;
 	}
 
 	public Cookie getXsrfCookie() {
-		return xsrfCookie;
+		return session.cookie;
 	}
 
-	public void setXsrfCookie(Cookie xsrfCookie) {
-		Cookie oldCookie;
+	/**
+	 * Restores a persisted session and its XSRF key. Unlike {@link #setXsrfCookie(Cookie)} and
+	 * {@link #setXsrfKey(String)} listeners are not notified since the state has not changed.
+	 */
+	public void restoreSession(Cookie xsrfCookie, String xsrfKey) {
 		synchronized (this) {
-			oldCookie = this.xsrfCookie;
-			this.xsrfCookie = xsrfCookie;
-			if (xsrfCookie == null) {
-				this.obtainedXsrfKey = false;
+			session = new Session(xsrfCookie, xsrfKey, xsrfKey != null);
+			if (xsrfCookie != null) {
+				httpClient.getState().addCookie(xsrfCookie);
 			}
 		}
-		if (xsrfCookie != null) {
-			if (!xsrfCookie.equals(oldCookie)) {
-				httpClient.getState().addCookie(xsrfCookie);
+	}
+
+	public void setXsrfCookie(Cookie xsrfCookie) {
+		synchronized (this) {
+			Session oldSession = session;
+			// the XSRF key is bound to the session and needs to be obtained again for a new session
+			boolean sameSession = xsrfCookie != null && oldSession.cookie != null
+					&& xsrfCookie.getValue().equals(oldSession.cookie.getValue());
+			session = new Session(xsrfCookie, oldSession.xsrfKey, sameSession && oldSession.obtainedXsrfKey);
+			// keep the cookies of the http client consistent with the session
+			if (xsrfCookie != null) {
+				if (!xsrfCookie.equals(oldSession.cookie)) {
+					httpClient.getState().addCookie(xsrfCookie);
+				}
+			} else {
+				httpClient.getState().clear();
 			}
-		} else {
-			httpClient.getState().clear();
 		}
 		sessionChanged(xsrfCookie);
 	}
@@ -0,0 +1,231 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.internal.gerrit.core.client;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.ProgressMonitorWrapper;
+
+/**
+ * Coalesces identical requests that are in flight at the same time. The first caller for a key executes the request
+ * while callers that arrive before it has completed wait for its result. If the result is shared, every caller
+ * including the one that executed the request receives its own copy, see {@link Call#copy(Object)}. Copies are made
+ * on the thread of the receiving caller from a result that is never handed out itself.
+ * <p>
+ * The shared request is only cancelled when all waiting callers have cancelled. A caller that cancels stops waiting
+ * immediately, unless it is the caller executing the request in which case it returns as soon as the request has
+ * completed for the remaining callers.
+ */
+public class GerritRequestCoalescer {
+
+	/**
+	 * The request that is executed on behalf of all callers that share a key.
+	 */
+	public static abstract class Call<T> {
+
+		public abstract T call(IProgressMonitor monitor) throws GerritException;
+
+		/**
+		 * Returns a copy of <code>result</code> for a caller of a shared request. May be invoked concurrently for the
+		 * same result which must not be modified. Returns <code>result</code> by default which is only safe if results
+		 * are never modified.
+		 */
+		public T copy(T result) {
+			return result;
+		}
+
+	}
+
+	private static final long POLL_INTERVAL = 100;
+
+	private class Flight {
+
+		private final Object key;
+
+		private final Call<?> call;
+
+		private final List<IProgressMonitor> monitors = new ArrayList<IProgressMonitor>();
+
+		private final CountDownLatch done = new CountDownLatch(1);
+
+		private Object result;
+
+		private Throwable exception;
+
+		public Flight(Object key, Call<?> call) {
+			this.key = key;
+			this.call = call;
+		}
+
+		@SuppressWarnings("unchecked")
+		<T> T copyResult() {
+			return ((Call<T>) call).copy((T) result);
+		}
+
+		/**
+		 * Returns true, if every caller waiting for this flight has cancelled.
+		 */
+		public boolean isCanceled() {
+			synchronized (flights) {
+				for (IProgressMonitor monitor : monitors) {
+					if (monitor == null || !monitor.isCanceled()) {
+						return false;
+					}
+				}
+				return true;
+			}
+		}
+
+	}
+
+	/**
+	 * Reports progress of the shared request to the caller that executes it but only cancels the request when all
+	 * waiting callers have cancelled.
+	 */
+	private static class FlightMonitor extends ProgressMonitorWrapper {
+
+		private final Flight flight;
+
+		public FlightMonitor(Flight flight, IProgressMonitor monitor) {
+			super((monitor != null) ? monitor : new NullProgressMonitor());
+			this.flight = flight;
+		}
+
+		@Override
+		public boolean isCanceled() {
+			return flight.isCanceled();
+		}
+
+	}
+
+	private final Map<Object, Flight> flights = new HashMap<Object, Flight>();
+
+	/**
+	 * Executes <code>call</code> unless a request for the same <code>key</code> is already in flight in which case the
+	 * result of that request is returned.
+	 *
+	 * @param key
+	 *            identifies the request, if null the request is never shared
+	 * @param call
+	 *            the request
+	 * @param monitor
+	 *            the progress monitor of the caller, may be null
+	 * @return the result of the request
+	 * @throws OperationCanceledException
+	 *             if <code>monitor</code> was cancelled
+	 */
+	public <T> T execute(Object key, Call<T> call, IProgressMonitor monitor) throws GerritException {
+		if (key == null) {
+			return call.call(monitor);
+		}
+
+		while (true) {
+			Flight flight;
+			boolean owner = false;
+			synchronized (flights) {
+				flight = flights.get(key);
+				if (flight == null || flight.isCanceled()) {
+					// the existing flight, if any, has been abandoned by all callers and is about to fail
+					flight = new Flight(key, call);
+					flights.put(key, flight);
+					owner = true;
+				}
+				flight.monitors.add(monitor);
+			}
+
+			if (owner) {
+				return run(flight, call, monitor);
+			}
+
+			try {
+				return this.<T> await(flight, monitor);
+			} catch (OperationCanceledException e) {
+				if (monitor != null && monitor.isCanceled()) {
+					throw e;
+				}
+				// the flight was cancelled by the other callers before this caller joined, retry
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of distinct requests that are currently in flight.
+	 */
+	public int getInFlightCount() {
+		synchronized (flights) {
+			return flights.size();
+		}
+	}
+
+	private <T> T run(Flight flight, Call<T> call, IProgressMonitor monitor) throws GerritException {
+		T result = null;
+		try {
+			result = call.call(new FlightMonitor(flight, monitor));
+			flight.result = result;
+		} catch (Throwable e) {
+			flight.exception = e;
+		}
+
+		boolean shared;
+		synchronized (flights) {
+			if (flights.get(flight.key) == flight) {
+				flights.remove(flight.key);
+			}
+			shared = flight.monitors.size() > 1;
+		}
+		flight.done.countDown();
+
+		if (monitor != null && monitor.isCanceled()) {
+			throw new OperationCanceledException();
+		}
+		checkException(flight);
+		// callers may modify the result, if it is shared the original stays untouched while the waiting callers copy it
+		return (shared) ? flight.<T> copyResult() : result;
+	}
+
+	private <T> T await(Flight flight, IProgressMonitor monitor) throws GerritException {
+		try {
+			while (!flight.done.await(POLL_INTERVAL, TimeUnit.MILLISECONDS)) {
+				if (monitor != null && monitor.isCanceled()) {
+					throw new OperationCanceledException();
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new OperationCanceledException();
+		}
+		checkException(flight);
+		return flight.<T> copyResult();
+	}
+
+	private void checkException(Flight flight) throws GerritException {
+		Throwable exception = flight.exception;
+		if (exception instanceof GerritException) {
+			throw (GerritException) exception;
+		} else if (exception instanceof RuntimeException) {
+			throw (RuntimeException) exception;
+		} else if (exception instanceof Error) {
+			throw (Error) exception;
+		} else if (exception != null) {
+			throw new GerritException(exception);
+		}
+	}
+
+}
@@ -0,0 +1,297 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.internal.gerrit.core.client;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.Assert;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+
+/**
+ * Runs independent Gerrit requests on a bounded pool of worker threads. Results are returned in the order the tasks
+ * were submitted. Cancelling the progress monitor of the caller cancels all outstanding tasks.
+ * <p>
+ * Tasks that are submitted from one of the worker threads are run inline on that thread to avoid starving the pool
+ * when requests are nested.
+ */
+public class GerritRequestExecutor {
+
+	/**
+	 * A unit of work that is executed on a worker thread.
+	 */
+	public static abstract class Task<T> {
+
+		public abstract T execute(IProgressMonitor monitor) throws GerritException;
+
+	}
+
+	/**
+	 * Notified on the calling thread as soon as a task has completed successfully.
+	 */
+	public static abstract class TaskListener<T> {
+
+		public abstract void done(int index, T result);
+
+	}
+
+	/**
+	 * A monitor that is passed to worker threads. Only cancellation is propagated from the monitor of the caller since
+	 * progress is reported on the calling thread.
+	 */
+	private static class WorkerMonitor extends NullProgressMonitor {
+
+		private final IProgressMonitor parent;
+
+		public WorkerMonitor(IProgressMonitor parent) {
+			this.parent = parent;
+		}
+
+		@Override
+		public boolean isCanceled() {
+			return super.isCanceled() || (parent != null && parent.isCanceled());
+		}
+
+	}
+
+	public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 4;
+
+	private static final long POLL_INTERVAL = 100;
+
+	private static final AtomicInteger poolNumber = new AtomicInteger(1);
+
+	private static final ThreadLocal<GerritRequestExecutor> currentExecutor = new ThreadLocal<GerritRequestExecutor>();
+
+	private final ThreadPoolExecutor executor;
+
+	private final int maxConcurrentRequests;
+
+	public GerritRequestExecutor(int maxConcurrentRequests) {
+		Assert.isLegal(maxConcurrentRequests > 0, "maxConcurrentRequests must be greater than 0"); //$NON-NLS-1$
+		this.maxConcurrentRequests = maxConcurrentRequests;
+		final int pool = poolNumber.getAndIncrement();
+		this.executor = new ThreadPoolExecutor(maxConcurrentRequests, maxConcurrentRequests, 30, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+
+					private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+					public Thread newThread(Runnable runnable) {
+						Thread thread = new Thread(runnable,
+								"Gerrit Request Worker " + pool + "-" + threadNumber.getAndIncrement()); //$NON-NLS-1$ //$NON-NLS-2$
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+		this.executor.allowCoreThreadTimeOut(true);
+	}
+
+	public int getMaxConcurrentRequests() {
+		return maxConcurrentRequests;
+	}
+
+	public <T> List<T> execute(List<? extends Task<T>> tasks, IProgressMonitor monitor) throws GerritException {
+		return execute(tasks, null, monitor);
+	}
+
+	/**
+	 * Executes <code>tasks</code> concurrently and waits for all of them to complete.
+	 *
+	 * @param tasks
+	 *            the tasks to execute
+	 * @param listener
+	 *            notified on the calling thread in completion order, may be null
+	 * @param monitor
+	 *            the progress monitor of the caller, may be null
+	 * @return the results in the order of <code>tasks</code>
+	 * @throws GerritException
+	 *             the first failure of any task; all remaining tasks are cancelled
+	 * @throws OperationCanceledException
+	 *             if <code>monitor</code> was cancelled
+	 */
+	public <T> List<T> execute(List<? extends Task<T>> tasks, TaskListener<T> listener, IProgressMonitor monitor)
+			throws GerritException {
+		if (tasks.size() <= 1 || currentExecutor.get() == this || executor.isShutdown()) {
+			return executeInline(tasks, listener, monitor);
+		}
+
+		final WorkerMonitor workerMonitor = new WorkerMonitor(monitor);
+		CompletionService<T> completionService = new ExecutorCompletionService<T>(executor);
+		final List<Future<T>> futures = new ArrayList<Future<T>>(tasks.size());
+		final List<Future<T>> pending = new ArrayList<Future<T>>(tasks.size());
+		try {
+			for (Task<T> task : tasks) {
+				Future<T> future = completionService.submit(createCallable(task, workerMonitor));
+				futures.add(future);
+				pending.add(future);
+			}
+
+			while (!pending.isEmpty()) {
+				if (monitor != null && monitor.isCanceled()) {
+					throw new OperationCanceledException();
+				}
+				Future<T> future = completionService.poll(POLL_INTERVAL, TimeUnit.MILLISECONDS);
+				if (future != null) {
+					pending.remove(future);
+					T result = getResult(future);
+					if (listener != null) {
+						listener.done(futures.indexOf(future), result);
+					}
+				}
+			}
+
+			List<T> results = new ArrayList<T>(futures.size());
+			for (Future<T> future : futures) {
+				results.add(getResult(future));
+			}
+			return results;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new OperationCanceledException();
+		} finally {
+			if (!pending.isEmpty()) {
+				workerMonitor.setCanceled(true);
+				for (Future<T> future : pending) {
+					future.cancel(false);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Starts <code>task</code> in the background, e.g. to retrieve the next page of a result while the caller processes
+	 * the current page. If invoked from a worker thread, the task is run on the calling thread before this method
+	 * returns.
+	 *
+	 * @param monitor
+	 *            the progress monitor of the caller, may be null
+	 * @return a future for retrieving the result with {@link #getResult(Future, IProgressMonitor)}
+	 */
+	public <T> Future<T> submit(final Task<T> task, final IProgressMonitor monitor) {
+		if (currentExecutor.get() == this || executor.isShutdown()) {
+			FutureTask<T> future = new FutureTask<T>(new Callable<T>() {
+				public T call() throws Exception {
+					return task.execute(monitor);
+				}
+			});
+			future.run();
+			return future;
+		}
+		return executor.submit(createCallable(task, new WorkerMonitor(monitor)));
+	}
+
+	/**
+	 * Waits for the result of a task that was started by {@link #submit(Task, IProgressMonitor)}.
+	 *
+	 * @throws GerritException
+	 *             if the task failed
+	 * @throws OperationCanceledException
+	 *             if <code>monitor</code> was cancelled, the task is cancelled as well
+	 */
+	public <T> T getResult(Future<T> future, IProgressMonitor monitor) throws GerritException {
+		try {
+			while (true) {
+				if (monitor != null && monitor.isCanceled()) {
+					future.cancel(false);
+					throw new OperationCanceledException();
+				}
+				try {
+					return unwrap(future, POLL_INTERVAL);
+				} catch (TimeoutException e) {
+					// check for cancellation
+				}
+			}
+		} catch (InterruptedException e) {
+			future.cancel(false);
+			Thread.currentThread().interrupt();
+			throw new OperationCanceledException();
+		}
+	}
+
+	private <T> Callable<T> createCallable(final Task<T> task, final WorkerMonitor workerMonitor) {
+		return new Callable<T>() {
+			public T call() throws Exception {
+				currentExecutor.set(GerritRequestExecutor.this);
+				try {
+					if (workerMonitor.isCanceled()) {
+						throw new OperationCanceledException();
+					}
+					return task.execute(workerMonitor);
+				} finally {
+					currentExecutor.set(null);
+				}
+			}
+		};
+	}
+
+	private <T> List<T> executeInline(List<? extends Task<T>> tasks, TaskListener<T> listener,
+			IProgressMonitor monitor) throws GerritException {
+		List<T> results = new ArrayList<T>(tasks.size());
+		for (Task<T> task : tasks) {
+			if (monitor != null && monitor.isCanceled()) {
+				throw new OperationCanceledException();
+			}
+			T result = task.execute(monitor);
+			if (listener != null) {
+				listener.done(results.size(), result);
+			}
+			results.add(result);
+		}
+		return results;
+	}
+
+	private <T> T getResult(Future<T> future) throws GerritException, InterruptedException {
+		try {
+			return unwrap(future, -1);
+		} catch (TimeoutException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private <T> T unwrap(Future<T> future, long timeout) throws GerritException, InterruptedException,
+			TimeoutException {
+		try {
+			return (timeout < 0) ? future.get() : future.get(timeout, TimeUnit.MILLISECONDS);
+		} catch (CancellationException e) {
+			throw new OperationCanceledException();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof GerritException) {
+				throw (GerritException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new GerritException(cause);
+		}
+	}
+
+	public void dispose() {
+		executor.shutdownNow();
+	}
+
+}
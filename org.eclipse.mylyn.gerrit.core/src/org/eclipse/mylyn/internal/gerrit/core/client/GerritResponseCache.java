@@ -0,0 +1,517 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.internal.gerrit.core.client;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.httpclient.Header;
+import org.apache.commons.httpclient.HttpMethodBase;
+import org.eclipse.core.runtime.Assert;
+
+/**
+ * A persistent cache for responses that carry an <code>ETag</code> or <code>Last-Modified</code> validator. Cached
+ * responses are revalidated with a conditional request and served from disk when the server responds with
+ * <code>304 Not Modified</code>. The least recently used entries are evicted when the total size of all entries
+ * exceeds the configured limit.
+ */
+public class GerritResponseCache {
+
+	/**
+	 * A cached response.
+	 */
+	public static class Entry {
+
+		private final String key;
+
+		private final String etag;
+
+		private final String lastModified;
+
+		private final String charset;
+
+		private final File file;
+
+		private final long size;
+
+		Entry(String key, String etag, String lastModified, String charset, File file, long size) {
+			this.key = key;
+			this.etag = etag;
+			this.lastModified = lastModified;
+			this.charset = charset;
+			this.file = file;
+			this.size = size;
+		}
+
+		public String getKey() {
+			return key;
+		}
+
+		public String getEtag() {
+			return etag;
+		}
+
+		public String getLastModified() {
+			return lastModified;
+		}
+
+		public String getCharset() {
+			return charset;
+		}
+
+		public long getSize() {
+			return size;
+		}
+
+		/**
+		 * Adds the headers that make <code>method</code> a conditional request for this entry.
+		 */
+		public void addValidators(HttpMethodBase method) {
+			if (etag != null) {
+				method.setRequestHeader(IF_NONE_MATCH, etag);
+			}
+			if (lastModified != null) {
+				method.setRequestHeader(IF_MODIFIED_SINCE, lastModified);
+			}
+		}
+
+	}
+
+	/**
+	 * Writes a response body to the cache while it is being read.
+	 */
+	public class CachingInputStream extends FilterInputStream {
+
+		private DataOutputStream out;
+
+		private final Entry entry;
+
+		private final File tempFile;
+
+		private long length;
+
+		CachingInputStream(InputStream in, DataOutputStream out, Entry entry, File tempFile) {
+			super(in);
+			this.out = out;
+			this.entry = entry;
+			this.tempFile = tempFile;
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b = super.read();
+			if (b != -1) {
+				write(new byte[] { (byte) b }, 0, 1);
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int count = super.read(b, off, len);
+			if (count > 0) {
+				write(b, off, count);
+			}
+			return count;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			// read skipped content to store the complete response
+			byte[] buffer = new byte[(int) Math.min(n, BUFFER_SIZE)];
+			int count = read(buffer, 0, buffer.length);
+			return (count > 0) ? count : 0;
+		}
+
+		@Override
+		public boolean markSupported() {
+			return false;
+		}
+
+		/**
+		 * Reads the remaining response body and stores the response in the cache. Invoked after the response has been
+		 * processed successfully.
+		 */
+		public void commit() throws IOException {
+			if (out == null) {
+				return;
+			}
+			byte[] buffer = new byte[BUFFER_SIZE];
+			while (read(buffer, 0, buffer.length) != -1) {
+				// consume content
+			}
+			if (out != null) {
+				try {
+					out.close();
+				} catch (IOException e) {
+					discard();
+					return;
+				}
+				out = null;
+				store(entry, tempFile);
+			}
+		}
+
+		/**
+		 * Closes the response body and discards the response unless it has been committed.
+		 */
+		@Override
+		public void close() throws IOException {
+			try {
+				discard();
+			} finally {
+				super.close();
+			}
+		}
+
+		private void write(byte[] b, int off, int len) {
+			if (out == null) {
+				return;
+			}
+			length += len;
+			if (length > maxSize) {
+				discard();
+				return;
+			}
+			try {
+				out.write(b, off, len);
+			} catch (IOException e) {
+				discard();
+			}
+		}
+
+		private void discard() {
+			if (out != null) {
+				closeQuietly(out);
+				out = null;
+				tempFile.delete();
+			}
+		}
+
+	}
+
+	public static final long DEFAULT_MAX_SIZE = 16 * 1024 * 1024;
+
+	private static final String ETAG = "ETag"; //$NON-NLS-1$
+
+	private static final String LAST_MODIFIED = "Last-Modified"; //$NON-NLS-1$
+
+	private static final String IF_NONE_MATCH = "If-None-Match"; //$NON-NLS-1$
+
+	private static final String IF_MODIFIED_SINCE = "If-Modified-Since"; //$NON-NLS-1$
+
+	private static final String FILE_EXTENSION = ".response"; //$NON-NLS-1$
+
+	private static final int FORMAT_VERSION = 1;
+
+	private static final int BUFFER_SIZE = 8192;
+
+	private final File directory;
+
+	private final long maxSize;
+
+	private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+
+	private long size;
+
+	private boolean loaded;
+
+	private final AtomicLong hitCount = new AtomicLong();
+
+	private final AtomicLong missCount = new AtomicLong();
+
+	private final AtomicLong evictionCount = new AtomicLong();
+
+	public GerritResponseCache(File directory, long maxSize) {
+		Assert.isNotNull(directory);
+		Assert.isLegal(maxSize > 0, "maxSize must be greater than 0"); //$NON-NLS-1$
+		this.directory = directory;
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Returns the entry for <code>key</code> or null if the response has not been cached.
+	 */
+	public synchronized Entry get(String key) {
+		load();
+		return entries.get(key);
+	}
+
+	/**
+	 * Opens the cached response body of <code>entry</code>.
+	 *
+	 * @throws IOException
+	 *             if the entry has been evicted or cannot be read
+	 */
+	public InputStream getContent(Entry entry) throws IOException {
+		DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(entry.file)));
+		try {
+			readHeader(in);
+		} catch (IOException e) {
+			in.close();
+			throw e;
+		}
+		entry.file.setLastModified(System.currentTimeMillis());
+		return in;
+	}
+
+	/**
+	 * Returns true if <code>method</code> carries a validator that allows the response to be revalidated later.
+	 */
+	public boolean isCacheable(HttpMethodBase method) {
+		return method.getResponseHeader(ETAG) != null || method.getResponseHeader(LAST_MODIFIED) != null;
+	}
+
+	/**
+	 * Returns a stream that reads the response body of <code>method</code> from <code>in</code> and writes it to the
+	 * cache at the same time. The response is only stored when {@link CachingInputStream#commit()} is invoked.
+	 * Responses that exceed the size of the cache are not stored.
+	 */
+	public CachingInputStream put(String key, HttpMethodBase method, InputStream in) {
+		String etag = getHeaderValue(method, ETAG);
+		String lastModified = getHeaderValue(method, LAST_MODIFIED);
+		String charset = method.getResponseCharSet();
+
+		File file = new File(directory, getFileName(key));
+		File tempFile = new File(directory, file.getName() + "." + Thread.currentThread().getId() + ".tmp"); //$NON-NLS-1$ //$NON-NLS-2$
+		synchronized (this) {
+			load();
+			directory.mkdirs();
+		}
+		DataOutputStream out = null;
+		try {
+			out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+			writeHeader(out, key, etag, lastModified, charset);
+		} catch (IOException e) {
+			closeQuietly(out);
+			tempFile.delete();
+			out = null;
+		}
+		return new CachingInputStream(in, out, new Entry(key, etag, lastModified, charset, file, 0), tempFile);
+	}
+
+	private synchronized void store(Entry entry, File tempFile) {
+		Entry previous = entries.remove(entry.key);
+		if (previous != null) {
+			size -= previous.size;
+		}
+		entry.file.delete();
+		if (!tempFile.renameTo(entry.file)) {
+			tempFile.delete();
+			return;
+		}
+		entry = new Entry(entry.key, entry.etag, entry.lastModified, entry.charset, entry.file, entry.file.length());
+		entries.put(entry.key, entry);
+		size += entry.size;
+		evict();
+	}
+
+	public synchronized void remove(String key) {
+		load();
+		Entry entry = entries.remove(key);
+		if (entry != null) {
+			size -= entry.size;
+			entry.file.delete();
+		}
+	}
+
+	public synchronized void clear() {
+		load();
+		for (Entry entry : entries.values()) {
+			entry.file.delete();
+		}
+		entries.clear();
+		size = 0;
+	}
+
+	void recordHit() {
+		hitCount.incrementAndGet();
+	}
+
+	void recordMiss() {
+		missCount.incrementAndGet();
+	}
+
+	/**
+	 * Returns the number of requests that were served from the cache after the server confirmed the cached response.
+	 */
+	public long getHitCount() {
+		return hitCount.get();
+	}
+
+	/**
+	 * Returns the number of cacheable requests that required the full response to be downloaded.
+	 */
+	public long getMissCount() {
+		return missCount.get();
+	}
+
+	public long getEvictionCount() {
+		return evictionCount.get();
+	}
+
+	public synchronized int getEntryCount() {
+		load();
+		return entries.size();
+	}
+
+	/**
+	 * Returns the total size of all cached entries in bytes.
+	 */
+	public synchronized long getSize() {
+		load();
+		return size;
+	}
+
+	public long getMaxSize() {
+		return maxSize;
+	}
+
+	public File getDirectory() {
+		return directory;
+	}
+
+	private void evict() {
+		Iterator<Entry> it = entries.values().iterator();
+		while (size > maxSize && it.hasNext()) {
+			Entry entry = it.next();
+			it.remove();
+			size -= entry.size;
+			entry.file.delete();
+			evictionCount.incrementAndGet();
+		}
+	}
+
+	private void load() {
+		if (loaded) {
+			return;
+		}
+		loaded = true;
+
+		File[] files = directory.listFiles();
+		if (files == null) {
+			return;
+		}
+		// restore the access order from the time stamps that are updated on every cache hit
+		Arrays.sort(files, new Comparator<File>() {
+			public int compare(File f1, File f2) {
+				long m1 = f1.lastModified();
+				long m2 = f2.lastModified();
+				return (m1 < m2) ? -1 : ((m1 == m2) ? 0 : 1);
+			}
+		});
+		for (File file : files) {
+			if (!file.getName().endsWith(FILE_EXTENSION)) {
+				if (file.getName().endsWith(".tmp")) { //$NON-NLS-1$
+					file.delete();
+				}
+				continue;
+			}
+			try {
+				DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+				try {
+					Entry entry = readHeader(in);
+					entry = new Entry(entry.key, entry.etag, entry.lastModified, entry.charset, file, file.length());
+					entries.put(entry.key, entry);
+					size += entry.size;
+				} finally {
+					in.close();
+				}
+			} catch (IOException e) {
+				// corrupt or incompatible entry
+				file.delete();
+			}
+		}
+		evict();
+	}
+
+	private static void writeHeader(DataOutputStream out, String key, String etag, String lastModified, String charset)
+			throws IOException {
+		out.writeInt(FORMAT_VERSION);
+		out.writeUTF(key);
+		writeOptionalString(out, etag);
+		writeOptionalString(out, lastModified);
+		writeOptionalString(out, charset);
+	}
+
+	private static Entry readHeader(DataInputStream in) throws IOException {
+		if (in.readInt() != FORMAT_VERSION) {
+			throw new IOException("Unsupported cache entry format"); //$NON-NLS-1$
+		}
+		String key = in.readUTF();
+		String etag = readOptionalString(in);
+		String lastModified = readOptionalString(in);
+		String charset = readOptionalString(in);
+		return new Entry(key, etag, lastModified, charset, null, 0);
+	}
+
+	private static void writeOptionalString(DataOutputStream out, String value) throws IOException {
+		out.writeBoolean(value != null);
+		if (value != null) {
+			out.writeUTF(value);
+		}
+	}
+
+	private static String readOptionalString(DataInputStream in) throws IOException {
+		return (in.readBoolean()) ? in.readUTF() : null;
+	}
+
+	private static void closeQuietly(OutputStream out) {
+		if (out != null) {
+			try {
+				out.close();
+			} catch (IOException e) {
+				// ignore
+			}
+		}
+	}
+
+	private static String getHeaderValue(HttpMethodBase method, String name) {
+		Header header = method.getResponseHeader(name);
+		return (header != null) ? header.getValue() : null;
+	}
+
+	private static String getFileName(String key) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-1"); //$NON-NLS-1$
+			byte[] hash = digest.digest(key.getBytes("UTF-8")); //$NON-NLS-1$
+			StringBuilder sb = new StringBuilder(hash.length * 2 + FILE_EXTENSION.length());
+			for (byte b : hash) {
+				sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+				sb.append(Character.forDigit(b & 0xF, 16));
+			}
+			return sb.append(FILE_EXTENSION).toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		} catch (UnsupportedEncodingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
@@ -83,7 +83,7 @@ public class GerritService implements InvocationHandler {
 	}
 
 	public Object invoke(Object proxy, final Method method, Object[] args) {
-		final JSonSupport json = new JSonSupport();
+		final JSonSupport json = JSonSupport.getDefault();
 
 		// construct request
 		final List<Object> parameters = new ArrayList<Object>(args.length - 1);
@@ -97,8 +97,12 @@ public class GerritService implements InvocationHandler {
 			GerritRequest request = GerritRequest.getCurrentRequest();
 			IProgressMonitor monitor = (request != null) ? request.getMonitor() : null;
 
+			// the last parameter is a parameterized callback that defines the return type
+			Type[] types = method.getGenericParameterTypes();
+			final Type resultType = ((ParameterizedType) types[types.length - 1]).getActualTypeArguments()[0];
+
 			// execute request
-			String responseMessage = client.postJsonRequest(getServiceUri(), new JsonEntity() {
+			Object result = client.postJsonRequest(getServiceUri(), new JsonEntity() {
 				@Override
 				public String getContent() {
 					String methodName = method.getName();
@@ -107,13 +111,7 @@ public class GerritService implements InvocationHandler {
 					}
 					return json.createRequest(client.getId(), client.getXsrfKey(), methodName, parameters);
 				}
-			}, monitor);
-
-			// the last parameter is a parameterized callback that defines the return type
-			Type[] types = method.getGenericParameterTypes();
-			final Type resultType = ((ParameterizedType) types[types.length - 1]).getActualTypeArguments()[0];
-
-			Object result = json.parseJsonResponse(responseMessage, resultType);
+			}, resultType, monitor);
 			callback.onSuccess(result);
 		} catch (Throwable e) {
 			callback.onFailure(e);
@@ -13,6 +13,11 @@
 
 package org.eclipse.mylyn.internal.gerrit.core.client;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PushbackReader;
+import java.io.Reader;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -39,14 +44,31 @@ import com.google.gson.JsonDeserializer;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSerializationContext;
+import com.google.gson.JsonSerializer;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
 import com.google.gwtjsonrpc.server.JsonServlet;
 
 /**
+ * Encodes and decodes Json messages exchanged with Gerrit. Instances are thread-safe and should be shared through
+ * {@link #getDefault()} since the type adapters that are resolved for a {@link Gson} instance are cached.
+ * 
  * @author Steffen Pingel
  */
 public class JSonSupport {
 
+	private static final JSonSupport INSTANCE = new JSonSupport();
+
+	/**
+	 * Returns the shared instance. None of the registered type adapters depend on the Gerrit version, so a single
+	 * instance serves all repositories.
+	 */
+	public static JSonSupport getDefault() {
+		return INSTANCE;
+	}
+
 	/**
 	 * Parses a Json response.
 	 */
@@ -63,6 +85,75 @@ public class JSonSupport {
 		}
 	}
 
+	/**
+	 * Encodes edits in the array format that is used by Gerrit.
+	 */
+	private static class EditAdapter implements JsonSerializer<Edit>, JsonDeserializer<Edit> {
+
+		public Edit deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context)
+				throws JsonParseException {
+			if (json.isJsonArray()) {
+				JsonArray array = json.getAsJsonArray();
+				if (array.size() == 4) {
+					return new Edit(array.get(0).getAsInt(), array.get(1).getAsInt(), array.get(2).getAsInt(), array
+							.get(3).getAsInt());
+				}
+			}
+			return new Edit(0, 0);
+		}
+
+		public JsonElement serialize(Edit src, Type typeOfSrc, JsonSerializationContext context) {
+			JsonArray array = new JsonArray();
+			array.add(new JsonPrimitive(src.getBeginA()));
+			array.add(new JsonPrimitive(src.getEndA()));
+			array.add(new JsonPrimitive(src.getBeginB()));
+			array.add(new JsonPrimitive(src.getEndB()));
+			return array;
+		}
+
+	}
+
+	/**
+	 * Encodes approval maps as a list of alternating keys and values.
+	 */
+	private static class ApprovalMapAdapter implements JsonSerializer<Map<Id, PatchSetApproval>>,
+			JsonDeserializer<Map<Id, PatchSetApproval>> {
+
+		public Map<Id, PatchSetApproval> deserialize(JsonElement json, Type typeOfT,
+				JsonDeserializationContext context) throws JsonParseException {
+			// Gerrit 2.2: the type of PatchSetPublishDetail.given changed from a map to a list
+			Map<Id, PatchSetApproval> map = new HashMap<ApprovalCategory.Id, PatchSetApproval>();
+			if (json.isJsonArray()) {
+				JsonArray array = json.getAsJsonArray();
+				for (Iterator<JsonElement> it = array.iterator(); it.hasNext();) {
+					JsonElement element = it.next();
+					Id key = context.deserialize(element, Id.class);
+					if (key.get() != null) {
+						// Gerrit < 2.1.x: json is map
+						element = it.next();
+					}
+					PatchSetApproval value = context.deserialize(element, PatchSetApproval.class);
+					if (key.get() == null) {
+						// Gerrit 2.2: json is a list, deduct key from value
+						key = value.getCategoryId();
+					}
+					map.put(key, value);
+				}
+			}
+			return map;
+		}
+
+		public JsonElement serialize(Map<Id, PatchSetApproval> src, Type typeOfSrc, JsonSerializationContext context) {
+			JsonArray array = new JsonArray();
+			for (Map.Entry<Id, PatchSetApproval> entry : src.entrySet()) {
+				array.add(context.serialize(entry.getKey(), Id.class));
+				array.add(context.serialize(entry.getValue(), PatchSetApproval.class));
+			}
+			return array;
+		}
+
+	}
+
 	static class JSonError {
 
 		int code;
@@ -96,7 +187,34 @@ public class JSonSupport {
 
 	}
 
-	private Gson gson;
+	/**
+	 * A Json-RPC response that has been decoded from a stream.
+	 */
+	static class JSonRpcResult {
+
+		JSonError error;
+
+		Object result;
+
+		@SuppressWarnings("unchecked")
+		<T> T getResult() throws GerritException {
+			if (error != null) {
+				throw new GerritException(error.message, error.code);
+			}
+			return (T) result;
+		}
+
+	}
+
+	/**
+	 * Gerrit 2.5 and later prepend Json output with this prefix, see
+	 * http://code.google.com/p/gerrit/issues/detail?id=1648.
+	 */
+	private static final String XSSI_PREFIX = ")]}'"; //$NON-NLS-1$
+
+	private static final String DEFAULT_CHARSET = "UTF-8"; //$NON-NLS-1$
+
+	private final Gson gson;
 
 	public JSonSupport() {
 		TypeToken<Map<Id, PatchSetApproval>> approvalMapType = new TypeToken<Map<ApprovalCategory.Id, PatchSetApproval>>() {
@@ -125,19 +243,7 @@ public class JSonSupport {
 		};
 		gson = JsonServlet.defaultGsonBuilder()
 				.registerTypeAdapter(JSonResponse.class, new JSonResponseDeserializer())
-				.registerTypeAdapter(Edit.class, new JsonDeserializer<Edit>() {
-					public Edit deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context)
-							throws JsonParseException {
-						if (json.isJsonArray()) {
-							JsonArray array = json.getAsJsonArray();
-							if (array.size() == 4) {
-								return new Edit(array.get(0).getAsInt(), array.get(1).getAsInt(), array.get(2)
-										.getAsInt(), array.get(3).getAsInt());
-							}
-						}
-						return new Edit(0, 0);
-					}
-				})
+				.registerTypeAdapter(Edit.class, new EditAdapter())
 				// ignore GerritForge specific AuthType "TEAMFORGE" which is unknown to Gerrit
 				.registerTypeAdapter(AuthType.class, new JsonDeserializer<AuthType>() {
 
@@ -156,33 +262,7 @@ public class JSonSupport {
 						return null;
 					}
 				})
-				.registerTypeAdapter(approvalMapType.getType(), new JsonDeserializer<Map<Id, PatchSetApproval>>() {
-
-					@Override
-					public Map<Id, PatchSetApproval> deserialize(JsonElement json, Type typeOfT,
-							JsonDeserializationContext context) throws JsonParseException {
-						// Gerrit 2.2: the type of PatchSetPublishDetail.given changed from a map to a list
-						Map<Id, PatchSetApproval> map = new HashMap<ApprovalCategory.Id, PatchSetApproval>();
-						if (json.isJsonArray()) {
-							JsonArray array = json.getAsJsonArray();
-							for (Iterator<JsonElement> it = array.iterator(); it.hasNext();) {
-								JsonElement element = it.next();
-								Id key = context.deserialize(element, Id.class);
-								if (key.get() != null) {
-									// Gerrit < 2.1.x: json is map
-									element = it.next();
-								}
-								PatchSetApproval value = context.deserialize(element, PatchSetApproval.class);
-								if (key.get() == null) {
-									// Gerrit 2.2: json is a list, deduct key from value
-									key = value.getCategoryId();
-								}
-								map.put(key, value);
-							}
-						}
-						return map;
-					}
-				})
+				.registerTypeAdapter(approvalMapType.getType(), new ApprovalMapAdapter())
 				.setExclusionStrategies(exclustionStrategy)
 				.create();
 	}
@@ -222,7 +302,75 @@ public class JSonSupport {
 		return gson.fromJson(responseMessage, resultType);
 	}
 
+	/**
+	 * Decodes a Json-RPC response directly from <code>in</code> without buffering the response body. The caller is
+	 * responsible for closing <code>in</code>.
+	 */
+	JSonRpcResult parseJsonResponse(InputStream in, String charset, Type resultType) throws IOException {
+		JsonReader reader = createReader(in, charset);
+		JSonRpcResult response = new JSonRpcResult();
+		reader.beginObject();
+		while (reader.hasNext()) {
+			String name = reader.nextName();
+			if ("result".equals(name)) { //$NON-NLS-1$
+				response.result = gson.fromJson(reader, resultType);
+			} else if ("error".equals(name)) { //$NON-NLS-1$
+				response.error = gson.fromJson(reader, JSonError.class);
+			} else {
+				reader.skipValue();
+			}
+		}
+		reader.endObject();
+		return response;
+	}
+
+	/**
+	 * Decodes a Json response directly from <code>in</code> without buffering the response body. The caller is
+	 * responsible for closing <code>in</code>.
+	 */
+	public <T> T parseResponse(InputStream in, String charset, Type resultType) throws IOException {
+		Assert.isLegal(in != null);
+
+		return gson.<T> fromJson(createReader(in, charset), resultType);
+	}
+
+	private JsonReader createReader(InputStream in, String charset) throws IOException {
+		Reader reader = new InputStreamReader(in, (charset != null) ? charset : DEFAULT_CHARSET);
+		return new JsonReader(skipXssiPrefix(reader));
+	}
+
+	/**
+	 * Consumes the XSSI prefix if present. The line break that follows the prefix is skipped by the Json reader.
+	 */
+	private Reader skipXssiPrefix(Reader reader) throws IOException {
+		PushbackReader pushbackReader = new PushbackReader(reader, XSSI_PREFIX.length());
+		char[] prefix = new char[XSSI_PREFIX.length()];
+		int length = 0;
+		while (length < prefix.length) {
+			int count = pushbackReader.read(prefix, length, prefix.length - length);
+			if (count == -1) {
+				break;
+			}
+			length += count;
+		}
+		if (length < prefix.length || !XSSI_PREFIX.equals(new String(prefix))) {
+			pushbackReader.unread(prefix, 0, length);
+		}
+		return pushbackReader;
+	}
+
 	public String toJson(Object src) {
 		return gson.toJson(src);
 	}
+
+	/**
+	 * Returns a deep copy of <code>src</code> that is created by encoding and decoding <code>src</code> as
+	 * <code>type</code>.
+	 */
+	public <T> T copy(T src, Type type) {
+		if (src == null) {
+			return null;
+		}
+		return gson.<T> fromJson(gson.toJsonTree(src, type), type);
+	}
 }
@@ -11,8 +11,8 @@
 
 package org.eclipse.mylyn.internal.gerrit.core.client;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.mylyn.internal.gerrit.core.client.compat.PatchScriptX;
 
@@ -48,7 +48,7 @@ public class PatchSetContent {
 	public PatchSetContent(PatchSet base, PatchSetDetail targetDetail) {
 		this.base = base;
 		this.targetDetail = targetDetail;
-		this.patchScriptByPatchKey = new HashMap<Patch.Key, PatchScriptX>();
+		this.patchScriptByPatchKey = new ConcurrentHashMap<Patch.Key, PatchScriptX>();
 	}
 
 	/**
@@ -61,7 +61,7 @@ public class PatchSetContent {
 	public PatchSetContent(PatchSet base, PatchSet target) {
 		this.base = base;
 		this.target = target;
-		this.patchScriptByPatchKey = new HashMap<Patch.Key, PatchScriptX>();
+		this.patchScriptByPatchKey = new ConcurrentHashMap<Patch.Key, PatchScriptX>();
 	}
 
 	public PatchSet getBase() {
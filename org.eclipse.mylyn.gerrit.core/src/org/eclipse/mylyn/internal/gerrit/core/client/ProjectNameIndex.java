@@ -0,0 +1,210 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.internal.gerrit.core.client;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.eclipse.core.runtime.Assert;
+
+import com.google.gerrit.reviewdb.Project;
+
+/**
+ * An immutable index of project names that supports case-insensitive substring lookups. Names that start with the
+ * searched text are found through a sorted array, all other matches through a trigram index.
+ *
+ * @see GerritConfiguration#getProjectNameIndex()
+ */
+public class ProjectNameIndex {
+
+	private static final int GRAM_LENGTH = 3;
+
+	private static final int[] NO_POSTINGS = new int[0];
+
+	private final String[] names;
+
+	private final String[] lowerCaseNames;
+
+	/**
+	 * Indices into {@link #names} ordered by lower case name.
+	 */
+	private final Integer[] sorted;
+
+	/**
+	 * Maps each trigram to the ascending indices of the names that contain it.
+	 */
+	private final Map<String, int[]> trigrams;
+
+	public ProjectNameIndex(List<Project> projects) {
+		Assert.isNotNull(projects);
+		int size = projects.size();
+		names = new String[size];
+		lowerCaseNames = new String[size];
+		sorted = new Integer[size];
+		for (int i = 0; i < size; i++) {
+			names[i] = projects.get(i).getName();
+			lowerCaseNames[i] = names[i].toLowerCase(Locale.ENGLISH);
+			sorted[i] = i;
+		}
+		Arrays.sort(sorted, new Comparator<Integer>() {
+			public int compare(Integer i1, Integer i2) {
+				return lowerCaseNames[i1].compareTo(lowerCaseNames[i2]);
+			}
+		});
+		trigrams = buildTrigrams(lowerCaseNames);
+	}
+
+	public int size() {
+		return names.length;
+	}
+
+	/**
+	 * Returns true, if the index contains a project with exactly <code>name</code>.
+	 */
+	public boolean contains(String name) {
+		Assert.isNotNull(name);
+		String lowerCaseName = name.toLowerCase(Locale.ENGLISH);
+		for (int i = lowerBound(lowerCaseName); i < sorted.length
+				&& lowerCaseNames[sorted[i]].equals(lowerCaseName); i++) {
+			if (names[sorted[i]].equals(name)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the names of all projects that contain <code>text</code> ignoring case. Names that start with
+	 * <code>text</code> are ranked first, followed by names that have a path segment starting with <code>text</code>,
+	 * followed by all other matches.
+	 */
+	public List<String> find(String text) {
+		Assert.isNotNull(text);
+		String query = text.toLowerCase(Locale.ENGLISH);
+		if (query.length() == 0) {
+			return Arrays.asList(names);
+		}
+
+		boolean[] matched = new boolean[names.length];
+		List<String> result = new ArrayList<String>();
+		for (int i = lowerBound(query); i < sorted.length && lowerCaseNames[sorted[i]].startsWith(query); i++) {
+			matched[sorted[i]] = true;
+			result.add(names[sorted[i]]);
+		}
+
+		List<String> otherMatches = new ArrayList<String>();
+		int[] candidates = getCandidates(query);
+		int count = (candidates != null) ? candidates.length : names.length;
+		for (int c = 0; c < count; c++) {
+			int i = (candidates != null) ? candidates[c] : c;
+			if (matched[i]) {
+				continue;
+			}
+			int index = lowerCaseNames[i].indexOf(query);
+			if (index == -1) {
+				continue;
+			}
+			if (isSegmentStart(lowerCaseNames[i], query, index)) {
+				result.add(names[i]);
+			} else {
+				otherMatches.add(names[i]);
+			}
+		}
+		result.addAll(otherMatches);
+		return result;
+	}
+
+	/**
+	 * Returns the indices of the names that contain all trigrams of <code>query</code> or null, if the query is too
+	 * short to use the trigram index.
+	 */
+	private int[] getCandidates(String query) {
+		if (query.length() < GRAM_LENGTH) {
+			return null;
+		}
+		// the shortest posting list is a superset of all matches, candidates are verified by the caller
+		int[] candidates = null;
+		for (int i = 0; i + GRAM_LENGTH <= query.length(); i++) {
+			int[] postings = trigrams.get(query.substring(i, i + GRAM_LENGTH));
+			if (postings == null) {
+				return NO_POSTINGS;
+			}
+			if (candidates == null || postings.length < candidates.length) {
+				candidates = postings;
+			}
+		}
+		return candidates;
+	}
+
+	/**
+	 * Returns the first position in {@link #sorted} whose name is not less than <code>key</code>.
+	 */
+	private int lowerBound(String key) {
+		int low = 0;
+		int high = sorted.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (lowerCaseNames[sorted[mid]].compareTo(key) < 0) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	private static boolean isSegmentStart(String name, String query, int index) {
+		do {
+			char c = name.charAt(index - 1);
+			if (c == '/' || c == '-' || c == '_' || c == '.') {
+				return true;
+			}
+			index = name.indexOf(query, index + 1);
+		} while (index != -1);
+		return false;
+	}
+
+	private static Map<String, int[]> buildTrigrams(String[] lowerCaseNames) {
+		Map<String, List<Integer>> postings = new HashMap<String, List<Integer>>();
+		for (int i = 0; i < lowerCaseNames.length; i++) {
+			String name = lowerCaseNames[i];
+			for (int j = 0; j + GRAM_LENGTH <= name.length(); j++) {
+				String gram = name.substring(j, j + GRAM_LENGTH);
+				List<Integer> list = postings.get(gram);
+				if (list == null) {
+					list = new ArrayList<Integer>();
+					postings.put(gram, list);
+				}
+				// names are visited in ascending order, skip duplicate grams within the same name
+				if (list.isEmpty() || list.get(list.size() - 1) != i) {
+					list.add(i);
+				}
+			}
+		}
+		Map<String, int[]> result = new HashMap<String, int[]>(postings.size() * 4 / 3 + 1);
+		for (Map.Entry<String, List<Integer>> entry : postings.entrySet()) {
+			List<Integer> list = entry.getValue();
+			int[] array = new int[list.size()];
+			for (int i = 0; i < array.length; i++) {
+				array[i] = list.get(i);
+			}
+			result.put(entry.getKey(), array);
+		}
+		return result;
+	}
+
+}
@@ -53,6 +53,9 @@ public class GerritQueryResult {
 	// Labels
 	private GerritReviewLabel labels;
 
+	// set on the last result of a page if the query returned more changes than the server limit
+	private boolean _more_changes;
+
 	public GerritQueryResult(ChangeInfo changeInfo) {
 		setNumber(changeInfo.getId().get());
 		setId(changeInfo.getKey().get());
@@ -112,6 +115,14 @@ public class GerritQueryResult {
 		return starred;
 	}
 
+	/**
+	 * Returns true, if this is the last result of a truncated page and further results can be retrieved by skipping
+	 * the results that have been received so far.
+	 */
+	public boolean hasMoreChanges() {
+		return _more_changes;
+	}
+
 	public GerritReviewLabel getReviewLabel() {
 		return labels;
 	}
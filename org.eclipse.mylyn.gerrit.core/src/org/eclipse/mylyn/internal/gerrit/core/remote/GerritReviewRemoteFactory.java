@@ -84,7 +84,8 @@ public class GerritReviewRemoteFactory extends ReviewRemoteFactory<GerritChange,
 
 	@Override
 	public boolean isPullNeeded(IRepository parent, IReview review, GerritChange remote) {
-		//We don't know if we need a pull until we actually retrieve the data
+		//We don't know if we need a pull until we actually retrieve the data, REST responses that have not changed are
+		//revalidated with conditional requests and served from the response cache of the client
 		return true;
 	}
 
@@ -94,53 +95,64 @@ public class GerritReviewRemoteFactory extends ReviewRemoteFactory<GerritChange,
 			getGerritProvider().getClient().refreshConfigOnce(new NullProgressMonitor());
 
 			GerritChange gerritChange = getGerritProvider().getClient().getChange(remoteKey, monitor);
-			final ChangeDetailX detail = gerritChange.getChangeDetail();
 
+			//Users are pulled in a single model execution rather than one per user
+			getGerritProvider().beginBatch();
 			try {
-				getGerritProvider().pullUser(parent, detail.getAccounts(),
-						getGerritProvider().getClient().getAccount(monitor).getId(), monitor);
-			} catch (GerritException e) {
-				//We can't have a user if we aren't signed in!
-				if (!getGerritProvider().getClient().isNotSignedInException(e)) {
-					throw e;
-				}
+				pullUsers(parent, gerritChange, monitor);
+			} finally {
+				getGerritProvider().endBatch();
 			}
+			return gerritChange;
+		} catch (GerritException e) {
+			throw GerritCorePlugin.getDefault()
+					.getConnector()
+					.toCoreException(parent.getTaskRepository(), "Problem while retrieving Gerrit review.", e); //$NON-NLS-1$
+		}
+	}
 
-			//We need to ensure we have all possible users for review in pull phase, as we can't do any async calls in apply phase
-			getGerritProvider().pullUser(parent, detail.getAccounts(), detail.getChange().getOwner(), monitor);
-			for (ChangeMessage message : detail.getMessages()) {
-				if (message.getAuthor() != null) {
-					getGerritProvider().pullUser(parent, detail.getAccounts(), message.getAuthor(), monitor);
-				}
-			}
-			for (PatchSetDetail patchSetDetail : gerritChange.getPatchSetDetails()) {
-				getGerritProvider().pullUser(parent, detail.getAccounts(),
-						patchSetDetail.getInfo().getAuthor().getAccount(), monitor);
-				getGerritProvider().pullUser(parent, detail.getAccounts(),
-						patchSetDetail.getInfo().getCommitter().getAccount(), monitor);
+	private void pullUsers(IRepository parent, GerritChange gerritChange, IProgressMonitor monitor)
+			throws GerritException, CoreException {
+		ChangeDetailX detail = gerritChange.getChangeDetail();
+		try {
+			getGerritProvider().pullUser(parent, detail.getAccounts(),
+					getGerritProvider().getClient().getAccount(monitor).getId(), monitor);
+		} catch (GerritException e) {
+			//We can't have a user if we aren't signed in!
+			if (!getGerritProvider().getClient().isNotSignedInException(e)) {
+				throw e;
 			}
-			for (ApprovalDetail remoteApproval : detail.getApprovals()) {
-				getGerritProvider().pullUser(parent, detail.getAccounts(), remoteApproval.getAccount(), monitor);
+		}
+
+		//We need to ensure we have all possible users for review in pull phase, as we can't do any async calls in apply phase
+		getGerritProvider().pullUser(parent, detail.getAccounts(), detail.getChange().getOwner(), monitor);
+		for (ChangeMessage message : detail.getMessages()) {
+			if (message.getAuthor() != null) {
+				getGerritProvider().pullUser(parent, detail.getAccounts(), message.getAuthor(), monitor);
 			}
+		}
+		for (PatchSetDetail patchSetDetail : gerritChange.getPatchSetDetails()) {
+			getGerritProvider().pullUser(parent, detail.getAccounts(),
+					patchSetDetail.getInfo().getAuthor().getAccount(), monitor);
+			getGerritProvider().pullUser(parent, detail.getAccounts(),
+					patchSetDetail.getInfo().getCommitter().getAccount(), monitor);
+		}
+		for (ApprovalDetail remoteApproval : detail.getApprovals()) {
+			getGerritProvider().pullUser(parent, detail.getAccounts(), remoteApproval.getAccount(), monitor);
+		}
 
-			if (detail.getSubmitRecords() != null) {
-				for (SubmitRecord record : detail.getSubmitRecords()) {
-					for (Label label : record.getLabels()) {
-						if (label.getAppliedBy() != null) {
-							getGerritProvider().pullUser(parent, detail.getAccounts(), label.getAppliedBy(), monitor);
-						}
+		if (detail.getSubmitRecords() != null) {
+			for (SubmitRecord record : detail.getSubmitRecords()) {
+				for (Label label : record.getLabels()) {
+					if (label.getAppliedBy() != null) {
+						getGerritProvider().pullUser(parent, detail.getAccounts(), label.getAppliedBy(), monitor);
 					}
 				}
 			}
-
-			pull(parent, detail, detail.getDependsOn(), monitor);
-			pull(parent, detail, detail.getNeededBy(), monitor);
-			return gerritChange;
-		} catch (GerritException e) {
-			throw GerritCorePlugin.getDefault()
-					.getConnector()
-					.toCoreException(parent.getTaskRepository(), "Problem while retrieving Gerrit review.", e); //$NON-NLS-1$
 		}
+
+		pull(parent, detail, detail.getDependsOn(), monitor);
+		pull(parent, detail, detail.getNeededBy(), monitor);
 	}
 
 	protected void pull(IRepository parent, ChangeDetailX detail, List<ChangeInfo> remoteChanges,
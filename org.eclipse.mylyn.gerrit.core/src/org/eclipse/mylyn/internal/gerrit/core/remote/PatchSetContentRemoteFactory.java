@@ -22,6 +22,7 @@ import org.eclipse.core.runtime.Status;
 import org.eclipse.mylyn.internal.gerrit.core.GerritCorePlugin;
 import org.eclipse.mylyn.internal.gerrit.core.GerritUtil;
 import org.eclipse.mylyn.internal.gerrit.core.ReviewItemCache;
+import org.eclipse.mylyn.internal.gerrit.core.client.GerritClient.PatchScriptListener;
 import org.eclipse.mylyn.internal.gerrit.core.client.GerritException;
 import org.eclipse.mylyn.internal.gerrit.core.client.PatchSetContent;
 import org.eclipse.mylyn.internal.gerrit.core.client.compat.PatchScriptX;
@@ -62,10 +63,17 @@ public abstract class PatchSetContentRemoteFactory<RemoteKeyType> extends
 		cache = new ReviewItemCache();
 	}
 
-	public PatchSetContent pull(IReviewItemSet parentObject, PatchSetContent content, IProgressMonitor monitor)
-			throws CoreException {
+	public PatchSetContent pull(final IReviewItemSet parentObject, final PatchSetContent content,
+			final IProgressMonitor monitor) throws CoreException {
 		try {
-			gerritFactoryProvider.getClient().loadPatchSetContent(content, monitor);
+			gerritFactoryProvider.getClient().loadPatchSetContent(content, new PatchScriptListener() {
+				@Override
+				public void patchScriptLoaded(Patch patch, PatchScriptX patchScript) {
+					// prepare the file versions while the remaining patch scripts are still being retrieved
+					createFileVersions(content, patch);
+					pullUsers(patchScript, monitor);
+				}
+			}, monitor);
 		} catch (GerritException e) {
 			throw new CoreException(new Status(IStatus.ERROR, GerritCorePlugin.PLUGIN_ID,
 					"Couldn't obtain patch set content for " + content.getId() + ". Check remote connection.", e)); //$NON-NLS-1$ //$NON-NLS-2$
@@ -77,16 +85,24 @@ public abstract class PatchSetContentRemoteFactory<RemoteKeyType> extends
 						"Couldn't obtain patch information for patch set " + patch.getKey() //$NON-NLS-1$
 								+ ". Check remote connection.")); //$NON-NLS-1$
 			}
-			CommentDetail commentDetail = patchScript.getCommentDetail();
-			List<PatchLineComment> comments = new ArrayList<PatchLineComment>();
-			comments.addAll(commentDetail.getCommentsA());
-			comments.addAll(commentDetail.getCommentsB());
+		}
+		return content;
+	}
+
+	private void pullUsers(PatchScript patchScript, IProgressMonitor monitor) {
+		CommentDetail commentDetail = patchScript.getCommentDetail();
+		List<PatchLineComment> comments = new ArrayList<PatchLineComment>();
+		comments.addAll(commentDetail.getCommentsA());
+		comments.addAll(commentDetail.getCommentsB());
+		gerritFactoryProvider.beginBatch();
+		try {
 			for (PatchLineComment comment : comments) {
-				gerritFactoryProvider.pullUser(gerritFactoryProvider.getRoot(), patchScript.getCommentDetail()
-						.getAccounts(), comment.getAuthor(), monitor);
+				gerritFactoryProvider.pullUser(gerritFactoryProvider.getRoot(), commentDetail.getAccounts(),
+						comment.getAuthor(), monitor);
 			}
+		} finally {
+			gerritFactoryProvider.endBatch();
 		}
-		return content;
 	}
 
 	boolean addComments(IReviewItemSet set, IFileVersion version, List<PatchLineComment> comments,
@@ -140,70 +156,102 @@ public abstract class PatchSetContentRemoteFactory<RemoteKeyType> extends
 			return items;
 		}
 		for (Patch patch : content.getTargetDetail().getPatches()) {
-			String targetId = patch.getKey().toString();
-			String sourceFileName = (patch.getSourceFileName() != null)
-					? patch.getSourceFileName()
-					: patch.getFileName();
-			String baseId = (content.getBase() != null)
-					? new Patch.Key(content.getBase().getId(), sourceFileName).toString()
-					: "base-" + targetId; //$NON-NLS-1$
-			String id = baseId + ":" + targetId; //$NON-NLS-1$
-			IFileItem item = (IFileItem) getCache().getItem(id);
-			if (item == null) {
-				item = IReviewsFactory.INSTANCE.createFileItem();
-				item.setId(id);
-				item.setName(patch.getFileName());
-				item.setAddedBy(set.getAddedBy());
-				item.setCommittedBy(set.getCommittedBy());
-				item.setReference(patch.getKey().getParentKey() + "," + patch.getFileName()); //$NON-NLS-1$
-				getCache().put(item);
-			}
-			items.add(item);
+			items.add(createFileItem(set, content, patch));
+		}
+		return items;
+	}
 
-			PatchScriptX patchScript = content.getPatchScript(patch.getKey());
-			if (patchScript != null) {
-				IFileVersion baseVersion = (IFileVersion) getCache().getItem(baseId);
-				if (baseVersion == null) {
-					baseVersion = IReviewsFactory.INSTANCE.createFileVersion();
-					baseVersion.setId(baseId);
-					if (patchScript.isBinary()) {
-						baseVersion.setBinaryContent(patchScript.getBinaryA());
-					} else {
-						baseVersion.setContent(patchScript.getA().asString());
-					}
-					baseVersion.setPath(patchScript.getA().getPath());
-					baseVersion.setDescription((content.getBase() != null)
-							? NLS.bind(Messages.PatchSetContentRemoteFactory_Patch_Set, content.getBase()
-									.getPatchSetId()) : Messages.PatchSetContentRemoteFactory_Base);
-					baseVersion.setFile(item);
-					baseVersion.setName(item.getName());
-					getCache().put(baseVersion);
-				}
-				item.setBase(baseVersion);
+	/**
+	 * Returns the cached file item for <code>patch</code>, creating it if needed, and sets its file versions once the
+	 * patch script for <code>patch</code> has been retrieved. Must be invoked from the model thread.
+	 */
+	IFileItem createFileItem(IReviewItemSet set, PatchSetContent content, Patch patch) {
+		String targetId = patch.getKey().toString();
+		String baseId = getBaseId(content, patch);
+		String id = baseId + ":" + targetId; //$NON-NLS-1$
+		IFileItem item = (IFileItem) getCache().getItem(id);
+		if (item == null) {
+			item = IReviewsFactory.INSTANCE.createFileItem();
+			item.setId(id);
+			item.setName(patch.getFileName());
+			item.setAddedBy(set.getAddedBy());
+			item.setCommittedBy(set.getCommittedBy());
+			item.setReference(patch.getKey().getParentKey() + "," + patch.getFileName()); //$NON-NLS-1$
+			getCache().put(item);
+		}
 
-				IFileVersion targetVersion = (IFileVersion) getCache().getItem(targetId);
-				if (targetVersion == null) {
-					targetVersion = IReviewsFactory.INSTANCE.createFileVersion();
-					targetVersion.setId(targetId);
-					SparseFileContent target = patchScript.getB().apply(patchScript.getA(), patchScript.getEdits());
-					if (patchScript.isBinary()) {
-						targetVersion.setBinaryContent(patchScript.getBinaryB());
-					} else {
-						targetVersion.setContent(target.asString());
-					}
-					targetVersion.setPath(patchScript.getB().getPath());
-					targetVersion.setDescription(NLS.bind(Messages.PatchSetContentRemoteFactory_Patch_Set,
-							content.getTargetDetail().getPatchSet().getPatchSetId()));
-					targetVersion.setFile(item);
-					targetVersion.setAddedBy(item.getAddedBy());
-					targetVersion.setCommittedBy(item.getCommittedBy());
-					targetVersion.setName(item.getName());
-					getCache().put(targetVersion);
-				}
+		if (createFileVersions(content, patch)) {
+			IFileVersion baseVersion = (IFileVersion) getCache().getItem(baseId);
+			if (item.getBase() != baseVersion) {
+				baseVersion.setFile(item);
+				item.setBase(baseVersion);
+			}
+			IFileVersion targetVersion = (IFileVersion) getCache().getItem(targetId);
+			if (item.getTarget() != targetVersion) {
+				targetVersion.setFile(item);
+				targetVersion.setAddedBy(item.getAddedBy());
+				targetVersion.setCommittedBy(item.getCommittedBy());
 				item.setTarget(targetVersion);
 			}
 		}
-		return items;
+		return item;
+	}
+
+	/**
+	 * Creates and caches the file versions for <code>patch</code> unless they are already cached. New versions are not
+	 * attached to the model, so this may be invoked from any thread.
+	 * 
+	 * @return true, if the versions are cached; false, if the patch script for <code>patch</code> has not been
+	 *         retrieved yet
+	 */
+	boolean createFileVersions(PatchSetContent content, Patch patch) {
+		PatchScriptX patchScript = content.getPatchScript(patch.getKey());
+		if (patchScript == null) {
+			return false;
+		}
+		String baseId = getBaseId(content, patch);
+		if (getCache().getItem(baseId) == null) {
+			IFileVersion baseVersion = IReviewsFactory.INSTANCE.createFileVersion();
+			baseVersion.setId(baseId);
+			if (patchScript.isBinary()) {
+				baseVersion.setBinaryContent(patchScript.getBinaryA());
+			} else {
+				baseVersion.setContent(patchScript.getA().asString());
+			}
+			baseVersion.setPath(patchScript.getA().getPath());
+			baseVersion.setDescription((content.getBase() != null)
+					? NLS.bind(Messages.PatchSetContentRemoteFactory_Patch_Set, content.getBase().getPatchSetId())
+					: Messages.PatchSetContentRemoteFactory_Base);
+			baseVersion.setName(patch.getFileName());
+			getCache().put(baseVersion);
+		}
+
+		String targetId = patch.getKey().toString();
+		if (getCache().getItem(targetId) == null) {
+			IFileVersion targetVersion = IReviewsFactory.INSTANCE.createFileVersion();
+			targetVersion.setId(targetId);
+			SparseFileContent target = patchScript.getB().apply(patchScript.getA(), patchScript.getEdits());
+			if (patchScript.isBinary()) {
+				targetVersion.setBinaryContent(patchScript.getBinaryB());
+			} else {
+				targetVersion.setContent(target.asString());
+			}
+			targetVersion.setPath(patchScript.getB().getPath());
+			targetVersion.setDescription(NLS.bind(Messages.PatchSetContentRemoteFactory_Patch_Set,
+					content.getTargetDetail().getPatchSet().getPatchSetId()));
+			targetVersion.setName(patch.getFileName());
+			getCache().put(targetVersion);
+		}
+		return true;
+	}
+
+	private String getBaseId(PatchSetContent content, Patch patch) {
+		String sourceFileName = (patch.getSourceFileName() != null)
+				? patch.getSourceFileName()
+				: patch.getFileName();
+		return (content.getBase() != null)
+				? new Patch.Key(content.getBase().getId(), sourceFileName).toString()
+				: "base-" + patch.getKey().toString(); //$NON-NLS-1$
 	}
 
 	@Override
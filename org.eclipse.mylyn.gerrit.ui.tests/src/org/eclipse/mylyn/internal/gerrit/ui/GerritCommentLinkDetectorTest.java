@@ -46,6 +46,12 @@ public class GerritCommentLinkDetectorTest {
 	private static CommentLink COMMENT_LINK_BUG = new CommentLink("(bug\\s+)(\\d+)",
 			"<a href=\"http://bugs.mylyn.org/show_bug.cgi?id=$2\">$&</a>");
 
+	private static CommentLink COMMENT_LINK_NUMBER = new CommentLink("(\\d+)",
+			"<a href=\"http://numbers.mylyn.org/$1\">$&</a>");
+
+	private static CommentLink COMMENT_LINK_INVALID_PATTERN = new CommentLink("([Tt]ask",
+			"<a href=\"http://tracker.mylyn.org/$1\">$&</a>");
+
 	@Test
 	public void testTaskPattern() {
 		commentLinks.add(COMMENT_LINK_TASK);
@@ -113,4 +119,53 @@ public class GerritCommentLinkDetectorTest {
 		assertEquals("null", String.valueOf(detector.findHyperlinks("Bug 123", 0, 0)));
 	}
 
+	@Test
+	public void testOverlappingPatterns() {
+		commentLinks.add(COMMENT_LINK_TASK);
+		commentLinks.add(COMMENT_LINK_NUMBER);
+		GerritCommentLinkDetector detector = new GerritCommentLinkDetector(repository, commentLinks);
+		UrlHyperlink expected1 = new UrlHyperlink(new Region(4, 9), "http://tracker.mylyn.org/123");
+		UrlHyperlink expected2 = new UrlHyperlink(new Region(10, 3), "http://numbers.mylyn.org/123");
+		UrlHyperlink expected3 = new UrlHyperlink(new Region(18, 1), "http://numbers.mylyn.org/4");
+		assertEquals(String.valueOf(Arrays.asList(expected1, expected2, expected3)),
+				String.valueOf(detector.findHyperlinks("abc Task: 123 and 4", -1, 0)));
+	}
+
+	@Test
+	public void testOverlappingPatternsIndex() {
+		commentLinks.add(COMMENT_LINK_TASK);
+		commentLinks.add(COMMENT_LINK_NUMBER);
+		GerritCommentLinkDetector detector = new GerritCommentLinkDetector(repository, commentLinks);
+		UrlHyperlink expected1 = new UrlHyperlink(new Region(4, 9), "http://tracker.mylyn.org/123");
+		UrlHyperlink expected2 = new UrlHyperlink(new Region(10, 3), "http://numbers.mylyn.org/123");
+		assertEquals(String.valueOf(Arrays.asList(expected1, expected2)),
+				String.valueOf(detector.findHyperlinks("abc Task: 123 and 4", 11, 0)));
+		assertEquals(String.valueOf(Collections.singletonList(expected1)),
+				String.valueOf(detector.findHyperlinks("abc Task: 123 and 4", 5, 0)));
+	}
+
+	@Test
+	public void testLinksInTextOrder() {
+		commentLinks.add(COMMENT_LINK_BUG);
+		commentLinks.add(COMMENT_LINK_NUMBER);
+		commentLinks.add(COMMENT_LINK_TASK);
+		GerritCommentLinkDetector detector = new GerritCommentLinkDetector(repository, commentLinks);
+		UrlHyperlink expected1 = new UrlHyperlink(new Region(0, 7), "http://tracker.mylyn.org/1");
+		UrlHyperlink expected2 = new UrlHyperlink(new Region(6, 1), "http://numbers.mylyn.org/1");
+		UrlHyperlink expected3 = new UrlHyperlink(new Region(12, 5), "http://bugs.mylyn.org/show_bug.cgi?id=2");
+		UrlHyperlink expected4 = new UrlHyperlink(new Region(16, 1), "http://numbers.mylyn.org/2");
+		assertEquals(String.valueOf(Arrays.asList(expected1, expected2, expected3, expected4)),
+				String.valueOf(detector.findHyperlinks("Task: 1 and bug 2", -1, 0)));
+	}
+
+	@Test
+	public void testInvalidPatternIgnored() {
+		commentLinks.add(COMMENT_LINK_INVALID_PATTERN);
+		commentLinks.add(COMMENT_LINK_TASK);
+		GerritCommentLinkDetector detector = new GerritCommentLinkDetector(repository, commentLinks);
+		UrlHyperlink expected = new UrlHyperlink(new Region(0, 9), "http://tracker.mylyn.org/123");
+		assertEquals(String.valueOf(Collections.singletonList(expected)),
+				String.valueOf(detector.findHyperlinks("Task: 123", 0, 0)));
+	}
+
 }
@@ -12,9 +12,13 @@
 package org.eclipse.mylyn.internal.gerrit.ui;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 import org.eclipse.jface.text.Region;
 import org.eclipse.jface.text.hyperlink.IHyperlink;
@@ -30,62 +34,189 @@ public class GerritCommentLinkDetector {
 
 	private static final Pattern PATTERN_HYPERLINK = Pattern.compile("href=\"([^\"]*)\""); //$NON-NLS-1$
 
+	private static final Map<GerritConfigX, RuleSet> ruleSetByConfig = Collections.synchronizedMap(
+			new WeakHashMap<GerritConfigX, RuleSet>());
+
+	/**
+	 * A link rule with a precompiled pattern and a parsed link target.
+	 */
+	private static final class Rule {
+
+		private final Pattern pattern;
+
+		/**
+		 * The literal parts of the link target. The group referenced by <code>groups[i]</code> is inserted after
+		 * <code>literals[i]</code>.
+		 */
+		private final String[] literals;
+
+		private final int[] groups;
+
+		Rule(Pattern pattern, String href) {
+			this.pattern = pattern;
+			int groupCount = pattern.matcher("").groupCount(); //$NON-NLS-1$
+			List<String> literals = new ArrayList<String>();
+			List<Integer> groups = new ArrayList<Integer>();
+			int last = 0;
+			int i = href.indexOf('$');
+			while (i != -1) {
+				int end = i + 1;
+				int group = 0;
+				// consume the longest group reference that exists in the pattern
+				while (end < href.length() && Character.isDigit(href.charAt(end))
+						&& group * 10 + Character.digit(href.charAt(end), 10) <= groupCount) {
+					group = group * 10 + Character.digit(href.charAt(end), 10);
+					end++;
+				}
+				if (group > 0) {
+					literals.add(href.substring(last, i));
+					groups.add(group);
+					last = end;
+				}
+				i = href.indexOf('$', end);
+			}
+			literals.add(href.substring(last));
+			this.literals = literals.toArray(new String[literals.size()]);
+			this.groups = new int[groups.size()];
+			for (int j = 0; j < this.groups.length; j++) {
+				this.groups[j] = groups.get(j);
+			}
+		}
+
+		String createUrl(Matcher matcher) {
+			StringBuilder sb = new StringBuilder(literals[0]);
+			for (int i = 0; i < groups.length; i++) {
+				String value = matcher.group(groups[i]);
+				if (value != null) {
+					sb.append(value);
+				}
+				sb.append(literals[i + 1]);
+			}
+			return sb.toString();
+		}
+
+	}
+
+	/**
+	 * An immutable set of link rules.
+	 */
+	private static final class RuleSet {
+
+		private final Rule[] rules;
+
+		RuleSet(List<CommentLink> commentLinks) {
+			List<Rule> rules = new ArrayList<Rule>();
+			for (CommentLink commentLink : commentLinks) {
+				Matcher replaceMatcher = PATTERN_HYPERLINK.matcher(commentLink.getReplace());
+				if (replaceMatcher.find()) {
+					try {
+						rules.add(new Rule(Pattern.compile(commentLink.getFind()), replaceMatcher.group(1)));
+					} catch (PatternSyntaxException e) {
+						// ignore invalid rule
+					}
+				}
+			}
+			this.rules = rules.toArray(new Rule[rules.size()]);
+		}
+
+	}
+
+	private static RuleSet getRuleSet(GerritConfigX config) {
+		List<CommentLink> commentLinks = config.getCommentLinks2();
+		if (commentLinks == null) {
+			return null;
+		}
+		RuleSet ruleSet = ruleSetByConfig.get(config);
+		if (ruleSet == null) {
+			ruleSet = new RuleSet(commentLinks);
+			synchronized (ruleSetByConfig) {
+				RuleSet existing = ruleSetByConfig.get(config);
+				if (existing != null) {
+					return existing;
+				}
+				ruleSetByConfig.put(config, ruleSet);
+			}
+		}
+		return ruleSet;
+	}
+
 	private List<IHyperlink> links;
 
 	private final TaskRepository repository;
 
-	private final List<CommentLink> commentLinks;
+	private final RuleSet ruleSet;
 
 	public GerritCommentLinkDetector(TaskRepository repository, GerritConfigX config) {
-		this(repository, config.getCommentLinks2());
+		this.repository = repository;
+		this.ruleSet = getRuleSet(config);
 	}
 
 	public GerritCommentLinkDetector(TaskRepository repository, List<CommentLink> commentLinks) {
 		this.repository = repository;
-		this.commentLinks = commentLinks;
+		this.ruleSet = (commentLinks != null) ? new RuleSet(commentLinks) : null;
 	}
 
+	/**
+	 * Scans <code>text</code> once for all rules. Each rule keeps its own matcher so that matches of different rules
+	 * may overlap; the pending matches are merged by start offset and links are returned in text order, matches that
+	 * start at the same offset in rule order.
+	 */
 	public List<IHyperlink> findHyperlinks(String text, int index, int textOffset) {
-		if (commentLinks == null) {
+		if (ruleSet == null) {
 			return null;
 		}
 
 		links = null;
-		for (CommentLink commentLink : commentLinks) {
-			Matcher replaceMatcher = PATTERN_HYPERLINK.matcher(commentLink.getReplace());
-			if (replaceMatcher.find()) {
-				String href = replaceMatcher.group(1);
-				Pattern findPattern = Pattern.compile(commentLink.getFind());
-				findHyperlinks(findPattern.matcher(text), index, textOffset, href);
-			}
+		Rule[] rules = ruleSet.rules;
+		// matchers[i] is null once rule i has no more relevant matches
+		Matcher[] matchers = new Matcher[rules.length];
+		for (int i = 0; i < rules.length; i++) {
+			matchers[i] = next(rules[i].pattern.matcher(text), index);
 		}
-		return links;
-	}
-
-	private void findHyperlinks(Matcher matcher, int index, int textOffset, String href) {
-		while (matcher.find()) {
-			if (index != -1 && (index < matcher.start() || index > matcher.end())) {
-				continue;
-			}
-			if (links == null) {
-				links = new ArrayList<IHyperlink>();
+		while (true) {
+			int first = -1;
+			for (int i = 0; i < matchers.length; i++) {
+				if (matchers[i] != null && (first == -1 || matchers[i].start() < matchers[first].start())) {
+					first = i;
+				}
 			}
-			String url = href;
-			for (int i = 1; i <= matcher.groupCount(); i++) {
-				url = url.replaceAll(Pattern.quote("$" + i), matcher.group(i)); //$NON-NLS-1$
+			if (first == -1) {
+				return links;
 			}
-			// prepend repository url to relative links
-			if (!url.startsWith("http")) { //$NON-NLS-1$
-				if (!repository.getUrl().endsWith("/")) { //$NON-NLS-1$
-					url = "/" + url; //$NON-NLS-1$
-				}
-				url = repository.getUrl() + url;
+			Matcher matcher = matchers[first];
+			if (index == -1 || index <= matcher.end()) {
+				addHyperlink(matcher, textOffset, rules[first].createUrl(matcher));
 			}
+			matchers[first] = next(matcher, index);
+		}
+	}
 
-			int start = matcher.start();
-			Region region = new Region(textOffset + start, matcher.end() - start);
-			links.add(new UrlHyperlink(region, url));
+	/**
+	 * Advances <code>matcher</code> to its next match. Returns <code>null</code> if there is none or if it starts
+	 * after <code>index</code>, since later matches cannot contain the index either.
+	 */
+	private static Matcher next(Matcher matcher, int index) {
+		if (matcher.find() && (index == -1 || matcher.start() <= index)) {
+			return matcher;
 		}
+		return null;
+	}
+
+	private void addHyperlink(Matcher matcher, int textOffset, String url) {
+		if (links == null) {
+			links = new ArrayList<IHyperlink>();
+		}
+		// prepend repository url to relative links
+		if (!url.startsWith("http")) { //$NON-NLS-1$
+			if (!repository.getUrl().endsWith("/")) { //$NON-NLS-1$
+				url = "/" + url; //$NON-NLS-1$
+			}
+			url = repository.getUrl() + url;
+		}
+
+		int start = matcher.start();
+		Region region = new Region(textOffset + start, matcher.end() - start);
+		links.add(new UrlHyperlink(region, url));
 	}
 
 }
@@ -19,7 +19,9 @@ import org.eclipse.mylyn.internal.gerrit.core.GerritOperationFactory;
 import org.eclipse.mylyn.internal.gerrit.core.client.GerritClient;
 import org.eclipse.mylyn.internal.reviews.ui.RemoteUiFactoryProviderConfigurer;
 import org.eclipse.mylyn.internal.tasks.ui.TasksUiPlugin;
+import org.eclipse.mylyn.tasks.core.IRepositoryListener;
 import org.eclipse.mylyn.tasks.core.TaskRepository;
+import org.eclipse.mylyn.tasks.core.TaskRepositoryAdapter;
 import org.eclipse.mylyn.tasks.ui.TaskRepositoryLocationUiFactory;
 import org.eclipse.mylyn.tasks.ui.TasksUi;
 import org.eclipse.ui.plugin.AbstractUIPlugin;
@@ -38,6 +40,22 @@ public class GerritUiPlugin extends AbstractUIPlugin {
 
 	private GerritOperationFactory operationFactory;
 
+	private final IRepositoryListener repositoryListener = new TaskRepositoryAdapter() {
+		@Override
+		public void repositoryRemoved(TaskRepository repository) {
+			if (GerritConnector.CONNECTOR_KIND.equals(repository.getConnectorKind())) {
+				GerritCorePlugin.getDefault().getConnector().repositoryRemoved(repository);
+			}
+		}
+
+		@Override
+		public void repositoryUrlChanged(TaskRepository repository, String oldUrl) {
+			if (GerritConnector.CONNECTOR_KIND.equals(repository.getConnectorKind())) {
+				GerritCorePlugin.getDefault().getConnector().repositoryUrlChanged(repository, oldUrl);
+			}
+		}
+	};
+
 	public GerritUiPlugin() {
 	}
 
@@ -59,11 +77,14 @@ public class GerritUiPlugin extends AbstractUIPlugin {
 		GerritCorePlugin.getDefault()
 				.getConnector()
 				.setFactoryProviderConfigurer(new RemoteUiFactoryProviderConfigurer());
+
+		TasksUiPlugin.getRepositoryManager().addListener(repositoryListener);
 	}
 
 	@Override
 	public void stop(BundleContext context) throws Exception {
 		plugin = null;
+		TasksUiPlugin.getRepositoryManager().removeListener(repositoryListener);
 		Set<TaskRepository> repositories = TasksUiPlugin.getRepositoryManager().getRepositories(
 				GerritConnector.CONNECTOR_KIND);
 		for (TaskRepository repository : repositories) {
@@ -12,9 +12,7 @@
 
 package org.eclipse.mylyn.internal.gerrit.ui.wizards;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
 
 import org.eclipse.jface.fieldassist.IContentProposal;
 import org.eclipse.jface.fieldassist.IContentProposalProvider;
@@ -23,8 +21,6 @@ import org.eclipse.mylyn.internal.gerrit.core.client.GerritClient;
 import org.eclipse.mylyn.internal.gerrit.core.client.GerritConfiguration;
 import org.eclipse.mylyn.tasks.core.TaskRepository;
 
-import com.google.gerrit.reviewdb.Project;
-
 /**
  * @author Sascha Scholz
  * @author Steffen Pingel
@@ -67,29 +63,18 @@ public class ProjectNameContentProposalProvider implements IContentProposalProvi
 
 	@Override
 	public IContentProposal[] getProposals(String contents, int position) {
-		String contentsLowerCase = contents.toLowerCase(Locale.ENGLISH);
-		ArrayList<IContentProposal> proposals = new ArrayList<IContentProposal>();
 		GerritClient client = connector.getClient(repository);
-		List<Project> projects = getProjects(client);
-		if (projects != null) {
-			for (Project project : projects) {
-				String projectName = project.getName();
-				if (projectName.toLowerCase(Locale.ENGLISH).contains(contentsLowerCase)) {
-					proposals.add(new ProjectNameContentProposal(projectName));
-				}
+		GerritConfiguration config = client.getConfiguration();
+		if (config != null) {
+			List<String> projectNames = config.getProjectNameIndex().find(contents);
+			IContentProposal[] proposals = new IContentProposal[projectNames.size()];
+			for (int i = 0; i < proposals.length; i++) {
+				proposals[i] = new ProjectNameContentProposal(projectNames.get(i));
 			}
-			return proposals.toArray(new IContentProposal[proposals.size()]);
+			return proposals;
 		} else {
 			return new IContentProposal[] { new MissingConfigurationContentProposal() };
 		}
 	}
 
-	private List<Project> getProjects(GerritClient client) {
-		GerritConfiguration config = client.getConfiguration();
-		if (config != null) {
-			return config.getProjects();
-		}
-		return null;
-	}
-
 }
@@ -0,0 +1,224 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.reviews.core.spi.remote;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.junit.Test;
+
+public class RemoteServiceSchedulerTest {
+
+	private final List<String> pulled = new ArrayList<String>();
+
+	private class Consumer extends AbstractRemoteConsumer {
+
+		private final String name;
+
+		private final CountDownLatch started = new CountDownLatch(1);
+
+		private final CountDownLatch done = new CountDownLatch(1);
+
+		private final CountDownLatch proceed;
+
+		private boolean userJob;
+
+		private boolean systemJob;
+
+		private int pulls;
+
+		private boolean forced;
+
+		private IStatus status;
+
+		private Error error;
+
+		private boolean cancel;
+
+		private boolean canceledOnStart;
+
+		Consumer(String name, CountDownLatch proceed) {
+			this.name = name;
+			this.proceed = proceed;
+		}
+
+		@Override
+		public void pull(boolean force, IProgressMonitor monitor) {
+			started.countDown();
+			canceledOnStart = monitor.isCanceled();
+			try {
+				proceed.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			if (error != null) {
+				throw error;
+			}
+			if (cancel) {
+				monitor.setCanceled(true);
+				throw new OperationCanceledException();
+			}
+			synchronized (pulled) {
+				pulls++;
+				forced = force;
+				pulled.add(name);
+			}
+		}
+
+		@Override
+		public void applyModel(boolean force) {
+		}
+
+		@Override
+		public void notifyDone(IStatus status) {
+			this.status = status;
+			done.countDown();
+		}
+
+		@Override
+		public boolean isAsynchronous() {
+			return true;
+		}
+
+		@Override
+		public boolean isUserJob() {
+			return userJob;
+		}
+
+		@Override
+		public boolean isSystemJob() {
+			return systemJob;
+		}
+
+		@Override
+		public String getDescription() {
+			return name;
+		}
+
+		void waitForDone() throws InterruptedException {
+			assertTrue(done.await(5, TimeUnit.SECONDS));
+		}
+
+	}
+
+	@Test
+	public void testPriorityAndMerge() throws Exception {
+		RemoteServiceScheduler scheduler = new RemoteServiceScheduler(1);
+		JobRemoteService service = new JobRemoteService(scheduler);
+		CountDownLatch proceed = new CountDownLatch(1);
+
+		// blocks the only worker until all other requests are queued
+		Consumer first = new Consumer("first", proceed); //$NON-NLS-1$
+		service.retrieve(first, false);
+		assertTrue(first.started.await(5, TimeUnit.SECONDS));
+		Consumer background = new Consumer("background", proceed); //$NON-NLS-1$
+		background.systemJob = true;
+		Consumer normal = new Consumer("normal", proceed); //$NON-NLS-1$
+		Consumer interactive = new Consumer("interactive", proceed); //$NON-NLS-1$
+		interactive.userJob = true;
+		service.retrieve(background, false);
+		service.retrieve(normal, false);
+		service.retrieve(normal, true);
+		service.retrieve(interactive, false);
+		proceed.countDown();
+
+		for (Consumer consumer : new Consumer[] { first, background, normal, interactive }) {
+			consumer.waitForDone();
+			assertTrue(consumer.status.isOK());
+		}
+		synchronized (pulled) {
+			assertEquals("first", pulled.get(0)); //$NON-NLS-1$
+			assertEquals(Arrays.asList("interactive", "normal", "background"), pulled.subList(1, 4)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			assertEquals(1, normal.pulls);
+			assertTrue(normal.forced);
+		}
+		assertEquals(5, scheduler.getSubmittedCount());
+		assertEquals(1, scheduler.getMergedCount());
+		assertEquals(4, scheduler.getCompletedCount());
+	}
+
+	@Test
+	public void testDisposeCancelsQueuedRequests() throws Exception {
+		RemoteServiceScheduler scheduler = new RemoteServiceScheduler(1);
+		JobRemoteService service = new JobRemoteService(scheduler);
+		CountDownLatch proceed = new CountDownLatch(1);
+
+		Consumer first = new Consumer("first", proceed); //$NON-NLS-1$
+		service.retrieve(first, false);
+		assertTrue(first.started.await(5, TimeUnit.SECONDS));
+		Consumer second = new Consumer("second", proceed); //$NON-NLS-1$
+		service.retrieve(second, false);
+		assertTrue(service.isActive());
+
+		service.dispose();
+		proceed.countDown();
+		first.waitForDone();
+		second.waitForDone();
+		assertTrue(first.status.isOK());
+		assertEquals(IStatus.CANCEL, second.status.getSeverity());
+		assertEquals(0, second.pulls);
+	}
+
+	@Test
+	public void testErrorCompletesRequest() throws Exception {
+		RemoteServiceScheduler scheduler = new RemoteServiceScheduler(1);
+		JobRemoteService service = new JobRemoteService(scheduler);
+		CountDownLatch proceed = new CountDownLatch(1);
+
+		Consumer failing = new Consumer("failing", proceed); //$NON-NLS-1$
+		failing.error = new LinkageError();
+		service.retrieve(failing, false);
+		assertTrue(failing.started.await(5, TimeUnit.SECONDS));
+		Consumer next = new Consumer("next", proceed); //$NON-NLS-1$
+		service.retrieve(next, false);
+		proceed.countDown();
+
+		failing.waitForDone();
+		assertEquals(IStatus.ERROR, failing.status.getSeverity());
+		// the request that was queued behind the failed request is executed by a new worker
+		next.waitForDone();
+		assertTrue(next.status.isOK());
+		assertEquals(1, next.pulls);
+	}
+
+	@Test
+	public void testCancelRequestDoesNotCancelWorker() throws Exception {
+		RemoteServiceScheduler scheduler = new RemoteServiceScheduler(1);
+		JobRemoteService service = new JobRemoteService(scheduler);
+		CountDownLatch proceed = new CountDownLatch(1);
+
+		Consumer canceled = new Consumer("canceled", proceed); //$NON-NLS-1$
+		canceled.cancel = true;
+		service.retrieve(canceled, false);
+		assertTrue(canceled.started.await(5, TimeUnit.SECONDS));
+		Consumer next = new Consumer("next", proceed); //$NON-NLS-1$
+		service.retrieve(next, false);
+		proceed.countDown();
+
+		canceled.waitForDone();
+		assertEquals(IStatus.CANCEL, canceled.status.getSeverity());
+		next.waitForDone();
+		assertFalse(next.canceledOnStart);
+		assertTrue(next.status.isOK());
+	}
+
+}
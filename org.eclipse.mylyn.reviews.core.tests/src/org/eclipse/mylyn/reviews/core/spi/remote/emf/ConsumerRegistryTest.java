@@ -0,0 +1,153 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.reviews.core.spi.remote.emf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class ConsumerRegistryTest {
+
+	private class CountingFactory extends ConsumerRegistry.Factory<Object> {
+
+		private final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		Object create() {
+			count.incrementAndGet();
+			return new Object();
+		}
+
+	}
+
+	private final ConsumerRegistry<String, Object> registry = new ConsumerRegistry<String, Object>();
+
+	@Test
+	public void testGetOrCreate() {
+		CountingFactory factory = new CountingFactory();
+		assertNull(registry.get("key")); //$NON-NLS-1$
+		Object value = registry.getOrCreate("key", factory, true); //$NON-NLS-1$
+		assertSame(value, registry.getOrCreate("key", factory, true)); //$NON-NLS-1$
+		assertSame(value, registry.get("key")); //$NON-NLS-1$
+		assertEquals(1, factory.count.get());
+	}
+
+	@Test
+	public void testRemove() {
+		CountingFactory factory = new CountingFactory();
+		Object value = registry.getOrCreate("key", factory, true); //$NON-NLS-1$
+		registry.remove("key", new Object()); //$NON-NLS-1$
+		assertSame(value, registry.get("key")); //$NON-NLS-1$
+		registry.remove("key", value); //$NON-NLS-1$
+		assertNull(registry.get("key")); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testCreateFails() {
+		try {
+			registry.getOrCreate("key", new ConsumerRegistry.Factory<Object>() { //$NON-NLS-1$
+						@Override
+						Object create() {
+							throw new IllegalStateException();
+						}
+					}, true);
+			fail("Expected IllegalStateException"); //$NON-NLS-1$
+		} catch (IllegalStateException e) {
+			// expected
+		}
+		CountingFactory factory = new CountingFactory();
+		registry.getOrCreate("key", factory, true); //$NON-NLS-1$
+		assertEquals(1, factory.count.get());
+	}
+
+	@Test
+	public void testConcurrentCreate() throws Exception {
+		final CountDownLatch creating = new CountDownLatch(1);
+		final CountDownLatch proceed = new CountDownLatch(1);
+		final Object[] result = new Object[2];
+		Thread thread = new Thread() {
+			@Override
+			public void run() {
+				result[0] = registry.getOrCreate("key", new ConsumerRegistry.Factory<Object>() { //$NON-NLS-1$
+							@Override
+							Object create() {
+								creating.countDown();
+								try {
+									proceed.await();
+								} catch (InterruptedException e) {
+									// ignore
+								}
+								return "value"; //$NON-NLS-1$
+							}
+						}, true);
+			}
+		};
+		thread.start();
+		creating.await();
+
+		final CountingFactory factory = new CountingFactory();
+		Thread waiter = new Thread() {
+			@Override
+			public void run() {
+				result[1] = registry.getOrCreate("key", factory, true); //$NON-NLS-1$
+			}
+		};
+		waiter.start();
+		proceed.countDown();
+		thread.join();
+		waiter.join();
+		assertEquals("value", result[0]); //$NON-NLS-1$
+		assertSame(result[0], result[1]);
+		assertEquals(0, factory.count.get());
+	}
+
+	@Test
+	public void testConcurrentCreateWithoutWaiting() throws Exception {
+		final CountDownLatch creating = new CountDownLatch(1);
+		final CountDownLatch proceed = new CountDownLatch(1);
+		final Object[] result = new Object[1];
+		Thread thread = new Thread() {
+			@Override
+			public void run() {
+				result[0] = registry.getOrCreate("key", new ConsumerRegistry.Factory<Object>() { //$NON-NLS-1$
+							@Override
+							Object create() {
+								creating.countDown();
+								try {
+									proceed.await();
+								} catch (InterruptedException e) {
+									// ignore
+								}
+								return "other"; //$NON-NLS-1$
+							}
+						}, true);
+			}
+		};
+		thread.start();
+		creating.await();
+
+		CountingFactory factory = new CountingFactory();
+		Object value = registry.getOrCreate("key", factory, false); //$NON-NLS-1$
+		proceed.countDown();
+		thread.join();
+		assertEquals(1, factory.count.get());
+		assertSame(value, result[0]);
+		assertSame(value, registry.get("key")); //$NON-NLS-1$
+	}
+
+}
@@ -24,11 +24,13 @@ import java.util.List;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EClassifier;
 import org.eclipse.emf.ecore.EPackage;
 import org.eclipse.emf.ecore.EcoreFactory;
+import org.eclipse.mylyn.reviews.core.spi.remote.RemoteCompletion;
 import org.junit.Test;
 
 /**
@@ -179,6 +181,20 @@ public class RemoteEmfFactoryTest {
 		assertThat(modelObject.getInstanceTypeName(), is("new"));
 	}
 
+	@Test
+	public void testPulledConsumerRetainedUntilApplied() throws CoreException {
+		TestEClassRemoteFactory factory = new TestEClassRemoteFactory();
+		factory.getConsumerForRemoteKey(parent, REMOTE_KEY_1).pull(false, new NullProgressMonitor());
+		for (int i = 0; i < 5; i++) {
+			System.gc();
+		}
+		RemoteEmfConsumer<EPackage, EClass, String, TestRemoteEClass, String, Integer> consumer = factory.getConsumerForRemoteKey(
+				parent, REMOTE_KEY_1);
+		assertThat(consumer.getRemoteObject(), notNullValue());
+		consumer.applyModel(false);
+		checkConsumer(consumer, REMOTE_KEY_1, REMOTE_1, LOCAL_KEY_1, LOCAL_1);
+	}
+
 	@Test
 	public void testGetConsumerForDifferentParentSameLocalKey() throws CoreException {
 		EPackage parent1 = EcoreFactory.eINSTANCE.createEPackage();
@@ -193,6 +209,24 @@ public class RemoteEmfFactoryTest {
 		assertThat(consumer1, not(sameInstance(consumer2)));
 	}
 
+	@Test
+	public void testGetConsumerForRemoteKeyNullLocalKey() throws CoreException {
+		TestEClassRemoteFactory factory = new TestEClassRemoteFactory() {
+			@Override
+			public String getLocalKeyForRemoteKey(String remoteKey) {
+				return null;
+			}
+		};
+		RemoteEmfConsumer<EPackage, EClass, String, TestRemoteEClass, String, Integer> consumer1 = factory.getConsumerForRemoteKey(
+				parent, REMOTE_KEY_1);
+		RemoteEmfConsumer<EPackage, EClass, String, TestRemoteEClass, String, Integer> consumer2 = factory.getConsumerForRemoteKey(
+				parent, REMOTE_KEY_2);
+
+		assertThat(consumer1, not(sameInstance(consumer2)));
+		checkConsumer(consumer1, REMOTE_KEY_1, null, null, null);
+		checkConsumer(consumer2, REMOTE_KEY_2, null, null, null);
+	}
+
 	@Test
 	public void testGetConsumerForLocalKey() throws CoreException {
 		TestManagerEClassHarness harness = new TestManagerEClassHarness() {
@@ -316,6 +350,29 @@ public class RemoteEmfFactoryTest {
 		checkConsumer(keyHarness.consumer, REMOTE_KEY_2, REMOTE_2, LOCAL_KEY_2, "Object 2");
 	}
 
+	@Test
+	public void testOpenTracksParentChanges() {
+		TestEClassRemoteFactory factory = new TestEClassRemoteFactory();
+		EClass create1 = EcoreFactory.eINSTANCE.createEClass();
+		create1.setInstanceClassName(LOCAL_KEY_1);
+		parent.getEClassifiers().add(create1);
+		assertThat(factory.open(parent, LOCAL_KEY_1), sameInstance(create1));
+		assertThat(factory.open(parent, LOCAL_KEY_2), nullValue());
+
+		EClass create2 = EcoreFactory.eINSTANCE.createEClass();
+		parent.getEClassifiers().add(create2);
+		assertThat(factory.open(parent, LOCAL_KEY_2), nullValue());
+		create2.setInstanceClassName(LOCAL_KEY_2);
+		assertThat(factory.open(parent, LOCAL_KEY_2), sameInstance(create2));
+
+		parent.getEClassifiers().remove(create1);
+		assertThat(factory.open(parent, LOCAL_KEY_1), nullValue());
+		assertThat(factory.open(parent, LOCAL_KEY_2), sameInstance(create2));
+
+		parent.getEClassifiers().clear();
+		assertThat(factory.open(parent, LOCAL_KEY_2), nullValue());
+	}
+
 	@Test
 	public void testRemoteProcessFailure() throws CoreException {
 		TestEClassRemoteFactory factory = new TestEClassRemoteFactory() {
@@ -334,6 +391,34 @@ public class RemoteEmfFactoryTest {
 		assertThat(consumer1.getStatus(), sameInstance(errorStatus));
 	}
 
+	@Test
+	public void testRetrieveCompletion() throws Exception {
+		TestManagerEClassHarness harness = new TestManagerEClassHarness();
+		RemoteCompletion completion = harness.consumer.retrieve(false);
+		assertThat(completion, notNullValue());
+		assertThat(completion.await(new NullProgressMonitor()), is(true));
+		assertThat(completion.isDone(), is(true));
+		assertThat(completion.getStatus().isOK(), is(true));
+		assertThat(harness.consumer.getModelObject(), notNullValue());
+		assertThat(harness.consumer.getCompletion(), sameInstance(completion));
+	}
+
+	@Test
+	public void testRetrieveCompletionFailure() throws Exception {
+		TestEClassRemoteFactory factory = new TestEClassRemoteFactory() {
+			@Override
+			public TestRemoteEClass pull(EPackage parent, String remoteKey, IProgressMonitor monitor)
+					throws CoreException {
+				throw new CoreException(errorStatus);
+			}
+		};
+		RemoteEmfConsumer<EPackage, EClass, String, TestRemoteEClass, String, Integer> consumer = factory.getConsumerForRemoteKey(
+				parent, "object1");
+		RemoteCompletion completion = consumer.retrieve(false);
+		assertThat(completion.await(new NullProgressMonitor()), is(true));
+		assertThat(completion.getStatus().isOK(), is(false));
+	}
+
 	@Test
 	public void testMultipleConsumers() throws CoreException {
 		TestEClassRemoteFactory factory = new TestEClassRemoteFactory();
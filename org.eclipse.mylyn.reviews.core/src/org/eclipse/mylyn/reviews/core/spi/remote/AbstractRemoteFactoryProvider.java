@@ -29,6 +29,30 @@ public abstract class AbstractRemoteFactoryProvider {
 		service.modelExec(runnable, block);
 	}
 
+	/**
+	 * Starts a batch of model executions on the current thread.
+	 * 
+	 * @see AbstractRemoteService#beginBatch()
+	 */
+	public void beginBatch() {
+		Assert.isLegal(service != null, "Internal Error: Connector must supply a service for execution."); //$NON-NLS-1$
+		service.beginBatch();
+	}
+
+	/**
+	 * Ends a batch of model executions and executes the collected runnables through
+	 * {@link #modelExec(Runnable, boolean)} when the outermost batch ends.
+	 * 
+	 * @see AbstractRemoteService#endBatch()
+	 */
+	public void endBatch() {
+		Assert.isLegal(service != null, "Internal Error: Connector must supply a service for execution."); //$NON-NLS-1$
+		Runnable runnable = service.takeBatch();
+		if (runnable != null) {
+			modelExec(runnable, true);
+		}
+	}
+
 	public AbstractRemoteService getService() {
 		return service;
 	}
@@ -11,6 +11,11 @@
 
 package org.eclipse.mylyn.reviews.core.spi.remote;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.core.runtime.Assert;
+
 /**
  * Specifies a contract for a service that supports managed execution against remote (or other asynchronous or
  * unpredictable) APIs and/or resources.
@@ -19,6 +24,16 @@ package org.eclipse.mylyn.reviews.core.spi.remote;
  */
 public abstract class AbstractRemoteService {
 
+	private static class Batch {
+
+		private int depth;
+
+		private final List<Runnable> runnables = new ArrayList<Runnable>();
+
+	}
+
+	private final ThreadLocal<Batch> batch = new ThreadLocal<Batch>();
+
 	/**
 	 * Implementors should invoke the the
 	 * {@link AbstractRemoteConsumer#pull(boolean, org.eclipse.core.runtime.IProgressMonitor)} and
@@ -65,6 +80,109 @@ public abstract class AbstractRemoteService {
 		modelExec(runnable, true);
 	}
 
+	/**
+	 * Starts collecting the model executions of the current thread instead of executing them right away. The collected
+	 * runnables are executed in order, in a single model execution, when the outermost batch ends. This avoids a
+	 * separate hop to the model thread for each execution, e.g. while pulling many users for a review. Calls may be
+	 * nested and must be balanced by {@link #endBatch()}.
+	 * <p>
+	 * Runnables that are passed to {@link #modelExec(Runnable, boolean)} during a batch are not executed before the batch
+	 * ends, even if a blocking execution is requested.
+	 * </p>
+	 */
+	public void beginBatch() {
+		Batch current = batch.get();
+		if (current == null) {
+			current = new Batch();
+			batch.set(current);
+		}
+		current.depth++;
+	}
+
+	/**
+	 * Ends a batch started by {@link #beginBatch()}. Ending the outermost batch executes the collected runnables in a
+	 * single, blocking model execution.
+	 */
+	public void endBatch() {
+		Runnable runnable = takeBatch();
+		if (runnable != null) {
+			modelExec(runnable, true);
+		}
+	}
+
+	/**
+	 * Executes <code>runnable</code> in a blocking model execution even if a batch is active on the current thread, e.g.
+	 * to look up model state that is needed right away. Runnables that were collected by the batch are not executed.
+	 */
+	public void modelExecUnbatched(Runnable runnable) {
+		Batch current = batch.get();
+		if (current == null) {
+			modelExec(runnable, true);
+			return;
+		}
+		batch.remove();
+		try {
+			modelExec(runnable, true);
+		} finally {
+			batch.set(current);
+		}
+	}
+
+	/**
+	 * Returns true, if model executions of the current thread are collected in a batch.
+	 */
+	public boolean isBatching() {
+		return batch.get() != null;
+	}
+
+	/**
+	 * Adds <code>runnable</code> to the batch of the current thread. Implementors should invoke this from
+	 * {@link #modelExec(Runnable, boolean)} and skip the execution if it returns true.
+	 * 
+	 * @return true, if the runnable was added to a batch; false, if no batch is active
+	 */
+	protected boolean addToBatch(Runnable runnable) {
+		Batch current = batch.get();
+		if (current != null) {
+			current.runnables.add(runnable);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Ends a batch and returns a runnable that executes all collected runnables or null, if the batch is nested or
+	 * empty.
+	 */
+	Runnable takeBatch() {
+		Batch current = batch.get();
+		Assert.isLegal(current != null, "No batch is active."); //$NON-NLS-1$
+		if (--current.depth > 0) {
+			return null;
+		}
+		batch.remove();
+		final List<Runnable> runnables = current.runnables;
+		if (runnables.isEmpty()) {
+			return null;
+		}
+		return new Runnable() {
+			public void run() {
+				for (Runnable runnable : runnables) {
+					runnable.run();
+				}
+			}
+		};
+	}
+
+	/**
+	 * Returns true if the current thread is the thread that blocking {@link #modelExec(Runnable, boolean)} calls are
+	 * executed on. Code running on that thread must not wait for other threads that may invoke a blocking model
+	 * execution. Returns false by default, for services that execute model operations in the calling thread.
+	 */
+	public boolean isModelThread() {
+		return false;
+	}
+
 	/**
 	 * Returns true if any consumers are currently being managed.
 	 * 
@@ -14,37 +14,44 @@ package org.eclipse.mylyn.reviews.core.spi.remote;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Status;
-import org.eclipse.core.runtime.jobs.IJobChangeEvent;
-import org.eclipse.core.runtime.jobs.Job;
-import org.eclipse.core.runtime.jobs.JobChangeAdapter;
 import org.eclipse.mylyn.reviews.internal.core.ReviewsCoreConstants;
 
 /**
- * An implementation of a remote service using jobs to fulfill the remote service contract. (Future implementations will
- * support a more scalable approach to supporting multiple executions.)
+ * An implementation of a remote service using jobs to fulfill the remote service contract. Asynchronous retrievals are
+ * executed by a {@link RemoteServiceScheduler} that bounds the number of concurrently running jobs.
  * 
  * @author Miles Parker
  */
 public class JobRemoteService extends AbstractRemoteService {
 
-	private final List<Job> jobs;
+	private final RemoteServiceScheduler scheduler;
+
+	private final List<RemoteServiceScheduler.Request> requests;
 
 	public JobRemoteService() {
-		jobs = new ArrayList<Job>();
+		this(RemoteServiceScheduler.getDefault());
+	}
+
+	public JobRemoteService(RemoteServiceScheduler scheduler) {
+		Assert.isNotNull(scheduler);
+		this.scheduler = scheduler;
+		requests = new ArrayList<RemoteServiceScheduler.Request>();
 	}
 
 	/**
 	 * Fully implements the {@link AbstractRemoteService#retrieve(AbstractRemoteConsumer, boolean)} contract:
 	 * <ol>
-	 * <li>If {@link AbstractRemoteConsumer#isAsynchronous()}, creates and runs a job to
+	 * <li>If {@link AbstractRemoteConsumer#isAsynchronous()}, schedules a request to
 	 * {@link AbstractRemoteConsumer#pull(boolean, org.eclipse.core.runtime.IProgressMonitor)} the remote API data.
-	 * Otherwise, simply calls retrieve.</li>
+	 * Otherwise, simply calls retrieve. A request for a consumer that is already waiting to be executed is merged into
+	 * the waiting request.</li>
 	 * <li>If a failure occurs, calls {@link AbstractRemoteConsumer#notifyDone(org.eclipse.core.runtime.IStatus)}.</li>
 	 * <li>Invokes {@link AbstractRemoteConsumer#applyModel(boolean)} inside of a modelExec call, so that extending
 	 * classes can manage thread context.</li>
@@ -54,9 +61,10 @@ public class JobRemoteService extends AbstractRemoteService {
 	@Override
 	public void retrieve(final AbstractRemoteConsumer process, final boolean force) {
 		if (process.isAsynchronous()) {
-			final Job job = new Job(process.getDescription()) {
+			RemoteServiceScheduler.Request request = new RemoteServiceScheduler.Request(process, force,
+					getPriority(process)) {
 				@Override
-				protected IStatus run(IProgressMonitor monitor) {
+				protected IStatus run(boolean force, IProgressMonitor monitor) {
 					try {
 						process.pull(force, monitor);
 					} catch (CoreException e) {
@@ -66,24 +74,29 @@ public class JobRemoteService extends AbstractRemoteService {
 					}
 					return Status.OK_STATUS;
 				}
-			};
-			job.addJobChangeListener(new JobChangeAdapter() {
+
 				@Override
-				public void done(final IJobChangeEvent event) {
-					modelExec(new Runnable() {
-						@Override
-						public void run() {
-							final IStatus result = event.getResult();
-							if (result.isOK()) {
-								process.applyModel(force);
+				protected void done(final IStatus result) {
+					final boolean force = isForce();
+					try {
+						modelExec(new Runnable() {
+							@Override
+							public void run() {
+								if (result.isOK()) {
+									process.applyModel(force);
+								}
+								process.notifyDone(result);
 							}
-							process.notifyDone(event.getResult());
-						}
-					}, false);
+						}, false);
+					} finally {
+						removeRequest(this);
+					}
 				}
-			});
-			addJob(job);
-			job.schedule();
+			};
+			addRequest(request);
+			if (!scheduler.schedule(request)) {
+				removeRequest(request);
+			}
 		} else {
 			try {
 				process.pull(force, new NullProgressMonitor());
@@ -101,51 +114,70 @@ public class JobRemoteService extends AbstractRemoteService {
 		}
 	}
 
-	private void addJob(final Job job) {
-		synchronized (jobs) {
-			jobs.add(job);
+	/**
+	 * Returns the priority for retrievals of <code>process</code>. Retrievals for user jobs are executed before
+	 * retrievals for system jobs.
+	 */
+	protected int getPriority(AbstractRemoteConsumer process) {
+		if (process.isUserJob()) {
+			return RemoteServiceScheduler.PRIORITY_INTERACTIVE;
+		} else if (process.isSystemJob()) {
+			return RemoteServiceScheduler.PRIORITY_BACKGROUND;
+		}
+		return RemoteServiceScheduler.PRIORITY_DEFAULT;
+	}
+
+	private void addRequest(RemoteServiceScheduler.Request request) {
+		synchronized (requests) {
+			requests.add(request);
 		}
-		job.addJobChangeListener(new JobChangeAdapter() {
-			@Override
-			public void done(IJobChangeEvent event) {
-				removeJob(job);
-			}
-		});
 	}
 
-	private void removeJob(final Job job) {
-		synchronized (jobs) {
-			jobs.remove(job);
+	private void removeRequest(RemoteServiceScheduler.Request request) {
+		synchronized (requests) {
+			requests.remove(request);
 		}
 	}
 
 	/**
-	 * Returns true if any jobs are currently running.
+	 * Returns true if any retrievals are currently waiting or running.
 	 * 
 	 * @return
 	 */
 	@Override
 	public boolean isActive() {
-		synchronized (jobs) {
-			return jobs.size() > 0;
+		synchronized (requests) {
+			return requests.size() > 0;
 		}
 	}
 
 	/**
-	 * Cancels all running jobs.
+	 * Cancels all waiting and running retrievals.
 	 */
 	@Override
 	public synchronized void dispose() {
-		synchronized (jobs) {
-			for (Job job : jobs) {
-				job.cancel();
-			}
-			jobs.clear();
+		List<RemoteServiceScheduler.Request> pending;
+		synchronized (requests) {
+			pending = new ArrayList<RemoteServiceScheduler.Request>(requests);
+			requests.clear();
+		}
+		for (RemoteServiceScheduler.Request request : pending) {
+			scheduler.cancel(request);
 		}
 	}
 
+	/**
+	 * Returns the scheduler that executes asynchronous retrievals.
+	 */
+	public RemoteServiceScheduler getScheduler() {
+		return scheduler;
+	}
+
 	@Override
 	public void modelExec(Runnable runnable, boolean block) {
+		if (addToBatch(runnable)) {
+			return;
+		}
 		runnable.run();
 	}
 
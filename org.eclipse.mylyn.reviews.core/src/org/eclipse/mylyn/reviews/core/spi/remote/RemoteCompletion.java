@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.reviews.core.spi.remote;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+
+/**
+ * A handle for waiting on the completion of a single retrieval of an {@link AbstractRemoteConsumer}. The handle is
+ * completed when the remote service invokes {@link AbstractRemoteConsumer#notifyDone(IStatus)}.
+ */
+public class RemoteCompletion {
+
+	private static final long CANCELLATION_CHECK_INTERVAL = 100;
+
+	private final CountDownLatch latch = new CountDownLatch(1);
+
+	private volatile IStatus status;
+
+	/**
+	 * Marks the retrieval as done. Subsequent invocations are ignored.
+	 */
+	public synchronized void done(IStatus status) {
+		if (latch.getCount() > 0) {
+			this.status = status;
+			latch.countDown();
+		}
+	}
+
+	public boolean isDone() {
+		return latch.getCount() == 0;
+	}
+
+	/**
+	 * Returns the status the retrieval completed with or null if it has not completed, yet.
+	 */
+	public IStatus getStatus() {
+		return status;
+	}
+
+	/**
+	 * Blocks until the retrieval has completed or <code>monitor</code> is cancelled. The calling thread is woken up as
+	 * soon as the retrieval completes.
+	 *
+	 * @param monitor
+	 *            the progress monitor of the caller, may be null
+	 * @return true, if the retrieval has completed; false, if <code>monitor</code> was cancelled
+	 * @throws InterruptedException
+	 *             if the calling thread was interrupted while waiting
+	 */
+	public boolean await(IProgressMonitor monitor) throws InterruptedException {
+		if (monitor == null) {
+			latch.await();
+			return true;
+		}
+		while (!latch.await(CANCELLATION_CHECK_INTERVAL, TimeUnit.MILLISECONDS)) {
+			if (monitor.isCanceled()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
@@ -0,0 +1,409 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.reviews.core.spi.remote;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import org.eclipse.core.runtime.Assert;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.ProgressMonitorWrapper;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.mylyn.commons.core.StatusHandler;
+import org.eclipse.mylyn.reviews.internal.core.ReviewsCoreConstants;
+
+/**
+ * Executes remote requests on a bounded number of worker jobs. Queued requests are ordered by priority and then by
+ * submission, and a request for a consumer that already has a queued request is merged into the queued request.
+ *
+ * @see JobRemoteService
+ */
+public class RemoteServiceScheduler {
+
+	/**
+	 * Requests for content the user is waiting for, e.g. in an open editor.
+	 */
+	public static final int PRIORITY_INTERACTIVE = 0;
+
+	public static final int PRIORITY_DEFAULT = 1;
+
+	/**
+	 * Requests for background synchronization.
+	 */
+	public static final int PRIORITY_BACKGROUND = 2;
+
+	public static final int DEFAULT_MAX_WORKERS = 4;
+
+	private static RemoteServiceScheduler defaultScheduler;
+
+	/**
+	 * A request that is executed by the scheduler.
+	 */
+	public static abstract class Request {
+
+		private final AbstractRemoteConsumer consumer;
+
+		private int priority;
+
+		private boolean force;
+
+		private long sequence;
+
+		private long submitTime;
+
+		private volatile boolean canceled;
+
+		public Request(AbstractRemoteConsumer consumer, boolean force, int priority) {
+			Assert.isNotNull(consumer);
+			this.consumer = consumer;
+			this.force = force;
+			this.priority = priority;
+		}
+
+		public AbstractRemoteConsumer getConsumer() {
+			return consumer;
+		}
+
+		/**
+		 * Returns true, if this or any request that was merged into this request was forced.
+		 */
+		public synchronized boolean isForce() {
+			return force;
+		}
+
+		public synchronized int getPriority() {
+			return priority;
+		}
+
+		public boolean isCanceled() {
+			return canceled;
+		}
+
+		/**
+		 * Executes the request on a worker thread.
+		 */
+		protected abstract IStatus run(boolean force, IProgressMonitor monitor);
+
+		/**
+		 * Invoked when the request has completed or with {@link Status#CANCEL_STATUS} if the request was cancelled
+		 * before it was executed.
+		 */
+		protected abstract void done(IStatus status);
+
+	}
+
+	private class Worker extends Job {
+
+		public Worker() {
+			super("Retrieving remote data"); //$NON-NLS-1$
+		}
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			try {
+				Request request;
+				// a cancelled worker stops, the remaining requests are taken over by a new worker
+				while (!monitor.isCanceled() && (request = next()) != null) {
+					execute(request, monitor);
+				}
+			} finally {
+				workerDone();
+			}
+			return (monitor.isCanceled()) ? Status.CANCEL_STATUS : Status.OK_STATUS;
+		}
+
+		private void execute(Request request, IProgressMonitor monitor) {
+			setName(request.getConsumer().getDescription());
+			long startTime = System.currentTimeMillis();
+			IStatus status = null;
+			try {
+				status = request.run(request.isForce(), new RequestMonitor(monitor, request));
+			} catch (RuntimeException e) {
+				status = new Status(IStatus.ERROR, ReviewsCoreConstants.PLUGIN_ID, "Unexpected error.", e); //$NON-NLS-1$
+			} finally {
+				if (status == null) {
+					// an error was thrown by the request
+					status = new Status(IStatus.ERROR, ReviewsCoreConstants.PLUGIN_ID, "Unexpected error."); //$NON-NLS-1$
+				}
+				completed(System.currentTimeMillis() - startTime);
+				try {
+					request.done(status);
+				} catch (RuntimeException e) {
+					StatusHandler.log(new Status(IStatus.ERROR, ReviewsCoreConstants.PLUGIN_ID,
+							"Unexpected error while completing request.", e)); //$NON-NLS-1$
+				}
+			}
+		}
+
+	}
+
+	/**
+	 * Reports cancellation of the request or the worker but records cancellation of the request on the request itself
+	 * so that it does not affect the worker.
+	 */
+	private static class RequestMonitor extends ProgressMonitorWrapper {
+
+		private final Request request;
+
+		RequestMonitor(IProgressMonitor monitor, Request request) {
+			super(monitor);
+			this.request = request;
+		}
+
+		@Override
+		public boolean isCanceled() {
+			return request.isCanceled() || super.isCanceled();
+		}
+
+		@Override
+		public void setCanceled(boolean canceled) {
+			request.canceled = canceled;
+		}
+
+	}
+
+	private final int maxWorkers;
+
+	private final Object lock = new Object();
+
+	private final PriorityQueue<Request> queue = new PriorityQueue<Request>(16, new Comparator<Request>() {
+		public int compare(Request r1, Request r2) {
+			if (r1.priority != r2.priority) {
+				return r1.priority < r2.priority ? -1 : 1;
+			}
+			return r1.sequence < r2.sequence ? -1 : (r1.sequence == r2.sequence ? 0 : 1);
+		}
+	});
+
+	private final Map<AbstractRemoteConsumer, Request> queuedRequestByConsumer = new IdentityHashMap<AbstractRemoteConsumer, Request>();
+
+	private int activeWorkers;
+
+	private long sequence;
+
+	private long submittedCount;
+
+	private long mergedCount;
+
+	private long startedCount;
+
+	private long completedCount;
+
+	private int maxQueueDepth;
+
+	private long totalQueueTime;
+
+	private long totalExecutionTime;
+
+	public RemoteServiceScheduler(int maxWorkers) {
+		Assert.isLegal(maxWorkers > 0);
+		this.maxWorkers = maxWorkers;
+	}
+
+	/**
+	 * Returns the scheduler that is shared by all services that do not specify a scheduler.
+	 */
+	public static synchronized RemoteServiceScheduler getDefault() {
+		if (defaultScheduler == null) {
+			defaultScheduler = new RemoteServiceScheduler(DEFAULT_MAX_WORKERS);
+		}
+		return defaultScheduler;
+	}
+
+	/**
+	 * Queues <code>request</code> for execution. If a request for the same consumer is already queued,
+	 * <code>request</code> is merged into the queued request and is not executed itself.
+	 *
+	 * @return true, if <code>request</code> was queued; false, if it was merged into a queued request
+	 */
+	public boolean schedule(Request request) {
+		boolean startWorker;
+		synchronized (lock) {
+			submittedCount++;
+			Request queued = queuedRequestByConsumer.get(request.getConsumer());
+			if (queued != null) {
+				mergedCount++;
+				synchronized (queued) {
+					queued.force |= request.isForce();
+					if (request.getPriority() < queued.priority) {
+						queue.remove(queued);
+						queued.priority = request.getPriority();
+						queue.add(queued);
+					}
+				}
+				return false;
+			}
+			request.sequence = sequence++;
+			request.submitTime = System.currentTimeMillis();
+			queue.add(request);
+			queuedRequestByConsumer.put(request.getConsumer(), request);
+			maxQueueDepth = Math.max(maxQueueDepth, queue.size());
+			startWorker = activeWorkers < maxWorkers;
+			if (startWorker) {
+				activeWorkers++;
+			}
+		}
+		if (startWorker) {
+			new Worker().schedule();
+		}
+		return true;
+	}
+
+	/**
+	 * Cancels <code>request</code>. A queued request is removed from the queue and completed with
+	 * {@link Status#CANCEL_STATUS}, a running request is notified through its progress monitor.
+	 */
+	public void cancel(Request request) {
+		boolean removed;
+		synchronized (lock) {
+			request.canceled = true;
+			removed = queue.remove(request);
+			if (removed) {
+				queuedRequestByConsumer.remove(request.getConsumer());
+			}
+		}
+		if (removed) {
+			request.done(Status.CANCEL_STATUS);
+		}
+	}
+
+	private Request next() {
+		synchronized (lock) {
+			Request request = queue.poll();
+			if (request == null) {
+				return null;
+			}
+			queuedRequestByConsumer.remove(request.getConsumer());
+			startedCount++;
+			totalQueueTime += System.currentTimeMillis() - request.submitTime;
+			return request;
+		}
+	}
+
+	/**
+	 * Invoked when a worker exits. Starts a new worker for requests that were queued after the worker took its last
+	 * request or that were left behind by a worker that was cancelled or failed.
+	 */
+	private void workerDone() {
+		boolean startWorker;
+		synchronized (lock) {
+			activeWorkers--;
+			startWorker = !queue.isEmpty() && activeWorkers < maxWorkers;
+			if (startWorker) {
+				activeWorkers++;
+			}
+		}
+		if (startWorker) {
+			try {
+				new Worker().schedule();
+			} catch (IllegalStateException e) {
+				// the job manager has been shut down
+				cancelQueuedRequests();
+			}
+		}
+	}
+
+	private void cancelQueuedRequests() {
+		List<Request> requests;
+		synchronized (lock) {
+			requests = new ArrayList<Request>(queue);
+			queue.clear();
+			queuedRequestByConsumer.clear();
+			activeWorkers--;
+		}
+		for (Request request : requests) {
+			request.canceled = true;
+			request.done(Status.CANCEL_STATUS);
+		}
+	}
+
+	private void completed(long executionTime) {
+		synchronized (lock) {
+			completedCount++;
+			totalExecutionTime += executionTime;
+		}
+	}
+
+	public int getMaxWorkers() {
+		return maxWorkers;
+	}
+
+	/**
+	 * Returns the number of requests that are waiting for a worker.
+	 */
+	public int getQueueDepth() {
+		synchronized (lock) {
+			return queue.size();
+		}
+	}
+
+	/**
+	 * Returns the largest number of requests that were waiting for a worker at the same time.
+	 */
+	public int getMaxQueueDepth() {
+		synchronized (lock) {
+			return maxQueueDepth;
+		}
+	}
+
+	public int getActiveWorkers() {
+		synchronized (lock) {
+			return activeWorkers;
+		}
+	}
+
+	public long getSubmittedCount() {
+		synchronized (lock) {
+			return submittedCount;
+		}
+	}
+
+	/**
+	 * Returns the number of requests that were merged into a queued request for the same consumer.
+	 */
+	public long getMergedCount() {
+		synchronized (lock) {
+			return mergedCount;
+		}
+	}
+
+	public long getCompletedCount() {
+		synchronized (lock) {
+			return completedCount;
+		}
+	}
+
+	/**
+	 * Returns the average time in milliseconds requests waited in the queue before execution.
+	 */
+	public long getAverageQueueTime() {
+		synchronized (lock) {
+			return (startedCount > 0) ? totalQueueTime / startedCount : 0;
+		}
+	}
+
+	/**
+	 * Returns the average time in milliseconds it took to execute a request.
+	 */
+	public long getAverageExecutionTime() {
+		synchronized (lock) {
+			return (completedCount > 0) ? totalExecutionTime / completedCount : 0;
+		}
+	}
+
+}
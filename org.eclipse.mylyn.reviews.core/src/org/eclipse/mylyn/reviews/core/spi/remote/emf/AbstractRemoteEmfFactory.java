@@ -11,16 +11,25 @@
 
 package org.eclipse.mylyn.reviews.core.spi.remote.emf;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.emf.common.notify.Adapter;
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.Notifier;
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
 import org.eclipse.emf.ecore.EAttribute;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.util.EcoreUtil;
 import org.eclipse.mylyn.reviews.core.spi.remote.AbstractRemoteService;
 
 /**
@@ -77,7 +86,16 @@ public abstract class AbstractRemoteEmfFactory<EParentObjectType extends EObject
 		}
 	}
 
-	private final Map<UniqueLocalReference<EParentObjectType, LocalKeyType>, RemoteEmfConsumer<EParentObjectType, EObjectType, LocalKeyType, RemoteType, RemoteKeyType, ObjectCurrentType>> consumerForLocalKey = new HashMap<UniqueLocalReference<EParentObjectType, LocalKeyType>, RemoteEmfConsumer<EParentObjectType, EObjectType, LocalKeyType, RemoteType, RemoteKeyType, ObjectCurrentType>>();
+	/**
+	 * Consumers are weakly referenced so that consumers that are no longer used by any client can be collected.
+	 */
+	private final ConsumerRegistry<UniqueLocalReference<EParentObjectType, LocalKeyType>, RemoteEmfConsumer<EParentObjectType, EObjectType, LocalKeyType, RemoteType, RemoteKeyType, ObjectCurrentType>> consumerForLocalKey = new ConsumerRegistry<UniqueLocalReference<EParentObjectType, LocalKeyType>, RemoteEmfConsumer<EParentObjectType, EObjectType, LocalKeyType, RemoteType, RemoteKeyType, ObjectCurrentType>>();
+
+	/**
+	 * Consumers that have pulled a remote object that has not been applied yet. These are strongly referenced so that
+	 * the pulled state is not lost if no client holds on to the consumer between pull and apply.
+	 */
+	private final Set<RemoteEmfConsumer<EParentObjectType, EObjectType, LocalKeyType, RemoteType, RemoteKeyType, ObjectCurrentType>> unappliedConsumers = Collections.newSetFromMap(new ConcurrentHashMap<RemoteEmfConsumer<EParentObjectType, EObjectType, LocalKeyType, RemoteType, RemoteKeyType, ObjectCurrentType>, Boolean>());
 
 	private final EReference parentReference;
 
@@ -113,22 +131,22 @@ public abstract class AbstractRemoteEmfFactory<EParentObjectType extends EObject
 	 *         remote API yet, provided appropriate remote key to local key mappings are provided.
 	 */
 	public RemoteEmfConsumer<EParentObjectType, EObjectType, LocalKeyType, RemoteType, RemoteKeyType, ObjectCurrentType> getConsumerForRemoteKey(
-			EParentObjectType parentObject, RemoteKeyType remoteKey) {
-		LocalKeyType localKey = getLocalKeyForRemoteKey(remoteKey);
-		synchronized (consumerForLocalKey) {
-			RemoteEmfConsumer<EParentObjectType, EObjectType, LocalKeyType, RemoteType, RemoteKeyType, ObjectCurrentType> consumer = null;
-			if (localKey != null) {
-				consumer = getConsumerForLocalKey(parentObject, localKey);
-			}
-			if (consumer == null) {
-				consumer = new RemoteEmfConsumer<EParentObjectType, EObjectType, LocalKeyType, RemoteType, RemoteKeyType, ObjectCurrentType>(
-						this, parentObject, null, localKey, null, remoteKey);
-				assignConsumer(parentObject, localKey, consumer);
-			} else {
-				consumer.setRemoteKey(remoteKey);
+			final EParentObjectType parentObject, final RemoteKeyType remoteKey) {
+		final LocalKeyType localKey = getLocalKeyForRemoteKey(remoteKey);
+		ConsumerFactory factory = new ConsumerFactory() {
+			@Override
+			RemoteEmfConsumer<EParentObjectType, EObjectType, LocalKeyType, RemoteType, RemoteKeyType, ObjectCurrentType> createConsumer() {
+				EObjectType modelObject = (localKey != null) ? open(parentObject, localKey) : null;
+				return new RemoteEmfConsumer<EParentObjectType, EObjectType, LocalKeyType, RemoteType, RemoteKeyType, ObjectCurrentType>(
+						AbstractRemoteEmfFactory.this, parentObject, modelObject, localKey, null, remoteKey);
 			}
-			return consumer;
+		};
+		RemoteEmfConsumer<EParentObjectType, EObjectType, LocalKeyType, RemoteType, RemoteKeyType, ObjectCurrentType> consumer = getConsumer(
+				parentObject, localKey, factory);
+		if (consumer != factory.created) {
+			consumer.setRemoteKey(remoteKey);
 		}
+		return consumer;
 	}
 
 	/**
@@ -140,26 +158,28 @@ public abstract class AbstractRemoteEmfFactory<EParentObjectType extends EObject
 	 * @return An object containing remotely derived state
 	 */
 	public RemoteEmfConsumer<EParentObjectType, EObjectType, LocalKeyType, RemoteType, RemoteKeyType, ObjectCurrentType> getConsumerForRemoteObject(
-			EParentObjectType parentObject, RemoteType remoteObject) {
-		synchronized (consumerForLocalKey) {
-			RemoteKeyType remoteKey = getRemoteKey(remoteObject);
-			LocalKeyType localKey = getLocalKeyForRemoteKey(remoteKey);
-			RemoteEmfConsumer<EParentObjectType, EObjectType, LocalKeyType, RemoteType, RemoteKeyType, ObjectCurrentType> consumer = findConsumer(
-					parentObject, localKey);
-			if (consumer == null) {
-				consumer = new RemoteEmfConsumer<EParentObjectType, EObjectType, LocalKeyType, RemoteType, RemoteKeyType, ObjectCurrentType>(
-						this, parentObject, null, localKey, remoteObject, remoteKey);
-				assignConsumer(parentObject, localKey, consumer);
-			} else {
-				consumer.setRemoteObject(remoteObject);
+			final EParentObjectType parentObject, final RemoteType remoteObject) {
+		final RemoteKeyType remoteKey = getRemoteKey(remoteObject);
+		final LocalKeyType localKey = getLocalKeyForRemoteKey(remoteKey);
+		ConsumerFactory factory = new ConsumerFactory() {
+			@Override
+			RemoteEmfConsumer<EParentObjectType, EObjectType, LocalKeyType, RemoteType, RemoteKeyType, ObjectCurrentType> createConsumer() {
+				return new RemoteEmfConsumer<EParentObjectType, EObjectType, LocalKeyType, RemoteType, RemoteKeyType, ObjectCurrentType>(
+						AbstractRemoteEmfFactory.this, parentObject, null, localKey, remoteObject, remoteKey);
 			}
-			return consumer;
+		};
+		RemoteEmfConsumer<EParentObjectType, EObjectType, LocalKeyType, RemoteType, RemoteKeyType, ObjectCurrentType> consumer = getConsumer(
+				parentObject, localKey, factory);
+		if (consumer != factory.created) {
+			consumer.setRemoteObject(remoteObject);
 		}
+		return consumer;
 	}
 
 	/**
 	 * Returns unique consumer for a model object that matches a given local key.
-	 * <em>Must be called from EMF safe (e.g. UI) thread.</em>
+	 * <em>Must be called from EMF safe (e.g. UI) thread.</em> The model object is looked up only once, concurrent
+	 * requests for the same key wait for the first lookup to complete.
 	 * 
 	 * @param parentObject
 	 *            The object that contains or will contain the remote object type
@@ -169,28 +189,15 @@ public abstract class AbstractRemoteEmfFactory<EParentObjectType extends EObject
 	 * @return An object containing remotely derived state
 	 */
 	public RemoteEmfConsumer<EParentObjectType, EObjectType, LocalKeyType, RemoteType, RemoteKeyType, ObjectCurrentType> getConsumerForLocalKey(
-			EParentObjectType parentObject, LocalKeyType localKey) {
-		RemoteEmfConsumer<EParentObjectType, EObjectType, LocalKeyType, RemoteType, RemoteKeyType, ObjectCurrentType> consumer = null;
-		synchronized (consumerForLocalKey) {
-			consumer = findConsumer(parentObject, localKey);
-		}
-		if (consumer == null) {
-			EObjectType eo = open(parentObject, localKey);
-			synchronized (consumerForLocalKey) {
-				if (eo != null) {
-					EObjectType modelObject = eo;
-					consumer = new RemoteEmfConsumer<EParentObjectType, EObjectType, LocalKeyType, RemoteType, RemoteKeyType, ObjectCurrentType>(
-							this, parentObject, modelObject, localKey, null, null);
-					assignConsumer(parentObject, localKey, consumer);
-				}
-				if (consumer == null) {
-					consumer = new RemoteEmfConsumer<EParentObjectType, EObjectType, LocalKeyType, RemoteType, RemoteKeyType, ObjectCurrentType>(
-							this, parentObject, null, localKey, null, null);
-					assignConsumer(parentObject, localKey, consumer);
-				}
+			final EParentObjectType parentObject, final LocalKeyType localKey) {
+		return getConsumer(parentObject, localKey, new ConsumerFactory() {
+			@Override
+			RemoteEmfConsumer<EParentObjectType, EObjectType, LocalKeyType, RemoteType, RemoteKeyType, ObjectCurrentType> createConsumer() {
+				EObjectType modelObject = open(parentObject, localKey);
+				return new RemoteEmfConsumer<EParentObjectType, EObjectType, LocalKeyType, RemoteType, RemoteKeyType, ObjectCurrentType>(
+						AbstractRemoteEmfFactory.this, parentObject, modelObject, localKey, null, null);
 			}
-		}
-		return consumer;
+		});
 	}
 
 	class ObjectFinder implements Runnable {
@@ -208,25 +215,193 @@ public abstract class AbstractRemoteEmfFactory<EParentObjectType extends EObject
 
 		@Override
 		public void run() {
-			Object parentField = parentObject.eGet(parentReference);
-			if (parentField instanceof List<?>) {
-				List<?> members = (List<?>) parentField;
-				for (Object object : members) {
-					if (object instanceof EObject) {
-						LocalKeyType currentKey = getLocalKey(parentObject, (EObjectType) object);
-						if (currentKey != null && localKey.equals(currentKey)) {
-							foundObject = (EObjectType) object;
-							break;
-						}
+			foundObject = getLocalKeyIndex(parentObject).get(localKey);
+		}
+	}
+
+	/**
+	 * Maps local keys to the model objects referenced by a parent object. The index is attached as an adapter to the
+	 * parent object and its members and kept current as members are added, removed or change their local key.
+	 */
+	class LocalKeyIndex extends AdapterImpl {
+
+		private final EParentObjectType parentObject;
+
+		private final Map<LocalKeyType, EObject> objectForKey = new HashMap<LocalKeyType, EObject>();
+
+		private final Map<EObject, LocalKeyType> keyForObject = new IdentityHashMap<EObject, LocalKeyType>();
+
+		private boolean valid;
+
+		/**
+		 * True, if more than one member has the same local key. Removing a member then requires the index to be rebuilt
+		 * to find the remaining member.
+		 */
+		private boolean ambiguous;
+
+		private final Adapter memberAdapter = new AdapterImpl() {
+			@Override
+			public void notifyChanged(Notification notification) {
+				if (notification.getNotifier() instanceof EObject && !notification.isTouch()) {
+					update((EObject) notification.getNotifier());
+				}
+			}
+
+			@Override
+			public void setTarget(Notifier newTarget) {
+				// shared by all members
+			}
+
+			@Override
+			public void unsetTarget(Notifier oldTarget) {
+				// shared by all members
+			}
+		};
+
+		LocalKeyIndex(EParentObjectType parentObject) {
+			this.parentObject = parentObject;
+		}
+
+		@Override
+		public boolean isAdapterForType(Object type) {
+			return type == AbstractRemoteEmfFactory.this;
+		}
+
+		@SuppressWarnings("unchecked")
+		synchronized EObjectType get(LocalKeyType localKey) {
+			if (!valid) {
+				Object parentField = parentObject.eGet(parentReference);
+				if (parentField instanceof List<?>) {
+					for (Object member : (List<?>) parentField) {
+						add(member);
+					}
+				}
+				valid = true;
+			}
+			return (EObjectType) objectForKey.get(localKey);
+		}
+
+		@Override
+		public void notifyChanged(Notification notification) {
+			if (notification.getFeature() != parentReference) {
+				return;
+			}
+			synchronized (this) {
+				if (!valid) {
+					return;
+				}
+				switch (notification.getEventType()) {
+				case Notification.ADD:
+					add(notification.getNewValue());
+					break;
+				case Notification.ADD_MANY:
+					for (Object member : (List<?>) notification.getNewValue()) {
+						add(member);
+					}
+					break;
+				case Notification.REMOVE:
+					remove(notification.getOldValue());
+					break;
+				case Notification.REMOVE_MANY:
+					for (Object member : (List<?>) notification.getOldValue()) {
+						remove(member);
 					}
+					break;
+				case Notification.SET:
+				case Notification.RESOLVE:
+					remove(notification.getOldValue());
+					if (valid) {
+						add(notification.getNewValue());
+					}
+					break;
+				case Notification.UNSET:
+					invalidate();
+					break;
 				}
 			}
 		}
+
+		private synchronized void update(EObject member) {
+			if (valid && keyForObject.containsKey(member)) {
+				LocalKeyType localKey = getKey(member);
+				LocalKeyType oldKey = keyForObject.get(member);
+				if (localKey == null ? oldKey != null : !localKey.equals(oldKey)) {
+					remove(member);
+					if (valid) {
+						add(member);
+					}
+				}
+			}
+		}
+
+		private void add(Object member) {
+			if (!(member instanceof EObject) || keyForObject.containsKey(member)) {
+				return;
+			}
+			EObject object = (EObject) member;
+			object.eAdapters().add(memberAdapter);
+			LocalKeyType localKey = getKey(object);
+			keyForObject.put(object, localKey);
+			if (localKey != null) {
+				if (objectForKey.containsKey(localKey)) {
+					ambiguous = true;
+				} else {
+					objectForKey.put(localKey, object);
+				}
+			}
+		}
+
+		private void remove(Object member) {
+			if (!(member instanceof EObject) || !keyForObject.containsKey(member)) {
+				return;
+			}
+			EObject object = (EObject) member;
+			object.eAdapters().remove(memberAdapter);
+			LocalKeyType localKey = keyForObject.remove(object);
+			if (localKey != null && objectForKey.get(localKey) == object) {
+				objectForKey.remove(localKey);
+				if (ambiguous) {
+					invalidate();
+				}
+			}
+		}
+
+		private void invalidate() {
+			for (EObject object : keyForObject.keySet()) {
+				object.eAdapters().remove(memberAdapter);
+			}
+			keyForObject.clear();
+			objectForKey.clear();
+			ambiguous = false;
+			valid = false;
+		}
+
+		@SuppressWarnings("unchecked")
+		private LocalKeyType getKey(EObject member) {
+			return getLocalKey(parentObject, (EObjectType) member);
+		}
+
+	}
+
+	/**
+	 * Returns the index of the model objects referenced by <code>parentObject</code>, creating it on first access.
+	 * <em>Must be called from EMF safe (e.g. UI) thread.</em>
+	 */
+	@SuppressWarnings("unchecked")
+	LocalKeyIndex getLocalKeyIndex(EParentObjectType parentObject) {
+		synchronized (parentObject.eAdapters()) {
+			LocalKeyIndex index = (LocalKeyIndex) EcoreUtil.getExistingAdapter(parentObject, this);
+			if (index == null) {
+				index = new LocalKeyIndex(parentObject);
+				parentObject.eAdapters().add(index);
+			}
+			return index;
+		}
 	}
 
 	protected EObjectType open(EParentObjectType parentObject, LocalKeyType localKey) {
 		ObjectFinder finder = new ObjectFinder(parentObject, localKey);
-		getService().modelExec(finder, true);
+		getService().modelExecUnbatched(finder);
 		return finder.foundObject;
 	}
 
@@ -241,36 +416,52 @@ public abstract class AbstractRemoteEmfFactory<EParentObjectType extends EObject
 	 * @return An object containing remotely derived state
 	 */
 	public RemoteEmfConsumer<EParentObjectType, EObjectType, LocalKeyType, RemoteType, RemoteKeyType, ObjectCurrentType> getConsumerForModel(
-			EParentObjectType parentObject, EObjectType modelObject) {
-		synchronized (consumerForLocalKey) {
-			RemoteEmfConsumer<EParentObjectType, EObjectType, LocalKeyType, RemoteType, RemoteKeyType, ObjectCurrentType> consumer = null;
-			LocalKeyType localKey = getLocalKey(parentObject, modelObject);
-			if (localKey != null) {
-				consumer = findConsumer(parentObject, localKey);
+			final EParentObjectType parentObject, final EObjectType modelObject) {
+		final LocalKeyType localKey = getLocalKey(parentObject, modelObject);
+		return getConsumer(parentObject, localKey, new ConsumerFactory() {
+			@Override
+			RemoteEmfConsumer<EParentObjectType, EObjectType, LocalKeyType, RemoteType, RemoteKeyType, ObjectCurrentType> createConsumer() {
+				return new RemoteEmfConsumer<EParentObjectType, EObjectType, LocalKeyType, RemoteType, RemoteKeyType, ObjectCurrentType>(
+						AbstractRemoteEmfFactory.this, parentObject, modelObject, localKey, null, null);
 			}
-			if (consumer == null) {
-				consumer = new RemoteEmfConsumer<EParentObjectType, EObjectType, LocalKeyType, RemoteType, RemoteKeyType, ObjectCurrentType>(
-						this, parentObject, modelObject, localKey, null, null);
-				assignConsumer(parentObject, localKey, consumer);
-			}
-			return consumer;
+		});
+	}
+
+	private abstract class ConsumerFactory extends ConsumerRegistry.Factory<RemoteEmfConsumer<EParentObjectType, EObjectType, LocalKeyType, RemoteType, RemoteKeyType, ObjectCurrentType>> {
+
+		RemoteEmfConsumer<EParentObjectType, EObjectType, LocalKeyType, RemoteType, RemoteKeyType, ObjectCurrentType> created;
+
+		@Override
+		final RemoteEmfConsumer<EParentObjectType, EObjectType, LocalKeyType, RemoteType, RemoteKeyType, ObjectCurrentType> create() {
+			created = createConsumer();
+			return created;
 		}
+
+		abstract RemoteEmfConsumer<EParentObjectType, EObjectType, LocalKeyType, RemoteType, RemoteKeyType, ObjectCurrentType> createConsumer();
+
 	}
 
-	private RemoteEmfConsumer<EParentObjectType, EObjectType, LocalKeyType, RemoteType, RemoteKeyType, ObjectCurrentType> findConsumer(
-			EParentObjectType parentObject, LocalKeyType localKey) {
+	private RemoteEmfConsumer<EParentObjectType, EObjectType, LocalKeyType, RemoteType, RemoteKeyType, ObjectCurrentType> getConsumer(
+			EParentObjectType parentObject, LocalKeyType localKey, ConsumerFactory factory) {
+		if (localKey == null) {
+			// objects without a local key cannot be told apart, each gets its own consumer that is not registered
+			return factory.create();
+		}
 		UniqueLocalReference<EParentObjectType, LocalKeyType> key = new UniqueLocalReference<EParentObjectType, LocalKeyType>(
 				parentObject, localKey);
-		return consumerForLocalKey.get(key);
+		// waiting on the model thread could deadlock with a thread that looks up the model object through modelExec()
+		AbstractRemoteService service = getService();
+		return consumerForLocalKey.getOrCreate(key, factory, service == null || !service.isModelThread());
 	}
 
-	private RemoteEmfConsumer<EParentObjectType, EObjectType, LocalKeyType, RemoteType, RemoteKeyType, ObjectCurrentType> assignConsumer(
-			EParentObjectType parentObject,
-			LocalKeyType localKey,
-			RemoteEmfConsumer<EParentObjectType, EObjectType, LocalKeyType, RemoteType, RemoteKeyType, ObjectCurrentType> consumer) {
+	/**
+	 * Returns true, if a consumer for the local key exists that has not been released, e.g. because the model object is
+	 * shown in an editor or is being retrieved. Does not create a consumer.
+	 */
+	public boolean hasConsumer(EParentObjectType parentObject, LocalKeyType localKey) {
 		UniqueLocalReference<EParentObjectType, LocalKeyType> key = new UniqueLocalReference<EParentObjectType, LocalKeyType>(
 				parentObject, localKey);
-		return consumerForLocalKey.put(key, consumer);
+		return consumerForLocalKey.get(key) != null;
 	}
 
 	public void removeConsumer(
@@ -280,10 +471,20 @@ public abstract class AbstractRemoteEmfFactory<EParentObjectType extends EObject
 		if (parentObject != null && localKey != null) {
 			UniqueLocalReference<EParentObjectType, LocalKeyType> key = new UniqueLocalReference<EParentObjectType, LocalKeyType>(
 					parentObject, localKey);
-			consumerForLocalKey.remove(key);
+			consumerForLocalKey.remove(key, consumer);
 		}
 	}
 
+	void retainUnapplied(
+			RemoteEmfConsumer<EParentObjectType, EObjectType, LocalKeyType, RemoteType, RemoteKeyType, ObjectCurrentType> consumer) {
+		unappliedConsumers.add(consumer);
+	}
+
+	void releaseUnapplied(
+			RemoteEmfConsumer<EParentObjectType, EObjectType, LocalKeyType, RemoteType, RemoteKeyType, ObjectCurrentType> consumer) {
+		unappliedConsumers.remove(consumer);
+	}
+
 	@SuppressWarnings("unchecked")
 	public LocalKeyType getLocalKey(EParentObjectType parentObject, EObjectType modelObject) {
 		if (modelObject instanceof EObject) {
@@ -0,0 +1,201 @@
+/*******************************************************************************
+ * Copyright (c) 2014 Tasktop Technologies and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Tasktop Technologies - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.mylyn.reviews.core.spi.remote.emf;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+
+import org.eclipse.core.runtime.OperationCanceledException;
+
+/**
+ * A concurrent registry that maps keys to weakly referenced values. Lookups do not block each other and each value is
+ * created at most once per key, concurrent requests for a key that is being created wait for the creating thread.
+ * Values that are no longer referenced elsewhere are collected and recreated on demand.
+ *
+ * @see AbstractRemoteEmfFactory
+ */
+class ConsumerRegistry<K, V> {
+
+	static abstract class Factory<V> {
+
+		/**
+		 * Creates the value for a key, must not return null.
+		 */
+		abstract V create();
+
+	}
+
+	private static class ValueReference<K, V> extends WeakReference<V> {
+
+		private final K key;
+
+		ValueReference(K key, V value, ReferenceQueue<V> queue) {
+			super(value, queue);
+			this.key = key;
+		}
+
+	}
+
+	/**
+	 * Marks a key whose value is being created.
+	 */
+	private static class Pending<V> {
+
+		private final CountDownLatch done = new CountDownLatch(1);
+
+		private V value;
+
+		/**
+		 * Completes the entry unless another thread has completed it first.
+		 *
+		 * @return the value the entry was completed with
+		 */
+		synchronized V complete(V value) {
+			if (this.value == null) {
+				this.value = value;
+				done.countDown();
+			}
+			return this.value;
+		}
+
+		/**
+		 * Wakes up waiting threads without a value, e.g. if creation failed.
+		 */
+		void abort() {
+			done.countDown();
+		}
+
+		/**
+		 * Waits for the entry to complete.
+		 *
+		 * @return the value or null, if creation was aborted
+		 */
+		V await() {
+			try {
+				done.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new OperationCanceledException();
+			}
+			synchronized (this) {
+				return value;
+			}
+		}
+
+	}
+
+	/**
+	 * Maps each key to a {@link ValueReference} or a {@link Pending} entry.
+	 */
+	private final ConcurrentMap<K, Object> entries = new ConcurrentHashMap<K, Object>();
+
+	private final ReferenceQueue<V> queue = new ReferenceQueue<V>();
+
+	/**
+	 * Returns the value for <code>key</code> or null, if no value exists or the value is still being created.
+	 */
+	@SuppressWarnings("unchecked")
+	V get(K key) {
+		expunge();
+		Object entry = entries.get(key);
+		if (entry instanceof ValueReference<?, ?>) {
+			return ((ValueReference<K, V>) entry).get();
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the value for <code>key</code>, invoking <code>factory</code> if no value exists. If another thread is
+	 * already creating the value and <code>wait</code> is true, the call blocks until that value is available.
+	 * Otherwise the value is created concurrently and the value that completes first is registered and returned to both
+	 * callers. Callers must not wait if the creating thread may depend on them, e.g. through a synchronous model
+	 * execution.
+	 */
+	@SuppressWarnings("unchecked")
+	V getOrCreate(K key, Factory<V> factory, boolean wait) {
+		while (true) {
+			expunge();
+			Object entry = entries.get(key);
+			if (entry == null) {
+				Pending<V> pending = new Pending<V>();
+				if (entries.putIfAbsent(key, pending) == null) {
+					return create(key, pending, factory);
+				}
+			} else if (entry instanceof ValueReference<?, ?>) {
+				V value = ((ValueReference<K, V>) entry).get();
+				if (value != null) {
+					return value;
+				}
+				Pending<V> pending = new Pending<V>();
+				if (entries.replace(key, entry, pending)) {
+					return create(key, pending, factory);
+				}
+			} else {
+				Pending<V> pending = (Pending<V>) entry;
+				if (!wait) {
+					return publish(key, pending, factory.create());
+				}
+				V value = pending.await();
+				if (value != null) {
+					return value;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Removes the entry for <code>key</code> if it maps to <code>value</code>.
+	 */
+	@SuppressWarnings("unchecked")
+	void remove(K key, V value) {
+		expunge();
+		Object entry = entries.get(key);
+		if (entry instanceof ValueReference<?, ?> && ((ValueReference<K, V>) entry).get() == value) {
+			entries.remove(key, entry);
+		}
+	}
+
+	private V create(K key, Pending<V> pending, Factory<V> factory) {
+		boolean success = false;
+		try {
+			V value = publish(key, pending, factory.create());
+			success = true;
+			return value;
+		} finally {
+			if (!success) {
+				entries.remove(key, pending);
+				pending.abort();
+			}
+		}
+	}
+
+	private V publish(K key, Pending<V> pending, V value) {
+		V result = pending.complete(value);
+		if (result == value) {
+			entries.replace(key, pending, new ValueReference<K, V>(key, value, queue));
+		}
+		return result;
+	}
+
+	@SuppressWarnings("unchecked")
+	private void expunge() {
+		Reference<? extends V> reference;
+		while ((reference = queue.poll()) != null) {
+			entries.remove(((ValueReference<K, V>) reference).key, reference);
+		}
+	}
+
+}
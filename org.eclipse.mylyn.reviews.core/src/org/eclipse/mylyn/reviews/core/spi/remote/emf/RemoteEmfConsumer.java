@@ -22,6 +22,7 @@ import org.eclipse.emf.common.util.EList;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.EReference;
 import org.eclipse.mylyn.reviews.core.spi.remote.AbstractRemoteConsumer;
+import org.eclipse.mylyn.reviews.core.spi.remote.RemoteCompletion;
 import org.eclipse.osgi.util.NLS;
 
 /**
@@ -65,6 +66,8 @@ public class RemoteEmfConsumer<EParentObjectType extends EObject, EObjectType, L
 
 	private IStatus lastStatus = Status.OK_STATUS;
 
+	private volatile RemoteCompletion completion;
+
 	RemoteEmfConsumer(
 			AbstractRemoteEmfFactory<EParentObjectType, EObjectType, LocalKeyType, RemoteType, RemoteKeyType, ObjectCurrentType> factory,
 			final EParentObjectType parent, final EObjectType modelObject, LocalKeyType localKey,
@@ -126,6 +129,10 @@ public class RemoteEmfConsumer<EParentObjectType extends EObject, EObjectType, L
 			notifyObservers(RemoteNotification.createUpdatingNotification());
 			try {
 				remoteObject = factory.pull(parentObject, remoteKey, monitor);
+				if (remoteObject != null) {
+					//Keep the pulled state until it has been applied
+					factory.retainUnapplied(this);
+				}
 				if (localKey == null) {
 					localKey = factory.getLocalKeyForRemoteObject(remoteObject);
 				}
@@ -184,6 +191,7 @@ public class RemoteEmfConsumer<EParentObjectType extends EObject, EObjectType, L
 				modified |= factory.updateModel(parentObject, modelObject, remoteObject);
 			}
 		}
+		factory.releaseUnapplied(this);
 		retrieving = false;
 		notifyObservers(RemoteNotification.createUpdateNotification(modified));
 	}
@@ -222,13 +230,25 @@ public class RemoteEmfConsumer<EParentObjectType extends EObject, EObjectType, L
 	 *            Forces pull and update, even if factory methods
 	 *            {@link AbstractRemoteEmfFactory#isPullNeeded(EObject, Object, Object)} and/or
 	 *            {@link AbstractRemoteEmfFactory#isUpdateModelNeeded(EObject, Object, Object)} return false.
+	 * @return a handle that is completed when the retrieval is done; if a retrieval is already in progress the handle
+	 *         of that retrieval
 	 */
-	public void retrieve(boolean force) {
+	public RemoteCompletion retrieve(boolean force) {
 		if (retrieving) {
-			return;
+			return completion;
 		}
 		retrieving = true;
+		RemoteCompletion current = new RemoteCompletion();
+		completion = current;
 		getFactory().getService().retrieve(this, force || !lastStatus.isOK());
+		return current;
+	}
+
+	/**
+	 * Returns the handle of the current or last retrieval or null if {@link #retrieve(boolean)} has not been invoked.
+	 */
+	public RemoteCompletion getCompletion() {
+		return completion;
 	}
 
 	/**
@@ -237,6 +257,10 @@ public class RemoteEmfConsumer<EParentObjectType extends EObject, EObjectType, L
 	@Override
 	public void notifyDone(IStatus status) {
 		retrieving = false;
+		RemoteCompletion current = completion;
+		if (current != null) {
+			current.done(status);
+		}
 	}
 
 	/**
@@ -245,8 +269,13 @@ public class RemoteEmfConsumer<EParentObjectType extends EObject, EObjectType, L
 	@Override
 	public void dispose() {
 		retrieving = false;
+		RemoteCompletion current = completion;
+		if (current != null) {
+			current.done(Status.CANCEL_STATUS);
+		}
 		remoteEmfObservers.clear();
 		getFactory().removeConsumer(this);
+		getFactory().releaseUnapplied(this);
 		if (getModelObject() instanceof EObject) {
 			getFactory().getFactoryProvider().close((EObject) getModelObject());
 		}
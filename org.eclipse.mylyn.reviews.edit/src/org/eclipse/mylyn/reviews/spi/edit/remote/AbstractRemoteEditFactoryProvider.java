@@ -13,12 +13,18 @@ package org.eclipse.mylyn.reviews.spi.edit.remote;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 
 import org.apache.commons.io.FileUtils;
+import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Path;
@@ -46,12 +52,18 @@ import org.eclipse.mylyn.reviews.internal.core.model.ReviewsResourceFactory;
 
 /**
  * Supports decoupling of Reviews from remote API as well as job management.
+ * <p>
+ * At most {@link #getMaxLoadedChildren()} children are kept loaded. When more children are opened, the least recently
+ * opened children that are not in use are saved and unloaded. They are loaded again the next time they are opened.
+ * </p>
  * 
  * @author Miles Parker
  */
 public abstract class AbstractRemoteEditFactoryProvider<ERootObject extends EObject, EChildObject extends EObject>
 		extends AbstractRemoteEmfFactoryProvider<ERootObject, EChildObject> {
 
+	public static final int DEFAULT_MAX_LOADED_CHILDREN = 50;
+
 	final EditingDomain editingDomain;
 
 	ERootObject rootObject;
@@ -64,7 +76,20 @@ public abstract class AbstractRemoteEditFactoryProvider<ERootObject extends EObj
 
 	private final EClass childType;
 
-	private final Map<Object, EChildObject> memberForId = new HashMap<Object, EChildObject>();
+	/**
+	 * Loaded children in order of access, the least recently opened child comes first.
+	 */
+	private final Map<Object, EChildObject> memberForId = new LinkedHashMap<Object, EChildObject>(16, 0.75f, true);
+
+	private final Set<Object> evictedIds = new HashSet<Object>();
+
+	private volatile int maxLoadedChildren = DEFAULT_MAX_LOADED_CHILDREN;
+
+	private volatile int loadCount;
+
+	private volatile int reloadCount;
+
+	private volatile int evictionCount;
 
 	public AbstractRemoteEditFactoryProvider(final EFactory emfFactory, EReference parentReference,
 			final EAttribute localKeyAttribute, EClass childType) {
@@ -101,22 +126,132 @@ public abstract class AbstractRemoteEditFactoryProvider<ERootObject extends EObj
 	@Override
 	public EChildObject open(Object id) {
 		if (getRoot() != null) {
+			EChildObject child;
+			List<EChildObject> evicted;
 			synchronized (getRoot()) {
-				EChildObject child = memberForId.get(id);
-				if (child == null) {
-					child = (EChildObject) open(childType, (String) id);
-					if (child != null && getRoot() != null) {
-						memberForId.put(id, child);
-						((List) getRoot().eGet(parentReference)).add(child);
-					}
+				child = memberForId.get(id);
+				if (child != null) {
 					return child;
 				}
-				return child;
+				child = (EChildObject) open(childType, (String) id);
+				if (child == null || getRoot() == null) {
+					return child;
+				}
+				memberForId.put(id, child);
+				((List) getRoot().eGet(parentReference)).add(child);
+				loadCount++;
+				if (evictedIds.remove(id)) {
+					reloadCount++;
+				}
+				evicted = evictChildren(id);
 			}
+			unloadChildren(evicted);
+			return child;
 		}
 		return null;
 	}
 
+	/**
+	 * Removes the least recently opened children that may be evicted from the loaded children until no more than
+	 * {@link #getMaxLoadedChildren()} children remain. Must be invoked while holding the lock on the root.
+	 * 
+	 * @param keepId
+	 *            the id of a child that must not be evicted or null
+	 * @return the removed children that need to be unloaded
+	 */
+	private List<EChildObject> evictChildren(Object keepId) {
+		List<EChildObject> evicted = new ArrayList<EChildObject>();
+		int excess = memberForId.size() - maxLoadedChildren;
+		for (Iterator<Entry<Object, EChildObject>> it = memberForId.entrySet().iterator(); excess > 0 && it.hasNext();) {
+			Entry<Object, EChildObject> entry = it.next();
+			Object id = entry.getKey();
+			EChildObject child = entry.getValue();
+			if (!id.equals(keepId) && isEvictable(id, child)) {
+				it.remove();
+				evictedIds.add(id);
+				evicted.add(child);
+				excess--;
+			}
+		}
+		evictionCount += evicted.size();
+		return evicted;
+	}
+
+	private void unloadChildren(List<EChildObject> children) {
+		if (!children.isEmpty()) {
+			for (EChildObject child : children) {
+				unload(child);
+			}
+			save();
+		}
+	}
+
+	/**
+	 * Returns true, if the loaded child may be unloaded to stay within {@link #getMaxLoadedChildren()}. Implementors
+	 * should return false while the child is in use, e.g. while it is shown in an editor.
+	 * 
+	 * @param id
+	 *            the id the child was opened with
+	 * @param child
+	 *            the loaded child
+	 */
+	protected boolean isEvictable(Object id, EChildObject child) {
+		return true;
+	}
+
+	/**
+	 * Returns the number of children that are kept loaded before the least recently opened children are unloaded.
+	 */
+	public int getMaxLoadedChildren() {
+		return maxLoadedChildren;
+	}
+
+	/**
+	 * Sets the number of children that are kept loaded. Loaded children that exceed the new limit are unloaded right
+	 * away.
+	 */
+	public void setMaxLoadedChildren(int maxLoadedChildren) {
+		Assert.isLegal(maxLoadedChildren > 0);
+		this.maxLoadedChildren = maxLoadedChildren;
+		if (getRoot() != null) {
+			List<EChildObject> evicted;
+			synchronized (getRoot()) {
+				evicted = evictChildren(null);
+			}
+			unloadChildren(evicted);
+		}
+	}
+
+	public int getLoadedChildCount() {
+		if (getRoot() != null) {
+			synchronized (getRoot()) {
+				return memberForId.size();
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Returns the number of times children were loaded by {@link #open(Object)}.
+	 */
+	public int getLoadCount() {
+		return loadCount;
+	}
+
+	/**
+	 * Returns the number of times children were loaded again after they had been evicted.
+	 */
+	public int getReloadCount() {
+		return reloadCount;
+	}
+
+	/**
+	 * Returns the number of times children were unloaded to stay within {@link #getMaxLoadedChildren()}.
+	 */
+	public int getEvictionCount() {
+		return evictionCount;
+	}
+
 	private Resource getResourceImpl(URI uri, boolean loadOnDemand) {
 		Resource resource = null;
 		String fileString = uri.toFileString();
@@ -222,13 +357,24 @@ public abstract class AbstractRemoteEditFactoryProvider<ERootObject extends EObj
 			if (key != null) {
 				memberForId.remove(key);
 			}
-			Object parentList = getRoot().eGet(parentReference);
-			if (parentList instanceof List<?>) {
-				List<?> members = (List<?>) parentList;
-				members.remove(child);
-			}
 		}
+		unload(child);
 		save();
+	}
+
+	/**
+	 * Removes the child from the root, saves it and unloads its resource.
+	 */
+	private void unload(EObject child) {
+		if (getRoot() != null) {
+			synchronized (getRoot()) {
+				Object parentList = getRoot().eGet(parentReference);
+				if (parentList instanceof List<?>) {
+					List<?> members = (List<?>) parentList;
+					members.remove(child);
+				}
+			}
+		}
 		save(child);
 		Resource resource = child.eResource();
 		if (resource != null) {
@@ -246,6 +392,7 @@ public abstract class AbstractRemoteEditFactoryProvider<ERootObject extends EObj
 					List<?> members = (List<?>) parentList;
 					members.clear();
 				}
+				memberForId.clear();
 			}
 		}
 	}
@@ -305,6 +452,11 @@ public abstract class AbstractRemoteEditFactoryProvider<ERootObject extends EObj
 
 	@Override
 	public void modelExec(final Runnable runnable, boolean block) {
+		if (getService() != null && getService().isBatching()) {
+			//Collected runnables are executed in a single command when the batch ends
+			super.modelExec(runnable, block);
+			return;
+		}
 		super.modelExec(new Runnable() { //Run in UI thread
 					public void run() {
 						editingDomain.getCommandStack().execute(new AbstractCommand() {
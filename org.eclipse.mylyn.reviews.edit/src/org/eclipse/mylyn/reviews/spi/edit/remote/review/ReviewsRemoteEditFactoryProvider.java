@@ -63,6 +63,14 @@ public abstract class ReviewsRemoteEditFactoryProvider extends AbstractRemoteEdi
 		}
 	}
 
+	/**
+	 * Reviews are only evicted when no consumer for them is left, i.e. they are neither shown nor retrieved.
+	 */
+	@Override
+	protected boolean isEvictable(Object id, IReview review) {
+		return getRoot() == null || !getReviewFactory().hasConsumer(getRoot(), (String) id);
+	}
+
 	public static String asFileName(String urlString) throws MalformedURLException {
 		URL url = new URL(urlString);
 		return url.getProtocol() + "-" + url.getHost() + "-" + url.getPath().replace('/', '-'); //$NON-NLS-1$ //$NON-NLS-2$
@@ -13,6 +13,7 @@ package org.eclipse.mylyn.reviews.spi.edit.remote;
 
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.Matchers.sameInstance;
@@ -184,6 +185,39 @@ public class AbstractRemoteEditFactoryProviderTest extends TestCase {
 		assertThat(newChild.getInstanceClassName(), is("Foo"));
 	}
 
+	@Test
+	public void testEvictChildren() {
+		TestEditFactoryProvider provider = new TestEditFactoryProvider();
+		provider.setDataLocator(testDataLocator);
+		provider.setService(new JobRemoteService());
+		provider.setMaxLoadedChildren(2);
+		provider.open();
+		EClass child1 = provider.open("1");
+		child1.setInstanceClassName("Foo");
+		EClass child2 = provider.open("2");
+		assertThat(provider.open("1"), sameInstance(child1));
+		provider.open("3");
+		assertThat(provider.getLoadedChildCount(), is(2));
+		assertThat(provider.getRoot().getEClassifiers().size(), is(2));
+		assertThat(provider.getEvictionCount(), is(1));
+		assertThat(child2.eIsProxy(), is(true));
+		assertThat(provider.open("1"), sameInstance(child1));
+
+		EClass newChild2 = provider.open("2");
+		assertThat(newChild2.getName(), is("2"));
+		assertThat(provider.getEvictionCount(), is(2));
+		assertThat(provider.getReloadCount(), is(1));
+		assertThat(provider.getLoadCount(), is(4));
+		assertThat(child1.eIsProxy(), is(false));
+
+		provider.setMaxLoadedChildren(1);
+		assertThat(provider.getLoadedChildCount(), is(1));
+		assertThat(provider.getRoot().getEClassifiers().get(0), sameInstance((EClassifier) newChild2));
+		EClass newChild1 = provider.open("1");
+		assertThat(newChild1, not(sameInstance(child1)));
+		assertThat(newChild1.getInstanceClassName(), is("Foo"));
+	}
+
 	@Test
 	public void testBadChild() throws Exception {
 		TestEditFactoryProvider provider = new TestEditFactoryProvider();
@@ -25,6 +25,9 @@ public class RemoteUiService extends JobRemoteService {
 
 	@Override
 	public void modelExec(final Runnable runnable, boolean block) {
+		if (addToBatch(runnable)) {
+			return;
+		}
 		Display displayThread = Display.getCurrent();
 		if (displayThread == null) {
 			if (!PlatformUI.getWorkbench().isClosing()) {
@@ -45,4 +48,9 @@ public class RemoteUiService extends JobRemoteService {
 		}
 	}
 
+	@Override
+	public boolean isModelThread() {
+		return Display.getCurrent() != null;
+	}
+
 }